@@ -0,0 +1,4 @@
+package ua.kpi.comsys.test2.benchmark.jmh_generated;
+public class ConversionBenchmark_jmhType extends ConversionBenchmark_jmhType_B3 {
+}
+
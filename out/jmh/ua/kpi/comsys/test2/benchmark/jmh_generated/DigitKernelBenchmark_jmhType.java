@@ -0,0 +1,4 @@
+package ua.kpi.comsys.test2.benchmark.jmh_generated;
+public class DigitKernelBenchmark_jmhType extends DigitKernelBenchmark_jmhType_B3 {
+}
+
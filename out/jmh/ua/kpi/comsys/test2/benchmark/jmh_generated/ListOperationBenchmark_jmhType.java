@@ -0,0 +1,4 @@
+package ua.kpi.comsys.test2.benchmark.jmh_generated;
+public class ListOperationBenchmark_jmhType extends ListOperationBenchmark_jmhType_B3 {
+}
+
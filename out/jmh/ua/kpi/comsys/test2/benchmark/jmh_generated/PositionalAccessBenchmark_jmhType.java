@@ -0,0 +1,4 @@
+package ua.kpi.comsys.test2.benchmark.jmh_generated;
+public class PositionalAccessBenchmark_jmhType extends PositionalAccessBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.SplittableRandom;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Deterministic input generation shared by all benchmarks.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+final class BenchmarkData {
+
+    /** Seed of every generated input, so runs are comparable. */
+    static final long SEED = 0x4317L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns a decimal number with exactly {@code digits} digits
+     * and a non-zero leading digit.
+     *
+     * @param digits number of decimal digits
+     * @param seed   random seed
+     * @return the decimal number in string notation
+     */
+    static String decimal(int digits, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        char[] chars = new char[digits];
+        chars[0] = (char) ('1' + random.nextInt(9));
+        for (int i = 1; i < digits; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Returns a list with roughly {@code digits} digits in the requested base.
+     * A random list in the default base of {@link NumberListImpl} is
+     * converted to the other bases.
+     *
+     * @param digits number of digits in the default base
+     * @param base   scale of notation of the list, from 2 to 36
+     * @param seed   random seed
+     * @return generated list
+     */
+    static NumberListImpl list(int digits, int base, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        NumberListImpl list = new NumberListImpl();
+        int defaultBase = 8;
+        list.add((byte) (1 + random.nextInt(defaultBase - 1)));
+        for (int i = 1; i < digits; i++) {
+            list.add((byte) random.nextInt(defaultBase));
+        }
+        if (base == defaultBase) {
+            return list;
+        }
+        return list.changeScale(base);
+    }
+
+    /**
+     * Returns {@code count} indices in {@code [0, size)} visited in
+     * the given access pattern.
+     *
+     * @param pattern one of {@code SEQUENTIAL}, {@code RANDOM}, {@code ENDS}
+     * @param size    list size
+     * @param count   number of indices
+     * @param seed    random seed
+     * @return indices to access
+     */
+    static int[] indices(String pattern, int size, int count, long seed) {
+        int[] res = new int[count];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) {
+            switch (pattern) {
+                case "SEQUENTIAL":
+                    res[i] = i % size;
+                    break;
+                case "RANDOM":
+                    res[i] = random.nextInt(size);
+                    break;
+                case "ENDS":
+                    res[i] = (i & 1) == 0 ? i / 2 % size : size - 1 - i / 2 % size;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown access pattern: " + pattern);
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Benchmarks of conversions between scales of notation and persistence:
+ * construction from {@code String} and {@code File}, {@code toDecimalString},
+ * {@code changeScale}, {@code saveList} and streaming with {@code writeTo}.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int digits;
+
+    @Param({"8", "10"})
+    public int base;
+
+    private String decimal;
+    private File input;
+    private File output;
+    private NumberListImpl list;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        list = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+        decimal = BenchmarkData.decimal(digits, BenchmarkData.SEED);
+        input = File.createTempFile("numberlist-in", ".txt");
+        output = File.createTempFile("numberlist-out", ".txt");
+        Files.write(input.toPath(), (decimal + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        input.delete();
+        output.delete();
+    }
+
+    @Benchmark
+    public NumberListImpl constructFromString() {
+        return new NumberListImpl(decimal);
+    }
+
+    @Benchmark
+    public NumberListImpl constructFromFile() {
+        return new NumberListImpl(input);
+    }
+
+    @Benchmark
+    public String toDecimalString() {
+        return list.toDecimalString();
+    }
+
+    @Benchmark
+    public String toStringInBase() {
+        return list.toString();
+    }
+
+    @Benchmark
+    public NumberListImpl changeScale() {
+        return list.changeScale();
+    }
+
+    @Benchmark
+    public File saveList() {
+        list.saveList(output);
+        return output;
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        list.writeTo(OutputStream.nullOutputStream());
+    }
+}
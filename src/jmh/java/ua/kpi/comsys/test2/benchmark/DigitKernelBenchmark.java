@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Benchmarks of the operations that go through the digit kernels: the
+ * additional operation of power-of-two bases, equality and bulk import.
+ * Run once more with {@code -jvmArgsAppend -Dnumberlist.digits.scalar=true}
+ * to compare with the scalar kernel.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DigitKernelBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int digits;
+
+    @Param({"8", "16"})
+    public int base;
+
+    private NumberListImpl list;
+    private NumberListImpl other;
+    private NumberListImpl copy;
+    private NumberListImpl permuted;
+    private byte[] digitArray;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+        other = BenchmarkData.list(digits, base, BenchmarkData.SEED + 1);
+        copy = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+        // the same digits with two of the last ones swapped, so only a
+        // comparison up to the end tells the lists apart
+        permuted = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+        int last = permuted.size() - 1;
+        int i = last - 1;
+        while (permuted.get(i).equals(permuted.get(last))) {
+            i--;
+        }
+        permuted.swap(i, last);
+        digitArray = list.toDigitArray();
+    }
+
+    @Benchmark
+    public NumberListImpl additionalOperation() {
+        return list.additionalOperation(other);
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return list.equals(copy);
+    }
+
+    @Benchmark
+    public boolean equalsOther() {
+        return list.equals(other);
+    }
+
+    @Benchmark
+    public boolean equalsPermutation() {
+        return list.equals(permuted);
+    }
+
+    @Benchmark
+    public NumberListImpl fromDigits() {
+        return NumberListImpl.fromDigits(base, digitArray, 0, digitArray.length);
+    }
+}
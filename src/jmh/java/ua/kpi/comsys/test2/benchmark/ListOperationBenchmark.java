@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Benchmarks of whole-list operations: the additional operation, sorting,
+ * equality and digit lookup.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListOperationBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int digits;
+
+    @Param({"8", "10"})
+    public int base;
+
+    private NumberListImpl list;
+    private NumberListImpl other;
+    private NumberListImpl copy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+        other = BenchmarkData.list(digits, base, BenchmarkData.SEED + 1);
+        copy = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+    }
+
+    @Benchmark
+    public NumberListImpl additionalOperation() {
+        return list.additionalOperation(other);
+    }
+
+    @Benchmark
+    public NumberListImpl sortAscending() {
+        list.sortAscending();
+        return list;
+    }
+
+    @Benchmark
+    public NumberListImpl sortDescending() {
+        list.sortDescending();
+        return list;
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return list.equals(copy);
+    }
+
+    @Benchmark
+    public boolean containsDigit() {
+        return list.contains((byte) 7);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ua.kpi.comsys.test2.implementation.NumberListImpl;
+
+/**
+ * Benchmarks of positional operations bound by node lookup:
+ * {@code get}, {@code swap} and rotation by {@code k}. Each benchmark
+ * performs {@value #ACCESSES} accesses per invocation in the selected
+ * access pattern and reports the time of a single access.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionalAccessBenchmark {
+
+    static final int ACCESSES = 1024;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int digits;
+
+    @Param({"8", "10"})
+    public int base;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ENDS"})
+    public String access;
+
+    private NumberListImpl list;
+    private int[] indices;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        list = BenchmarkData.list(digits, base, BenchmarkData.SEED);
+        indices = BenchmarkData.indices(access, list.size(), ACCESSES, BenchmarkData.SEED);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void get(Blackhole bh) {
+        for (int index : indices) {
+            bh.consume(list.get(index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void swap(Blackhole bh) {
+        int last = list.size() - 1;
+        for (int index : indices) {
+            bh.consume(list.swap(index, last - index));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void shiftLeft() {
+        for (int index : indices) {
+            list.shiftLeft(index);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted by operations that convert a number between scales
+ * of notation: {@code changeScale}, {@code toDecimalString} and
+ * {@code additionalOperation}.<p>
+ *
+ * Disabled by default; enable {@value #NAME} in the recording settings.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@Name(ConversionEvent.NAME)
+@Label("NumberList Conversion")
+@Category("NumberList")
+@Description("Conversion of a number between scales of notation")
+@Enabled(false)
+class ConversionEvent extends Event {
+
+    static final String NAME = "ua.kpi.comsys.test2.Conversion";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Source Base")
+    int sourceBase;
+
+    @Label("Target Base")
+    int targetBase;
+
+    @Label("Input Digits")
+    int inputDigits;
+
+    @Label("Result Digits")
+    int resultDigits;
+}
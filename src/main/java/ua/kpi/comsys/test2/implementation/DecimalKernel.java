@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Primitive operations on ASCII decimal digits used by {@link DecimalParser}.<p>
+ *
+ * This implementation is the scalar fallback. It processes eight characters
+ * at a time inside a {@code long} (SWAR). When the {@code jdk.incubator.vector}
+ * module is present, {@link #INSTANCE} is replaced by
+ * {@code VectorDecimalKernel}, which does the same work in vector lanes.
+ * The vector kernel is loaded reflectively, so this class never links
+ * against the incubator module.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+class DecimalKernel {
+
+    /** System property that forces the scalar kernel when set to {@code true}. */
+    static final String SCALAR_PROPERTY = "numberlist.decimal.scalar";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "ua.kpi.comsys.test2.implementation.VectorDecimalKernel";
+
+    /** Best kernel available in the running JVM. */
+    static final DecimalKernel INSTANCE = load();
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIXES = 0x0606060606060606L;
+
+    DecimalKernel() {
+    }
+
+    /**
+     * Returns the vector kernel if the incubator module is present and
+     * usable, otherwise the scalar kernel.
+     *
+     * @return the kernel to use
+     */
+    static DecimalKernel load() {
+        if (!Boolean.getBoolean(SCALAR_PROPERTY)
+                && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (DecimalKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall through to the scalar kernel
+            }
+        }
+        return new DecimalKernel();
+    }
+
+    /**
+     * Returns a short name of the kernel, for diagnostics and benchmarks.
+     *
+     * @return name of the kernel
+     */
+    String name() {
+        return "scalar";
+    }
+
+    /**
+     * Checks that the bytes {@code [from, to)} are all ASCII digits.
+     *
+     * @param a    characters in ASCII
+     * @param from index of the first character
+     * @param to   index after the last character
+     * @return {@code true} if every character is a decimal digit
+     */
+    boolean allDigits(byte[] a, int from, int to) {
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            long x = (long) LONGS.get(a, i);
+            // a digit keeps the high nibble 3 both as is and after adding 6
+            if ((x & HIGH_NIBBLES) != ZEROS || ((x + SIXES) & HIGH_NIBBLES) != ZEROS) {
+                return false;
+            }
+        }
+        for (; i < to; i++) {
+            if (a[i] < '0' || a[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the value of 16 ASCII digits starting at {@code off}.
+     * The digits must already be validated.
+     *
+     * @param a   characters in ASCII
+     * @param off index of the first digit
+     * @return value of the digits, below {@code 10^16}
+     */
+    long pack16(byte[] a, int off) {
+        return pack8((long) LONGS.get(a, off)) * 100_000_000L + pack8((long) LONGS.get(a, off + 8));
+    }
+
+    /**
+     * Folds eight ASCII digits, loaded little-endian so that the first digit
+     * is the lowest byte, into their value by combining neighbouring
+     * groups of 1, 2 and 4 digits.
+     */
+    private static long pack8(long x) {
+        x -= ZEROS;
+        x = (x * 10 + (x >>> 8)) & 0x00FF00FF00FF00FFL;
+        x = (x * 100 + (x >>> 16)) & 0x0000FFFF0000FFFFL;
+        return (x * 10000 + (x >>> 32)) & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+
+/**
+ * Parser of unsigned decimal numbers in ASCII.<p>
+ *
+ * The input is validated and packed into chunks of 18 digits per
+ * {@code long} by a {@link DecimalKernel}. The chunks then go straight to
+ * the divide-and-conquer combination of {@link RadixConverter}, so the
+ * text is read only once and no intermediate string is built.
+ * Character sequences are narrowed to ASCII in bounded blocks rather than
+ * copied as a whole.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+final class DecimalParser {
+
+    /** Digits per chunk, the {@link RadixTables#digitsPerLong} of base 10. */
+    private static final int CHUNK_DIGITS = 18;
+
+    /** Number of whole chunks narrowed at once from a character sequence. */
+    private static final int BLOCK_CHUNKS = 512;
+
+    private DecimalParser() {
+    }
+
+    /**
+     * Parses the bytes {@code [from, to)} as an unsigned decimal number.
+     *
+     * @param ascii characters in ASCII
+     * @param from  index of the first character
+     * @param to    index after the last character
+     * @return value of the number, or {@code null} if the range is empty
+     *         or holds a character other than a decimal digit
+     */
+    static BigInteger parse(byte[] ascii, int from, int to) {
+        return parse(ascii, from, to, DecimalKernel.INSTANCE);
+    }
+
+    static BigInteger parse(byte[] ascii, int from, int to, DecimalKernel kernel) {
+        int len = to - from;
+        if (len <= 0 || !kernel.allDigits(ascii, from, to)) {
+            return null;
+        }
+        int head = len % CHUNK_DIGITS;
+        long[] chunks = new long[(len + CHUNK_DIGITS - 1) / CHUNK_DIGITS];
+        pack(ascii, from, head, len / CHUNK_DIGITS, chunks, 0, kernel);
+        return RadixConverter.fromLimbs(chunks, chunks.length, RadixTables.of(10));
+    }
+
+    /**
+     * Parses the characters {@code [from, to)} as an unsigned decimal number.
+     *
+     * @param s    characters to parse
+     * @param from index of the first character
+     * @param to   index after the last character
+     * @return value of the number, or {@code null} if the range is empty
+     *         or holds a character other than a decimal digit
+     */
+    static BigInteger parse(CharSequence s, int from, int to) {
+        return parse(s, from, to, DecimalKernel.INSTANCE);
+    }
+
+    static BigInteger parse(CharSequence s, int from, int to, DecimalKernel kernel) {
+        int len = to - from;
+        if (len <= 0) {
+            return null;
+        }
+        int head = len % CHUNK_DIGITS;
+        int whole = len / CHUNK_DIGITS;
+        long[] chunks = new long[(len + CHUNK_DIGITS - 1) / CHUNK_DIGITS];
+        int blockChars = Math.min(len, head + BLOCK_CHUNKS * CHUNK_DIGITS);
+        byte[] ascii = new byte[blockChars];
+        char[] chars = s instanceof String ? new char[blockChars] : null;
+
+        // the first block also takes the short leading chunk, so that every
+        // later block starts on a chunk boundary
+        int pos = from;
+        int count = 0;
+        int blockHead = head;
+        while (pos < to) {
+            int blockWhole = Math.min(whole, BLOCK_CHUNKS);
+            int n = blockHead + blockWhole * CHUNK_DIGITS;
+            narrow(s, pos, n, chars, ascii);
+            if (!kernel.allDigits(ascii, 0, n)) {
+                return null;
+            }
+            count = pack(ascii, 0, blockHead, blockWhole, chunks, count, kernel);
+            pos += n;
+            whole -= blockWhole;
+            blockHead = 0;
+        }
+        return RadixConverter.fromLimbs(chunks, count, RadixTables.of(10));
+    }
+
+    /** Copies {@code n} characters to ASCII bytes, turning non-ASCII ones into an invalid byte. */
+    private static void narrow(CharSequence s, int from, int n, char[] chars, byte[] ascii) {
+        if (chars != null) {
+            ((String) s).getChars(from, from + n, chars, 0);
+            for (int i = 0; i < n; i++) {
+                char ch = chars[i];
+                ascii[i] = ch < 128 ? (byte) ch : 0;
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                char ch = s.charAt(from + i);
+                ascii[i] = ch < 128 ? (byte) ch : 0;
+            }
+        }
+    }
+
+    /**
+     * Packs a leading chunk of {@code head} digits, if any, followed by
+     * {@code whole} chunks of {@link #CHUNK_DIGITS} validated digits.
+     *
+     * @return index of the next free element of {@code chunks}
+     */
+    private static int pack(byte[] a, int off, int head, int whole, long[] chunks, int count,
+                            DecimalKernel kernel) {
+        if (head > 0) {
+            long v = 0;
+            for (int i = 0; i < head; i++) {
+                v = v * 10 + (a[off++] - '0');
+            }
+            chunks[count++] = v;
+        }
+        for (int c = 0; c < whole; c++) {
+            chunks[count++] = kernel.pack16(a, off) * 100 + (a[off + 16] - '0') * 10 + (a[off + 17] - '0');
+            off += CHUNK_DIGITS;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Digit-wise operations on contiguous blocks of digits, one digit per byte.<p>
+ *
+ * This implementation is the scalar fallback. It processes eight digits
+ * at a time inside a {@code long} (SWAR). When the {@code jdk.incubator.vector}
+ * module is present, {@link #INSTANCE} is replaced by
+ * {@code VectorDigitKernel}, which works on whole vectors of digits.
+ * As with {@link DecimalKernel}, the vector kernel is loaded reflectively.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+class DigitKernel {
+
+    /** System property that forces the scalar kernel when set to {@code true}. */
+    static final String SCALAR_PROPERTY = "numberlist.digits.scalar";
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_KERNEL = "ua.kpi.comsys.test2.implementation.VectorDigitKernel";
+
+    /** Best kernel available in the running JVM. */
+    static final DigitKernel INSTANCE = load();
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    DigitKernel() {
+    }
+
+    /**
+     * Returns the vector kernel if the incubator module is present and
+     * usable, otherwise the scalar kernel.
+     *
+     * @return the kernel to use
+     */
+    static DigitKernel load() {
+        if (!Boolean.getBoolean(SCALAR_PROPERTY)
+                && ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+            try {
+                return (DigitKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // fall through to the scalar kernel
+            }
+        }
+        return new DigitKernel();
+    }
+
+    /**
+     * Returns a short name of the kernel, for diagnostics and benchmarks.
+     *
+     * @return name of the kernel
+     */
+    String name() {
+        return "scalar";
+    }
+
+    /**
+     * Stores {@code a[aOff + i] & b[bOff + i]} to {@code dst[dstOff + i]}
+     * for every {@code i} below {@code len}.
+     */
+    void and(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (; i + Long.BYTES <= len; i += Long.BYTES) {
+            LONGS.set(dst, dstOff + i, (long) LONGS.get(a, aOff + i) & (long) LONGS.get(b, bOff + i));
+        }
+        for (; i < len; i++) {
+            dst[dstOff + i] = (byte) (a[aOff + i] & b[bOff + i]);
+        }
+    }
+
+    /**
+     * Stores {@code a[aOff + i] | b[bOff + i]} to {@code dst[dstOff + i]}
+     * for every {@code i} below {@code len}.
+     */
+    void or(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (; i + Long.BYTES <= len; i += Long.BYTES) {
+            LONGS.set(dst, dstOff + i, (long) LONGS.get(a, aOff + i) | (long) LONGS.get(b, bOff + i));
+        }
+        for (; i < len; i++) {
+            dst[dstOff + i] = (byte) (a[aOff + i] | b[bOff + i]);
+        }
+    }
+
+    /**
+     * Stores {@code a[aOff + i] ^ b[bOff + i]} to {@code dst[dstOff + i]}
+     * for every {@code i} below {@code len}.
+     */
+    void xor(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (; i + Long.BYTES <= len; i += Long.BYTES) {
+            LONGS.set(dst, dstOff + i, (long) LONGS.get(a, aOff + i) ^ (long) LONGS.get(b, bOff + i));
+        }
+        for (; i < len; i++) {
+            dst[dstOff + i] = (byte) (a[aOff + i] ^ b[bOff + i]);
+        }
+    }
+
+    /**
+     * Stores {@code a[aOff + i] & ~b[bOff + i]} to {@code dst[dstOff + i]}
+     * for every {@code i} below {@code len}.
+     */
+    void andNot(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (; i + Long.BYTES <= len; i += Long.BYTES) {
+            LONGS.set(dst, dstOff + i, (long) LONGS.get(a, aOff + i) & ~(long) LONGS.get(b, bOff + i));
+        }
+        for (; i < len; i++) {
+            dst[dstOff + i] = (byte) (a[aOff + i] & ~b[bOff + i]);
+        }
+    }
+
+    /**
+     * Returns the offset of the first non-zero digit of the range.
+     *
+     * @return offset below {@code len}, or {@code len} if all digits are zero
+     */
+    int leadingZeros(byte[] a, int off, int len) {
+        int i = 0;
+        for (; i + Long.BYTES <= len; i += Long.BYTES) {
+            long x = (long) LONGS.get(a, off + i);
+            if (x != 0) {
+                return i + (Long.numberOfTrailingZeros(x) >>> 3);
+            }
+        }
+        while (i < len && a[off + i] == 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Adds the number of occurrences of every digit of the range to
+     * {@code counts}. The digits must be below {@code counts.length}.
+     */
+    void histogram(byte[] a, int off, int len, int[] counts) {
+        for (int i = off, end = off + len; i < end; i++) {
+            counts[a[i]]++;
+        }
+    }
+}
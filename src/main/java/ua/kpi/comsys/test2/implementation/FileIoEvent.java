@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted when a number is loaded from or saved to a file.<p>
+ *
+ * Disabled by default; enable {@value #NAME} in the recording settings.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@Name(FileIoEvent.NAME)
+@Label("NumberList File I/O")
+@Category("NumberList")
+@Description("Loading or saving a number in decimal notation")
+@Enabled(false)
+class FileIoEvent extends Event {
+
+    static final String NAME = "ua.kpi.comsys.test2.FileIo";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Path")
+    String path;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Digits")
+    int digits;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Number with {@code long}-indexed digits, for numbers beyond the
+ * {@code int} indices of the {@code List} API.<p>
+ *
+ * The digits are packed into {@code long} words, as many whole digits
+ * per word as fit in the fewest bits that hold a digit of the base: 21
+ * octal, 16 decimal or 10 base-36 digits. The words are kept in segments
+ * of 512 KiB allocated on demand, so the number grows without copying
+ * and is limited by the heap rather than by the length of an array.<p>
+ *
+ * Conversion and persistence stream the digits: {@link #changeScale(int)}
+ * writes into another {@code HugeNumberList}, and {@link #writeTo},
+ * {@link #writeDecimalTo} and {@link #readFrom} go through a fixed-size
+ * buffer, so no {@code String} or array holds the digits of the whole
+ * number. Between two power-of-two bases the conversion regroups bits in
+ * linear time. Other pairs of bases, decimal output among them, go through
+ * a {@link BigInteger}: it is combined from the source digits and split into
+ * the target digits divide-and-conquer style with the power towers of
+ * {@link RadixTables}, as {@link RadixConverter} does, so the cost follows
+ * the multiplication and division of {@code BigInteger} rather than growing
+ * quadratically. That limits such conversions to numbers of at most
+ * {@link #MAX_CONVERSION_BITS} bits, about 323 million decimal digits;
+ * larger numbers are rejected before any work is done.<p>
+ *
+ * The list is not thread-safe.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class HugeNumberList {
+
+    /**
+     * Largest value, in bits, converted between bases that are not both
+     * powers of two. It keeps every intermediate {@code BigInteger} well
+     * within the {@code 2^31} bits that {@code BigInteger} supports.
+     */
+    public static final long MAX_CONVERSION_BITS = 1L << 30;
+
+    /** Segments hold {@code 2^16} words. */
+    private static final int SEGMENT_SHIFT = 16;
+
+    /** Number of characters buffered at once by the streaming methods. */
+    private static final int BLOCK = 8192;
+
+    /** Values of at most this many bits are converted to digits in one piece. */
+    private static final int LEAF_BITS = 1 << 16;
+
+    private final int base;
+    /** Number of bits of a packed digit. */
+    private final int bits;
+    private final long mask;
+    private final int digitsPerWord;
+    private final Words words;
+    private long size;
+
+    /**
+     * Creates an empty number.
+     *
+     * @param base scale of notation, from 2 to 36
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    public HugeNumberList(int base) {
+        this(base, SEGMENT_SHIFT);
+    }
+
+    /** Creates an empty number with segments of {@code 2^segmentShift} words. */
+    HugeNumberList(int base, int segmentShift) {
+        RadixTables.checkBase(base);
+        this.base = base;
+        this.bits = 32 - Integer.numberOfLeadingZeros(base - 1);
+        this.mask = (1L << bits) - 1;
+        this.digitsPerWord = Long.SIZE / bits;
+        this.words = new Words(segmentShift);
+    }
+
+    /**
+     * Creates a number with the digits of a list.
+     *
+     * @param source list to copy
+     * @return number in the base of the list
+     */
+    public static HugeNumberList copyOf(NumberListImpl source) {
+        HugeNumberList list = new HugeNumberList(source.getBase());
+        byte[] digits = source.toDigitArray();
+        list.appendDigits(digits, 0, digits.length);
+        return list;
+    }
+
+    /**
+     * Returns the scale of notation of the number.
+     *
+     * @return scale of notation, from 2 to 36
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Returns the number of digits.
+     *
+     * @return number of digits, leading zeros included
+     */
+    public long sizeLong() {
+        return size;
+    }
+
+    /**
+     * Returns a digit.
+     *
+     * @param index index of the digit, {@code 0} for the most significant one
+     * @return the digit
+     * @throws IndexOutOfBoundsException if the index is outside {@code [0, sizeLong())}
+     */
+    public int digitAt(long index) {
+        checkIndex(index);
+        return digit(index);
+    }
+
+    /**
+     * Replaces a digit.
+     *
+     * @param index index of the digit, {@code 0} for the most significant one
+     * @param digit the new digit
+     * @return the previous digit
+     * @throws IndexOutOfBoundsException if the index is outside {@code [0, sizeLong())}
+     * @throws IllegalArgumentException if the digit is outside {@code [0, base)}
+     */
+    public int setDigit(long index, int digit) {
+        checkIndex(index);
+        checkDigit(digit);
+        int old = digit(index);
+        store(index, digit);
+        return old;
+    }
+
+    /**
+     * Appends a digit as the least significant one.
+     *
+     * @param digit the digit to append
+     * @throws IllegalArgumentException if the digit is outside {@code [0, base)}
+     */
+    public void append(int digit) {
+        checkDigit(digit);
+        grow(size + 1);
+        store(size++, digit);
+    }
+
+    /**
+     * Appends digits, most significant first.
+     *
+     * @param src array holding the digits
+     * @param off index of the first digit
+     * @param len number of digits
+     * @throws IllegalArgumentException if a digit is outside {@code [0, base)}
+     * @throws IndexOutOfBoundsException if the range is outside {@code src}
+     */
+    public void appendDigits(byte[] src, int off, int len) {
+        Objects.checkFromIndexSize(off, len, src.length);
+        for (int i = off; i < off + len; i++) {
+            checkDigit(src[i]);
+        }
+        grow(size + len);
+        for (int i = off; i < off + len; i++) {
+            store(size++, src[i]);
+        }
+    }
+
+    /**
+     * Removes all digits and releases the storage.
+     */
+    public void clear() {
+        words.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns a {@code NumberListImpl} with the same digits.
+     *
+     * @return heap-based copy of the number
+     * @throws IllegalStateException if the number has too many digits for a list
+     */
+    public NumberListImpl toNumberListImpl() {
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many digits for NumberListImpl: " + size);
+        }
+        byte[] digits = new byte[(int) size];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = (byte) digit(i);
+        }
+        return NumberListImpl.fromDigits(base, digits, 0, digits.length);
+    }
+
+    /**
+     * Converts the number to another scale of notation. The result has no
+     * leading zeros; zero is a single zero digit and an empty number stays
+     * empty, as with {@link NumberListImpl#changeScale(int)}.
+     *
+     * @param targetBase scale of notation of the result, from 2 to 36
+     * @return the number in the target base
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     * @throws ArithmeticException if one of the bases is not a power of two
+     *                             and the number has more than
+     *                             {@link #MAX_CONVERSION_BITS} bits
+     */
+    public HugeNumberList changeScale(int targetBase) {
+        RadixTables.checkBase(targetBase);
+        HugeNumberList result = new HugeNumberList(targetBase, words.shift);
+        if (size == 0) {
+            return result;
+        }
+        long first = 0;
+        while (first < size && digit(first) == 0) {
+            first++;
+        }
+        if (first == size) {
+            result.append(0);
+        } else if (Integer.bitCount(base) == 1 && Integer.bitCount(targetBase) == 1) {
+            regroupBits(first, result);
+        } else {
+            convertByValue(first, result);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the digits as characters, {@code 0-9} followed by {@code A-Z},
+     * most significant first. Nothing is written for an empty number; the
+     * stream is not closed.
+     *
+     * @param out destination of the characters
+     * @throws IOException if the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        byte[] block = new byte[BLOCK];
+        int n = 0;
+        for (long i = 0; i < size; i++) {
+            block[n++] = RadixTables.DIGIT_BYTES[digit(i)];
+            if (n == BLOCK) {
+                out.write(block);
+                n = 0;
+            }
+        }
+        out.write(block, 0, n);
+    }
+
+    /**
+     * Writes the number in <b>decimal</b> scale of notation, like
+     * {@link NumberListImpl#toDecimalString()}: an empty number is written
+     * as {@code 0}. The stream is not closed.
+     *
+     * @param out destination of the characters
+     * @throws IOException if the stream fails
+     * @throws ArithmeticException if the number has to be converted and has more
+     *                             than {@link #MAX_CONVERSION_BITS} bits
+     */
+    public void writeDecimalTo(OutputStream out) throws IOException {
+        if (size == 0) {
+            out.write('0');
+        } else if (base == 10 && digit(0) != 0) {
+            writeTo(out);
+        } else {
+            changeScale(10).writeTo(out);
+        }
+    }
+
+    /**
+     * Reads a number written by {@link #writeTo}. Reading stops at the
+     * first whitespace after the digits or at the end of the stream;
+     * whitespace before the digits is skipped.
+     *
+     * @param in   source of the characters; it is not closed
+     * @param base scale of notation of the digits
+     * @return the number read
+     * @throws IOException if the stream fails or holds a character that is
+     *                     not a digit of the base
+     */
+    public static HugeNumberList readFrom(InputStream in, int base) throws IOException {
+        HugeNumberList list = new HugeNumberList(base);
+        byte[] charToDigit = RadixTables.of(base).charToDigit;
+        byte[] block = new byte[BLOCK];
+        boolean started = false;
+        int n;
+        while ((n = in.read(block)) > 0) {
+            for (int i = 0; i < n; i++) {
+                int c = block[i] & 0xFF;
+                if (c <= ' ') {
+                    if (started) {
+                        return list;
+                    }
+                    continue;
+                }
+                int d = c < charToDigit.length ? charToDigit[c] : -1;
+                if (d < 0) {
+                    throw new IOException("Not a digit of base " + base + ": '" + (char) c
+                            + "' after " + list.size + " digits");
+                }
+                started = true;
+                list.grow(list.size + 1);
+                list.store(list.size++, d);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Saves the digits to a file, see {@link #writeTo}.
+     *
+     * @param file file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Loads digits saved by {@link #save}, see {@link #readFrom}.
+     *
+     * @param file file to read
+     * @param base scale of notation of the digits
+     * @return the number read
+     * @throws IOException if the file cannot be read or is not a number
+     */
+    public static HugeNumberList load(File file, int base) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return readFrom(in, base);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HugeNumberList[base=" + base + ", digits=" + size + "]";
+    }
+
+    // ---------- storage ----------
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    private void checkDigit(int digit) {
+        if (digit < 0 || digit >= base) {
+            throw new IllegalArgumentException("Digit " + digit + " is out of range for base " + base);
+        }
+    }
+
+    private int digit(long index) {
+        long word = index / digitsPerWord;
+        int shift = (int) (index - word * digitsPerWord) * bits;
+        return (int) (words.get(word) >>> shift & mask);
+    }
+
+    private void store(long index, int digit) {
+        long word = index / digitsPerWord;
+        int shift = (int) (index - word * digitsPerWord) * bits;
+        words.set(word, words.get(word) & ~(mask << shift) | (long) digit << shift);
+    }
+
+    /** Makes room for {@code digits} digits. */
+    private void grow(long digits) {
+        words.ensureCapacity((digits + digitsPerWord - 1) / digitsPerWord);
+    }
+
+    /**
+     * Converts the significant digits from {@code first} on between two
+     * power-of-two bases, regrouping their bits from the least significant
+     * end into the digits of the result.
+     */
+    private void regroupBits(long first, HugeNumberList result) {
+        int inBits = Integer.numberOfTrailingZeros(base);
+        int outBits = Integer.numberOfTrailingZeros(result.base);
+        long bitLength = (size - first - 1) * inBits + 32 - Integer.numberOfLeadingZeros(digit(first));
+        long count = (bitLength + outBits - 1) / outBits;
+        result.grow(count);
+        result.size = count;
+        long out = count;
+        long acc = 0;
+        int accBits = 0;
+        for (long i = size - 1; i >= first; i--) {
+            acc |= (long) digit(i) << accBits;
+            accBits += inBits;
+            // the leading zero bits of the first digit are not emitted
+            while (accBits >= outBits && out > 0) {
+                result.store(--out, (int) (acc & (result.base - 1)));
+                acc >>>= outBits;
+                accBits -= outBits;
+            }
+        }
+        if (out > 0) {
+            result.store(--out, (int) acc);
+        }
+    }
+
+    /**
+     * Converts the significant digits from {@code first} on through their
+     * value; see the class description.
+     */
+    private void convertByValue(long first, HugeNumberList result) {
+        checkConvertible(size - first, base, result.base);
+        RadixTables source = RadixTables.of(base);
+        BigInteger value = source.bitsPerDigit != 0 ? valueOfBits(first, source.bitsPerDigit) : valueOfLimbs(first, source);
+        RadixTables target = RadixTables.of(result.base);
+        if (target.bitsPerDigit != 0) {
+            result.appendBits(value, target.bitsPerDigit);
+        } else {
+            result.appendValue(value, target);
+        }
+    }
+
+    /**
+     * Rejects a conversion of {@code digits} significant digits that would
+     * exceed {@link #MAX_CONVERSION_BITS}.
+     */
+    static void checkConvertible(long digits, int base, int targetBase) {
+        double bitLength = digits * RadixTables.of(base).log2Base;
+        if (bitLength > MAX_CONVERSION_BITS) {
+            throw new ArithmeticException("Number of " + digits + " digits in base " + base
+                    + " is too large to convert to base " + targetBase + ": about " + (long) bitLength
+                    + " bits, at most " + MAX_CONVERSION_BITS + " are supported");
+        }
+    }
+
+    /** Returns the value of the digits from {@code first} on, in a power-of-two base. */
+    private BigInteger valueOfBits(long first, int digitBits) {
+        byte[] magnitude = new byte[(int) (((size - first) * digitBits + 7) / 8)];
+        int acc = 0;
+        int accBits = 0;
+        int pos = magnitude.length - 1;
+        for (long i = size - 1; i >= first; i--) {
+            acc |= digit(i) << accBits;
+            accBits += digitBits;
+            while (accBits >= 8) {
+                magnitude[pos--] = (byte) acc;
+                acc >>>= 8;
+                accBits -= 8;
+            }
+        }
+        if (accBits > 0) {
+            magnitude[pos] = (byte) acc;
+        }
+        return new BigInteger(1, magnitude);
+    }
+
+    /** Returns the value of the digits from {@code first} on, combined from chunks of a {@code long}. */
+    private BigInteger valueOfLimbs(long first, RadixTables t) {
+        int k = t.digitsPerLong;
+        int chunks = (int) ((size - first + k - 1) / k);
+        long[] limbs = new long[chunks];
+        long i = first;
+        int width = (int) (size - first - (long) (chunks - 1) * k);
+        for (int c = 0; c < chunks; c++) {
+            long v = 0;
+            for (int j = 0; j < width; j++) {
+                v = v * base + digit(i++);
+            }
+            limbs[c] = v;
+            width = k;
+        }
+        return RadixConverter.fromLimbs(limbs, chunks, t);
+    }
+
+    /** Appends the digits of a positive value in this power-of-two base. */
+    private void appendBits(BigInteger value, int digitBits) {
+        byte[] magnitude = value.toByteArray();
+        long count = ((long) value.bitLength() + digitBits - 1) / digitBits;
+        grow(size + count);
+        size += count;
+        long out = size;
+        int acc = 0;
+        int accBits = 0;
+        int pos = magnitude.length - 1;
+        for (long i = 0; i < count; i++) {
+            while (accBits < digitBits && pos >= 0) {
+                acc |= (magnitude[pos--] & 0xFF) << accBits;
+                accBits += 8;
+            }
+            store(--out, (int) (acc & mask));
+            acc >>>= digitBits;
+            accBits -= digitBits;
+        }
+    }
+
+    /**
+     * Appends the digits of a value without leading zeros, splitting it
+     * with the highest level of the power tower that does not exceed it.
+     */
+    private void appendValue(BigInteger value, RadixTables t) {
+        if (value.bitLength() <= LEAF_BITS) {
+            appendPiece(value, 0);
+            return;
+        }
+        int level = 0;
+        // (x^2).bitLength() >= 2 * x.bitLength() - 1, so higher levels are
+        // only built when they may still not exceed the value
+        while (2 * t.power(level).bitLength() - 1 <= value.bitLength()
+                && t.power(level + 1).compareTo(value) <= 0) {
+            level++;
+        }
+        BigInteger[] qr = value.divideAndRemainder(t.power(level));
+        appendValue(qr[0], t);
+        appendPadded(qr[1], level, t);
+    }
+
+    /** Appends exactly {@code digitsPerLong * 2^level} digits of a value below {@code power(level)}. */
+    private void appendPadded(BigInteger value, int level, RadixTables t) {
+        if (level == 0 || value.bitLength() <= LEAF_BITS) {
+            appendPiece(value, (long) t.digitsPerLong << level);
+            return;
+        }
+        BigInteger[] qr = value.divideAndRemainder(t.power(level - 1));
+        appendPadded(qr[0], level - 1, t);
+        appendPadded(qr[1], level - 1, t);
+    }
+
+    /**
+     * Appends the digits of a small value, padded with leading zeros to
+     * {@code width} digits, or without leading zeros if {@code width} is 0.
+     */
+    private void appendPiece(BigInteger value, long width) {
+        byte[] digits = RadixConverter.toDigits(value, base);
+        long zeros = width == 0 ? 0 : width - digits.length;
+        grow(size + zeros + digits.length);
+        // the result is built from fresh storage, whose words are zero
+        size += zeros;
+        for (byte d : digits) {
+            store(size++, d);
+        }
+    }
+
+    /**
+     * {@code long}-indexed array of words, kept in segments allocated on demand.
+     */
+    private static final class Words {
+        private final int shift;
+        private final int segmentMask;
+        private long[][] segments = new long[0][];
+        /** Number of allocated segments, at the start of {@code segments}. */
+        private int allocated;
+
+        Words(int shift) {
+            this.shift = shift;
+            this.segmentMask = (1 << shift) - 1;
+        }
+
+        long get(long index) {
+            return segments[(int) (index >>> shift)][(int) index & segmentMask];
+        }
+
+        void set(long index, long value) {
+            segments[(int) (index >>> shift)][(int) index & segmentMask] = value;
+        }
+
+        void ensureCapacity(long capacity) {
+            long needed = (capacity + segmentMask) >>> shift;
+            if (needed <= allocated) {
+                return;
+            }
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("Too many segments: " + needed);
+            }
+            if (needed > segments.length) {
+                long length = Math.min(Math.max(needed, 2L * segments.length), Integer.MAX_VALUE - 8);
+                segments = Arrays.copyOf(segments, (int) length);
+            }
+            for (; allocated < needed; allocated++) {
+                segments[allocated] = new long[segmentMask + 1];
+            }
+        }
+
+        void clear() {
+            segments = new long[0][];
+            allocated = 0;
+        }
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * {@code NumberList} whose digits live in a memory-mapped file rather
+ * than on the heap.<p>
+ *
+ * The file starts with a 16-byte header: a magic number, the base and the
+ * number of digits. The digits follow, most significant first, packed into
+ * the fewest bits that hold a digit of the base, for example 3 bits for
+ * octal and 4 for decimal digits. The file is mapped as a whole and
+ * remapped with doubled capacity when an append does not fit, so its
+ * length may exceed the digits it holds.<p>
+ *
+ * Every modification goes straight to the mapping, header included, so
+ * the file is always a complete image of the list. {@link #force()} makes
+ * it durable; {@link #open(File)} reopens it in constant time, without
+ * parsing. This replaces {@code saveList} and the {@code File} constructor
+ * of {@link NumberListImpl} for numbers kept in such files. Paging is left
+ * to the operating system. A single mapping limits the file to 2 GiB.<p>
+ *
+ * Insertion and removal away from the end shift the packed digits and
+ * take linear time. The list is not thread-safe.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class MappedNumberList extends AbstractList<Byte> implements NumberList, RandomAccess, Closeable {
+
+    /** {@code "NLM1"} in ASCII. */
+    private static final int MAGIC = 0x4E4C4D31;
+    private static final int BASE_OFFSET = 4;
+    private static final int SIZE_OFFSET = 8;
+    private static final int HEADER_BYTES = 16;
+    private static final long MIN_MAPPING = 4096;
+    private static final long MAX_MAPPING = Integer.MAX_VALUE;
+
+    private final FileChannel channel;
+    private final int base;
+    /** Number of bits of a packed digit. */
+    private final int bits;
+    private final int mask;
+    /** Mapping of the whole file; {@code null} once the list is closed. */
+    private MappedByteBuffer buffer;
+    private int size;
+
+    private MappedNumberList(FileChannel channel, int base, int size, long mapping) throws IOException {
+        this.channel = channel;
+        this.base = base;
+        this.bits = 32 - Integer.numberOfLeadingZeros(base - 1);
+        this.mask = (1 << bits) - 1;
+        this.size = size;
+        map(mapping);
+    }
+
+    /**
+     * Creates an empty list in a new file, replacing the file if it exists.
+     *
+     * @param file file to hold the digits
+     * @param base scale of notation, from 2 to 36
+     * @return empty list backed by {@code file}
+     * @throws IOException if the file cannot be created or mapped
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    public static MappedNumberList create(File file, int base) throws IOException {
+        RadixTables.checkBase(base);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            MappedNumberList list = new MappedNumberList(channel, base, 0, MIN_MAPPING);
+            list.buffer.putInt(0, MAGIC);
+            list.buffer.putInt(BASE_OFFSET, base);
+            list.buffer.putLong(SIZE_OFFSET, 0);
+            return list;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a list in a new file holding the digits of {@code source}.
+     *
+     * @param file   file to hold the digits
+     * @param source list to copy
+     * @return list backed by {@code file}, in the base of {@code source}
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static MappedNumberList copyOf(File file, NumberListImpl source) throws IOException {
+        MappedNumberList list = create(file, source.getBase());
+        list.ensureCapacity(source.size());
+        int i = 0;
+        for (Byte digit : source) {
+            list.putDigit(i++, digit);
+        }
+        list.setSize(i);
+        return list;
+    }
+
+    /**
+     * Opens a file written by a {@code MappedNumberList}. Only the header
+     * is read; the digits are paged in on access.
+     *
+     * @param file file holding the digits
+     * @return list backed by {@code file}
+     * @throws IOException if the file cannot be mapped or is not a number list file
+     */
+    public static MappedNumberList open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > MAX_MAPPING) {
+                throw new IOException("Not a number list file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            int base = header.getInt(BASE_OFFSET);
+            long size = header.getLong(SIZE_OFFSET);
+            if (header.getInt(0) != MAGIC || base < RadixTables.MIN_BASE || base > RadixTables.MAX_BASE
+                    || size < 0 || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a number list file: " + file);
+            }
+            MappedNumberList list = new MappedNumberList(channel, base, (int) size, length);
+            if (list.bytesFor(list.size) > length) {
+                throw new IOException("Truncated number list file: " + file);
+            }
+            return list;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the scale of notation of the digits stored in the list.
+     *
+     * @return scale of notation, from 2 to 36
+     */
+    public int getBase() {
+        return base;
+    }
+
+    /**
+     * Copies the digits into a heap-based list.
+     *
+     * @return {@code NumberListImpl} with the same digits and base
+     */
+    public NumberListImpl toNumberListImpl() {
+        ensureOpen();
+        byte[] digits = new byte[size];
+        for (int i = 0; i < size; i++) {
+            digits[i] = (byte) digit(i);
+        }
+        return NumberListImpl.fromDigits(base, digits, 0, size);
+    }
+
+    /**
+     * Writes the changes made to the mapping through to the file.
+     */
+    public void force() {
+        ensureOpen();
+        buffer.force();
+    }
+
+    /**
+     * Closes the file. The list cannot be used afterwards; the mapping
+     * itself is released when it is garbage collected.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        channel.close();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Byte get(int index) {
+        ensureOpen();
+        checkElementIndex(index);
+        return (byte) digit(index);
+    }
+
+    @Override
+    public Byte set(int index, Byte element) {
+        ensureOpen();
+        int d = checkDigit(element);
+        checkElementIndex(index);
+        int old = digit(index);
+        putDigit(index, d);
+        return (byte) old;
+    }
+
+    @Override
+    public void add(int index, Byte element) {
+        ensureOpen();
+        int d = checkDigit(element);
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        ensureCapacity(size + 1);
+        for (int i = size; i > index; i--) {
+            putDigit(i, digit(i - 1));
+        }
+        putDigit(index, d);
+        setSize(size + 1);
+        modCount++;
+    }
+
+    @Override
+    public Byte remove(int index) {
+        ensureOpen();
+        checkElementIndex(index);
+        int old = digit(index);
+        for (int i = index + 1; i < size; i++) {
+            putDigit(i - 1, digit(i));
+        }
+        setSize(size - 1);
+        modCount++;
+        return (byte) old;
+    }
+
+    @Override
+    public void clear() {
+        ensureOpen();
+        setSize(0);
+        modCount++;
+    }
+
+    /**
+     * Compares the digits with another list by its plain iterator, as
+     * {@link NumberListImpl} does not provide list iterators.
+     *
+     * @param o the object to compare with
+     * @return {@code true} if {@code o} is a list of the same digits in the same order
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof List)) return false;
+        List<?> other = (List<?>) o;
+        if (other.size() != size) return false;
+        ensureOpen();
+        Iterator<?> it = other.iterator();
+        for (int i = 0; i < size; i++) {
+            Object e = it.next();
+            if (!(e instanceof Byte) || (Byte) e != digit(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the digits as a string, most significant first, like
+     * {@link NumberListImpl#toString()}.
+     *
+     * @return the digits of the list
+     */
+    @Override
+    public String toString() {
+        ensureOpen();
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = RadixTables.DIGIT_CHARS[digit(i)];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public boolean swap(int index1, int index2) {
+        ensureOpen();
+        if (index1 < 0 || index1 >= size || index2 < 0 || index2 >= size) {
+            return false;
+        }
+        int d1 = digit(index1);
+        putDigit(index1, digit(index2));
+        putDigit(index2, d1);
+        return true;
+    }
+
+    @Override
+    public void sortAscending() {
+        int[] counts = histogram();
+        int i = 0;
+        for (int d = 0; d < base; d++) {
+            for (int n = counts[d]; n > 0; n--) {
+                putDigit(i++, d);
+            }
+        }
+    }
+
+    @Override
+    public void sortDescending() {
+        int[] counts = histogram();
+        int i = 0;
+        for (int d = base - 1; d >= 0; d--) {
+            for (int n = counts[d]; n > 0; n--) {
+                putDigit(i++, d);
+            }
+        }
+    }
+
+    @Override
+    public void shiftLeft() {
+        ensureOpen();
+        if (size <= 1) return;
+        int first = digit(0);
+        for (int i = 1; i < size; i++) {
+            putDigit(i - 1, digit(i));
+        }
+        putDigit(size - 1, first);
+    }
+
+    @Override
+    public void shiftRight() {
+        ensureOpen();
+        if (size <= 1) return;
+        int last = digit(size - 1);
+        for (int i = size - 1; i > 0; i--) {
+            putDigit(i, digit(i - 1));
+        }
+        putDigit(0, last);
+    }
+
+    private int[] histogram() {
+        ensureOpen();
+        int[] counts = new int[base];
+        for (int i = 0; i < size; i++) {
+            counts[digit(i)]++;
+        }
+        return counts;
+    }
+
+    /** Reads the packed digit at {@code index} from a two-byte window. */
+    private int digit(int index) {
+        long bit = (long) index * bits;
+        return (buffer.getShort(HEADER_BYTES + (int) (bit >>> 3)) >>> (bit & 7)) & mask;
+    }
+
+    private void putDigit(int index, int digit) {
+        long bit = (long) index * bits;
+        int at = HEADER_BYTES + (int) (bit >>> 3);
+        int shift = (int) (bit & 7);
+        int word = buffer.getShort(at);
+        buffer.putShort(at, (short) (word & ~(mask << shift) | digit << shift));
+    }
+
+    private void setSize(int newSize) {
+        size = newSize;
+        buffer.putLong(SIZE_OFFSET, newSize);
+    }
+
+    /** Length of a file holding {@code digits} digits, with a spare byte for the two-byte window. */
+    private long bytesFor(int digits) {
+        return HEADER_BYTES + ((long) digits * bits + 7) / 8 + 1;
+    }
+
+    private void ensureCapacity(int digits) {
+        long required = bytesFor(digits);
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > MAX_MAPPING) {
+            throw new IllegalStateException("Number list file would exceed " + MAX_MAPPING + " bytes");
+        }
+        try {
+            map(Math.max(required, Math.min(MAX_MAPPING, 2L * buffer.capacity())));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Maps the first {@code length} bytes of the file, growing the file if needed. */
+    private void map(long length) throws IOException {
+        MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+        buffer = mapping;
+    }
+
+    private void ensureOpen() {
+        if (buffer == null) {
+            throw new IllegalStateException("Number list file is closed");
+        }
+    }
+
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    private int checkDigit(Byte element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        int d = element & 0xFF;
+        if (d >= base) {
+            throw new IllegalArgumentException("Digit " + d + " is out of range for base " + base);
+        }
+        return d;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event describing a positional lookup of a node. Only every
+ * {@value #SAMPLE_INTERVAL}-th lookup of a list is recorded, so the event
+ * shows which lists are accessed by index and how far the lookups walk.<p>
+ *
+ * Disabled by default; enable {@value #NAME} in the recording settings.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@Name(NodeTraversalEvent.NAME)
+@Label("NumberList Node Traversal")
+@Category("NumberList")
+@Description("Sampled positional lookup of a list node")
+@Enabled(false)
+class NodeTraversalEvent extends Event {
+
+    static final String NAME = "ua.kpi.comsys.test2.NodeTraversal";
+
+    /** Lookups between two recorded samples; a power of two. */
+    static final int SAMPLE_INTERVAL = 1024;
+
+    @Label("Index")
+    int index;
+
+    @Label("List Size")
+    int size;
+
+    @Label("Hops")
+    int hops;
+
+    @Label("From Tail")
+    boolean fromTail;
+}
@@ -0,0 +1,627 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Container of many numbers whose digits share primitive arrays.<p>
+ *
+ * The digits of all numbers are kept one per byte in a single array;
+ * every number is an entry of parallel tables of offsets, lengths, bases
+ * and generations. An entry costs 13 bytes plus a byte per digit, instead
+ * of a list object and a node per digit. Entries are identified by
+ * {@code int} ids, and {@link #get(int)} returns a {@link NumberList} view
+ * of an entry that reads and writes the shared arrays.<p>
+ *
+ * An entry that grows while it is not the last one in the digit array
+ * is moved to the end, leaving its old digits as garbage. Freed entries
+ * leave garbage too. Garbage is reclaimed by {@link #compact()}, which
+ * also runs on its own when an allocation finds at least half of the
+ * array wasted. The ids of freed entries are reused; a view of a freed
+ * entry detects this by the generation of its id and throws
+ * {@link IllegalStateException}.<p>
+ *
+ * {@link #and(NumberListImpl)} and {@link #changeScale(int)} process all
+ * entries in one pass, using {@code long} arithmetic for the short ones.
+ * The arena is not thread-safe.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class NumberListArena {
+
+    private static final int MIN_ENTRIES = 16;
+    private static final int MIN_DIGITS = 256;
+
+    private byte[] digits;
+    /** Digits in use, live or garbage; new digits are placed after them. */
+    private int used;
+    /** Digits in use that belong to no entry. */
+    private int garbage;
+
+    private int[] offsets;
+    /** Length of every entry; {@code -1} for freed ids. */
+    private int[] lengths;
+    private byte[] bases;
+    /** Incremented whenever an id is freed, to invalidate its views. */
+    private int[] generations;
+    /** Number of ids handed out so far, freed ones included. */
+    private int count;
+    private int live;
+
+    private int[] freeIds;
+    private int freeCount;
+
+    /**
+     * Creates an empty arena.
+     */
+    public NumberListArena() {
+        this(MIN_ENTRIES, MIN_DIGITS);
+    }
+
+    /**
+     * Creates an empty arena with room for the given numbers of entries
+     * and digits.
+     *
+     * @param entries expected number of entries
+     * @param digits  expected total number of digits
+     * @throws IllegalArgumentException if a capacity is negative
+     */
+    public NumberListArena(int entries, int digits) {
+        if (entries < 0 || digits < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + entries + ", " + digits);
+        }
+        entries = Math.max(entries, MIN_ENTRIES);
+        this.digits = new byte[Math.max(digits, MIN_DIGITS)];
+        this.offsets = new int[entries];
+        this.lengths = new int[entries];
+        this.bases = new byte[entries];
+        this.generations = new int[entries];
+        this.freeIds = new int[0];
+    }
+
+    /**
+     * Adds a copy of the digits of a list.
+     *
+     * @param number list to copy
+     * @return id of the new entry
+     */
+    public int add(NumberListImpl number) {
+        byte[] src = number.toDigitArray();
+        return add(number.getBase(), src, 0, src.length);
+    }
+
+    /**
+     * Adds a number given by its digits, most significant first.
+     *
+     * @param base scale of notation, from 2 to 36
+     * @param src  array holding the digits
+     * @param off  index of the first digit
+     * @param len  number of digits
+     * @return id of the new entry
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     *                                  or a digit is outside {@code [0, base)}
+     * @throws IndexOutOfBoundsException if the range is outside {@code src}
+     */
+    public int add(int base, byte[] src, int off, int len) {
+        RadixTables.checkBase(base);
+        Objects.checkFromIndexSize(off, len, src.length);
+        for (int i = off; i < off + len; i++) {
+            if ((src[i] & 0xFF) >= base) {
+                throw new IllegalArgumentException("Digit " + src[i] + " at index " + i
+                        + " is out of range for base " + base);
+            }
+        }
+        int id = newId();
+        put(id, base, src, off, len);
+        return id;
+    }
+
+    /**
+     * Returns a view of an entry. The view reads and writes the digits in
+     * the arena and stays valid until the entry is freed.
+     *
+     * @param id id of the entry
+     * @return view of the entry
+     * @throws IllegalArgumentException if there is no entry with this id
+     */
+    public NumberList get(int id) {
+        checkId(id);
+        return new View(id, generations[id]);
+    }
+
+    /**
+     * Returns a heap-based copy of an entry.
+     *
+     * @param id id of the entry
+     * @return {@code NumberListImpl} with the digits and base of the entry
+     * @throws IllegalArgumentException if there is no entry with this id
+     */
+    public NumberListImpl copy(int id) {
+        checkId(id);
+        return NumberListImpl.fromDigits(bases[id], digits, offsets[id], lengths[id]);
+    }
+
+    /**
+     * Returns the scale of notation of an entry.
+     *
+     * @param id id of the entry
+     * @return scale of notation, from 2 to 36
+     * @throws IllegalArgumentException if there is no entry with this id
+     */
+    public int base(int id) {
+        checkId(id);
+        return bases[id];
+    }
+
+    /**
+     * Removes an entry. Its id may be returned by a later {@code add}.
+     *
+     * @param id id of the entry
+     * @throws IllegalArgumentException if there is no entry with this id
+     */
+    public void free(int id) {
+        checkId(id);
+        shrink(id, 0);
+        lengths[id] = -1;
+        generations[id]++;
+        live--;
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(MIN_ENTRIES, freeCount * 2));
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return number of entries that are not freed
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Returns the number of digits held by the entries.
+     *
+     * @return digits of all entries
+     */
+    public int digitCount() {
+        return used - garbage;
+    }
+
+    /**
+     * Returns the length of the shared digit array.
+     *
+     * @return digits the arena can hold without growing
+     */
+    public int capacity() {
+        return digits.length;
+    }
+
+    /**
+     * Moves the digits of all entries to the start of the digit array,
+     * in their current order, and shrinks the array to fit them.
+     */
+    public void compact() {
+        pack();
+        if (digits.length > Math.max(MIN_DIGITS, used)) {
+            digits = Arrays.copyOf(digits, Math.max(MIN_DIGITS, used));
+        }
+    }
+
+    /**
+     * Computes the bitwise AND of every entry with {@code arg}, like
+     * {@link NumberListImpl#additionalOperation(NumberList)}.
+     *
+     * @param arg second operand of every AND
+     * @return arena with the result of entry {@code id} under the same id,
+     *         in the base of that entry
+     */
+    public NumberListArena and(NumberListImpl arg) {
+        byte[] argDigits = arg.toDigitArray();
+        int argBase = arg.getBase();
+        BigInteger argValue = RadixConverter.toBigInteger(argDigits, 0, argDigits.length, argBase);
+        long argLong = argValue.bitLength() < Long.SIZE ? argValue.longValue() : -1;
+        NumberListArena result = new NumberListArena(count, used - garbage);
+        byte[] buffer = new byte[Long.SIZE];
+        for (int id = 0; id < count; id++) {
+            result.nextId();
+            int len = lengths[id];
+            if (len < 0) {
+                result.free(id);
+                continue;
+            }
+            int base = bases[id];
+            int off = offsets[id];
+            if (len == 0 || argDigits.length == 0) {
+                result.put(id, base, buffer, 0, 0);
+            } else if (argLong >= 0 && len <= RadixTables.of(base).digitsPerLong) {
+                result.putValue(id, base, value(off, len, base) & argLong, false, buffer);
+            } else if (base == argBase && Integer.bitCount(base) == 1) {
+                // every digit of a power-of-two base is a separate group of bits
+                int n = Math.min(len, argDigits.length);
+                byte[] and = new byte[n];
+                DigitKernel.INSTANCE.and(digits, off + len - n, argDigits, argDigits.length - n, and, 0, n);
+                int zeros = DigitKernel.INSTANCE.leadingZeros(and, 0, n);
+                result.put(id, base, and, zeros, n - zeros);
+            } else {
+                BigInteger and = RadixConverter.toBigInteger(digits, off, len, base).and(argValue);
+                byte[] res = and.signum() == 0 ? buffer : RadixConverter.toDigits(and, base);
+                result.put(id, base, res, 0, and.signum() == 0 ? 0 : res.length);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts every entry to the given scale of notation, like
+     * {@link NumberListImpl#changeScale(int)}.
+     *
+     * @param targetBase scale of notation of the results, from 2 to 36
+     * @return arena with the conversion of entry {@code id} under the same id
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    public NumberListArena changeScale(int targetBase) {
+        RadixTables.checkBase(targetBase);
+        NumberListArena result = new NumberListArena(count, used - garbage);
+        byte[] buffer = new byte[Long.SIZE];
+        for (int id = 0; id < count; id++) {
+            result.nextId();
+            int len = lengths[id];
+            if (len < 0) {
+                result.free(id);
+                continue;
+            }
+            int base = bases[id];
+            int off = offsets[id];
+            if (len == 0) {
+                result.put(id, targetBase, buffer, 0, 0);
+            } else if (len <= RadixTables.of(base).digitsPerLong) {
+                result.putValue(id, targetBase, value(off, len, base), true, buffer);
+            } else {
+                byte[] res = RadixConverter.convert(digits, off, len, base, targetBase);
+                result.put(id, targetBase, res, 0, res.length);
+            }
+        }
+        return result;
+    }
+
+    // ---------- storage ----------
+
+    private void checkId(int id) {
+        if (id < 0 || id >= count || lengths[id] < 0) {
+            throw new IllegalArgumentException("No entry with id " + id);
+        }
+    }
+
+    /** Returns a free id, with an empty entry of base 2 that the caller fills in. */
+    private int newId() {
+        return freeCount > 0 ? init(freeIds[--freeCount]) : nextId();
+    }
+
+    /** Returns a new id past all the others, so that bulk results keep the ids of their sources. */
+    private int nextId() {
+        if (count == offsets.length) {
+            int capacity = count * 2;
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            bases = Arrays.copyOf(bases, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+        }
+        return init(count++);
+    }
+
+    private int init(int id) {
+        offsets[id] = used;
+        lengths[id] = 0;
+        bases[id] = 2;
+        live++;
+        return id;
+    }
+
+    /** Stores a copy of the digits as the entry {@code id}. */
+    private void put(int id, int base, byte[] src, int off, int len) {
+        int at = reserve(len);
+        System.arraycopy(src, off, digits, at, len);
+        offsets[id] = at;
+        lengths[id] = len;
+        bases[id] = (byte) base;
+    }
+
+    /**
+     * Stores the digits of a non-negative value as the entry {@code id}.
+     * Zero is stored as a single zero digit if {@code zeroDigit} is set,
+     * otherwise as an empty entry.
+     */
+    private void putValue(int id, int base, long value, boolean zeroDigit, byte[] buffer) {
+        int start = buffer.length;
+        do {
+            buffer[--start] = (byte) (value % base);
+            value /= base;
+        } while (value > 0);
+        if (!zeroDigit && buffer[start] == 0) {
+            start = buffer.length;
+        }
+        put(id, base, buffer, start, buffer.length - start);
+    }
+
+    /** Returns the value of {@code len} digits at {@code off}; they must fit in a {@code long}. */
+    private long value(int off, int len, int base) {
+        long value = 0;
+        for (int i = off; i < off + len; i++) {
+            value = value * base + digits[i];
+        }
+        return value;
+    }
+
+    /**
+     * Returns the offset of {@code len} digits at the end of the used
+     * region, compacting or growing the digit array if needed.
+     */
+    private int reserve(int len) {
+        if (used + len > digits.length) {
+            if (garbage >= digits.length / 2) {
+                pack();
+            }
+            if (used + len > digits.length) {
+                long capacity = Math.max((long) used + len, 2L * digits.length);
+                digits = Arrays.copyOf(digits, (int) Math.min(capacity, Integer.MAX_VALUE - 8));
+            }
+        }
+        int at = used;
+        used += len;
+        return at;
+    }
+
+    /** Moves the live digits to the start of the array without resizing it. */
+    private void pack() {
+        long[] order = new long[live];
+        int n = 0;
+        for (int id = 0; id < count; id++) {
+            if (lengths[id] > 0) {
+                order[n++] = (long) offsets[id] << 32 | id;
+            }
+        }
+        Arrays.sort(order, 0, n);
+        int at = 0;
+        for (int i = 0; i < n; i++) {
+            int id = (int) order[i];
+            System.arraycopy(digits, offsets[id], digits, at, lengths[id]);
+            offsets[id] = at;
+            at += lengths[id];
+        }
+        used = at;
+        garbage = 0;
+    }
+
+    /** Makes room for one more digit of entry {@code id}, moving it to the end if needed. */
+    private void grow(int id) {
+        int len = lengths[id];
+        if (offsets[id] + len == used && used < digits.length) {
+            used++;
+            return;
+        }
+        // reserve may pack the arena and move the entry, so its offset is read afterwards
+        int at = reserve(len + 1);
+        System.arraycopy(digits, offsets[id], digits, at, len);
+        garbage += len;
+        offsets[id] = at;
+    }
+
+    /** Shortens entry {@code id} to {@code len} digits, returning the rest to the arena. */
+    private void shrink(int id, int len) {
+        int end = offsets[id] + lengths[id];
+        if (end == used) {
+            used -= lengths[id] - len;
+        } else {
+            garbage += lengths[id] - len;
+        }
+        lengths[id] = len;
+    }
+
+    /**
+     * {@code NumberList} view of an arena entry.
+     */
+    private final class View extends AbstractList<Byte> implements NumberList, RandomAccess {
+
+        private final int id;
+        private final int generation;
+
+        View(int id, int generation) {
+            this.id = id;
+            this.generation = generation;
+        }
+
+        /** Returns the offset of the entry, checking that it was not freed. */
+        private int offset() {
+            if (generations[id] != generation) {
+                throw new IllegalStateException("Entry " + id + " was freed");
+            }
+            return offsets[id];
+        }
+
+        private void checkIndex(int index, int bound) {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + lengths[id]);
+            }
+        }
+
+        private byte checkDigit(Byte element) {
+            if (element == null) {
+                throw new NullPointerException("Null elements are not allowed");
+            }
+            if ((element & 0xFF) >= bases[id]) {
+                throw new IllegalArgumentException("Digit " + element + " is out of range for base " + bases[id]);
+            }
+            return element;
+        }
+
+        @Override
+        public int size() {
+            offset();
+            return lengths[id];
+        }
+
+        @Override
+        public Byte get(int index) {
+            int off = offset();
+            checkIndex(index, lengths[id]);
+            return digits[off + index];
+        }
+
+        @Override
+        public Byte set(int index, Byte element) {
+            int off = offset();
+            byte d = checkDigit(element);
+            checkIndex(index, lengths[id]);
+            byte old = digits[off + index];
+            digits[off + index] = d;
+            return old;
+        }
+
+        @Override
+        public void add(int index, Byte element) {
+            offset();
+            byte d = checkDigit(element);
+            int len = lengths[id];
+            checkIndex(index, len + 1);
+            grow(id);
+            int off = offsets[id];
+            System.arraycopy(digits, off + index, digits, off + index + 1, len - index);
+            digits[off + index] = d;
+            lengths[id] = len + 1;
+            modCount++;
+        }
+
+        @Override
+        public Byte remove(int index) {
+            int off = offset();
+            int len = lengths[id];
+            checkIndex(index, len);
+            byte old = digits[off + index];
+            System.arraycopy(digits, off + index + 1, digits, off + index, len - index - 1);
+            shrink(id, len - 1);
+            modCount++;
+            return old;
+        }
+
+        @Override
+        public void clear() {
+            offset();
+            shrink(id, 0);
+            modCount++;
+        }
+
+        @Override
+        public boolean swap(int index1, int index2) {
+            int off = offset();
+            int len = lengths[id];
+            if (index1 < 0 || index1 >= len || index2 < 0 || index2 >= len) {
+                return false;
+            }
+            byte d = digits[off + index1];
+            digits[off + index1] = digits[off + index2];
+            digits[off + index2] = d;
+            return true;
+        }
+
+        @Override
+        public void sortAscending() {
+            int off = offset();
+            int len = lengths[id];
+            int[] counts = new int[bases[id]];
+            DigitKernel.INSTANCE.histogram(digits, off, len, counts);
+            for (int d = 0; d < counts.length; d++) {
+                Arrays.fill(digits, off, off + counts[d], (byte) d);
+                off += counts[d];
+            }
+        }
+
+        @Override
+        public void sortDescending() {
+            int off = offset();
+            int len = lengths[id];
+            int[] counts = new int[bases[id]];
+            DigitKernel.INSTANCE.histogram(digits, off, len, counts);
+            for (int d = counts.length - 1; d >= 0; d--) {
+                Arrays.fill(digits, off, off + counts[d], (byte) d);
+                off += counts[d];
+            }
+        }
+
+        @Override
+        public void shiftLeft() {
+            int off = offset();
+            int len = lengths[id];
+            if (len <= 1) return;
+            byte first = digits[off];
+            System.arraycopy(digits, off + 1, digits, off, len - 1);
+            digits[off + len - 1] = first;
+        }
+
+        @Override
+        public void shiftRight() {
+            int off = offset();
+            int len = lengths[id];
+            if (len <= 1) return;
+            byte last = digits[off + len - 1];
+            System.arraycopy(digits, off, digits, off + 1, len - 1);
+            digits[off] = last;
+        }
+
+        /**
+         * Compares the digits with another list by its plain iterator, as
+         * {@link NumberListImpl} does not provide list iterators.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) return true;
+            if (!(o instanceof List)) return false;
+            List<?> other = (List<?>) o;
+            int off = offset();
+            int len = lengths[id];
+            if (other.size() != len) return false;
+            Iterator<?> it = other.iterator();
+            for (int i = 0; i < len; i++) {
+                Object e = it.next();
+                if (!(e instanceof Byte) || (Byte) e != digits[off + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode();
+        }
+
+        /**
+         * Returns the digits as a string, most significant first, like
+         * {@link NumberListImpl#toString()}.
+         */
+        @Override
+        public String toString() {
+            int off = offset();
+            char[] chars = new char[lengths[id]];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = RadixTables.DIGIT_CHARS[digits[off + i]];
+            }
+            return new String(chars);
+        }
+    }
+}
@@ -8,11 +8,22 @@
 package ua.kpi.comsys.test2.implementation;
 
 import java.io.*;
+import java.lang.reflect.Array;
 import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import ua.kpi.comsys.test2.NumberList;
 
@@ -29,9 +40,14 @@ import ua.kpi.comsys.test2.NumberList;
  *   <li>C7 = 5 - Algebraic and logical AND of two numbers</li>
  * </ul>
  *
+ * <p>Lists are ordered by the numbers they represent. This natural ordering
+ * is inconsistent with {@link #equals(Object)}, which compares digits:
+ * {@code 007} and {@code 7}, or the same number in two bases, compare as
+ * equal but are not equal lists.</p>
+ *
  * @author Melnychenko Artem, IM-34, №12
  */
-public class NumberListImpl implements NumberList {
+public class NumberListImpl implements NumberList, Comparable<NumberList> {
 
     /** Node of doubly linked list. */
     private static class Node {
@@ -47,10 +63,54 @@ public class NumberListImpl implements NumberList {
     /** Number system cycle used in tests. */
     private static final int[] BASES = {2, 3, 8, 10, 16};
 
+    /** Number of characters buffered at once by {@code writeTo}. */
+    private static final int WRITE_BLOCK = 8192;
+
+    /** Smallest operand, in digits, handed to the {@link DigitKernel}. */
+    private static final int KERNEL_MIN_DIGITS = 256;
+
     private final int base;
     private Node head;
     private Node tail;
     private int size;
+    /** Number of occurrences of every digit, indexed by digit value. */
+    private final int[] digitCounts;
+    /** Number of positional lookups, used to sample traversal events. */
+    private int nodeLookups;
+    /** Number of structural modifications, used to invalidate cached positions. */
+    private int modCount;
+    /** Free-list of recycled nodes, linked through {@code next}. */
+    private Node pool;
+    private int pooledNodes;
+    /** Maximum number of pooled nodes; {@code 0} means pooling is disabled. */
+    private int poolCapacity;
+    /** Tables of the base, used by the inline representation. */
+    private final RadixTables radix;
+    /**
+     * Whether the digits are held in {@link #inlineValue} instead of the
+     * node chain. A list stays inline while it has at most
+     * {@link RadixTables#digitsPerLong} digits; {@code head} and {@code tail}
+     * are {@code null} meanwhile.
+     */
+    private boolean inline = true;
+    /** Value of the digits of an inline list; leading zeros are implied by {@code size}. */
+    private long inlineValue;
+    /** Scale of notation of the live mirror; {@code 0} while the mirror is disabled. */
+    private int mirrorBase;
+    /**
+     * Value of the list in {@link #mirrorBase} as little-endian limbs of
+     * {@link #mirrorRadix}. Up to date while {@code mirrorModCount == modCount}
+     * and {@link #mirrorStale} is not set.
+     */
+    private long[] mirror;
+    private int mirrorLength;
+    /** Largest power of {@link #mirrorBase} that fits in an {@code int}. */
+    private long mirrorRadix;
+    /** Number of digits of {@link #mirrorBase} held by every limb. */
+    private int mirrorLimbDigits;
+    private int mirrorModCount;
+    /** Set when digits are rewritten in place, which does not change {@code modCount}. */
+    private boolean mirrorStale;
 
 
     /**
@@ -61,13 +121,116 @@ public class NumberListImpl implements NumberList {
         this.head = null;
         this.tail = null;
         this.size = 0;
+        this.digitCounts = new int[base];
+        this.radix = RadixTables.of(base);
     }
 
-    private NumberListImpl(int base) {
+    /**
+     * Creates an empty list in the given scale of notation.
+     *
+     * @param base the scale of notation of the digits
+     */
+    NumberListImpl(int base) {
         this.base = base;
         this.head = null;
         this.tail = null;
         this.size = 0;
+        this.digitCounts = new int[base];
+        this.radix = RadixTables.of(base);
+    }
+
+
+    /**
+     * Returns new empty {@code NumberListImpl} in the given scale of notation.
+     *
+     * @param base - scale of notation, from 2 to 36.
+     *
+     * @return empty list in the given scale of notation.
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    public static NumberListImpl ofBase(int base) {
+        RadixTables.checkBase(base);
+        return new NumberListImpl(base);
+    }
+
+
+    /**
+     * Returns new {@code NumberListImpl} holding the number written in the
+     * given scale of notation, for example the output of {@link #toString()}.
+     * Letters may be in either case. An invalid notation results in an
+     * empty list, as for the {@code String} constructor.
+     *
+     * @param value - number in the given scale of notation.
+     * @param base - scale of notation, from 2 to 36.
+     *
+     * @return list in the given scale of notation.
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    public static NumberListImpl valueOf(String value, int base) {
+        NumberListImpl result = ofBase(base);
+        if (value == null) {
+            return result;
+        }
+        String digits = value.trim();
+        byte[] charToDigit = RadixTables.of(base).charToDigit;
+        for (int i = 0; i < digits.length(); i++) {
+            char ch = digits.charAt(i);
+            if (ch >= charToDigit.length || charToDigit[ch] < 0) {
+                return result;
+            }
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            result.addDigitRaw(charToDigit[digits.charAt(i)]);
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns new {@code NumberListImpl} holding the digits
+     * {@code src[off .. off + len)}, most significant first. All digits are
+     * validated before the list is built.
+     *
+     * @param base - scale of notation, from 2 to 36.
+     * @param src - array holding the digits.
+     * @param off - index of the first digit.
+     * @param len - number of digits.
+     *
+     * @return list of the given digits in the given scale of notation.
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     *                                  or a digit is outside {@code [0, base)}
+     * @throws IndexOutOfBoundsException if the range is outside {@code src}
+     * @throws NullPointerException if {@code src} is {@code null}
+     */
+    public static NumberListImpl fromDigits(int base, byte[] src, int off, int len) {
+        NumberListImpl result = ofBase(base);
+        Objects.checkFromIndexSize(off, len, src.length);
+        int end = off + len;
+        int invalid = 0;
+        for (int i = off; i < end; i++) {
+            // negative digits turn into large values as unsigned bytes
+            invalid |= base - 1 - (src[i] & 0xFF);
+        }
+        if (invalid < 0) {
+            for (int i = off; i < end; i++) {
+                if ((src[i] & 0xFF) >= base) {
+                    throw new IllegalArgumentException("Digit " + src[i] + " at index " + i
+                            + " is out of range for base " + base);
+                }
+            }
+        }
+        result.appendDigitsRaw(src, off, len);
+        return result;
+    }
+
+
+    /**
+     * Returns the scale of notation of the digits stored in the list.
+     *
+     * @return scale of notation, from 2 to 36.
+     */
+    public int getBase() {
+        return base;
     }
 
 
@@ -80,22 +243,19 @@ public class NumberListImpl implements NumberList {
      */
     public NumberListImpl(File file) {
         this();
-        if (file == null || !file.exists() || file.isDirectory()) {
-            return;
-        }
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line = br.readLine();
-            if (line == null || line.trim().isEmpty()) {
-                return;
-            }
-            line = line.trim();
-            if (!isValidDecimal(line)) {
-                clear();
-                return;
-            }
-            fromDecimalString(line);
-        } catch (IOException e) {
-            clear();
+        long start = System.nanoTime();
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
+        boolean loaded = load(file);
+        NumberListMetrics.record(NumberListMetrics.Operation.LOAD, size,
+                (long) size * NumberListMetrics.NODE_BYTES, start);
+        if (event.shouldCommit()) {
+            event.operation = "load";
+            event.path = file == null ? null : file.getPath();
+            event.bytes = loaded ? file.length() : 0;
+            event.digits = size;
+            event.succeeded = loaded;
+            event.commit();
         }
     }
 
@@ -111,13 +271,31 @@ public class NumberListImpl implements NumberList {
         if (value == null) {
             return;
         }
-        value = value.trim();
-        if (!isValidDecimal(value)) {
+        long start = System.nanoTime();
+        // surrounding whitespace is skipped by bounds instead of trim()
+        int from = 0;
+        int to = value.length();
+        while (from < to && value.charAt(from) <= ' ') {
+            from++;
+        }
+        while (to > from && value.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        NumberListParseCache cache = NumberListParseCache.installed();
+        if (cache == null) {
             // invalid => empty
-            clear();
-            return;
+            assignDecimal(DecimalParser.parse(value, from, to));
+        } else {
+            String key = value.substring(from, to);
+            byte[] digits = cache.get(key);
+            if (digits == null) {
+                digits = decimalDigits(DecimalParser.parse(value, from, to));
+                cache.put(key, digits);
+            }
+            appendDigitsRaw(digits);
         }
-        fromDecimalString(value);
+        NumberListMetrics.record(NumberListMetrics.Operation.PARSE, to - from,
+                (long) size * NumberListMetrics.NODE_BYTES + (to - from), start);
     }
 
 
@@ -131,16 +309,30 @@ public class NumberListImpl implements NumberList {
         if (file == null) {
             return;
         }
+        long start = System.nanoTime();
+        FileIoEvent event = new FileIoEvent();
+        event.begin();
         String decimal = toDecimalString();
         if (decimal == null) {
             decimal = "";
         }
+        boolean saved = false;
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
             bw.write(decimal);
             bw.newLine();
+            saved = true;
         } catch (IOException e) {
             // ignore
         }
+        NumberListMetrics.record(NumberListMetrics.Operation.SAVE, decimal.length(), decimal.length(), start);
+        if (event.shouldCommit()) {
+            event.operation = "save";
+            event.path = file.getPath();
+            event.bytes = saved ? decimal.length() + System.lineSeparator().length() : 0;
+            event.digits = size;
+            event.succeeded = saved;
+            event.commit();
+        }
     }
 
 
@@ -170,19 +362,52 @@ public class NumberListImpl implements NumberList {
         }
 
         int c5 = getRecordBookNumber() % 5;
-        int targetBase = BASES[(c5 + 1) % 5];
+        return changeScale(BASES[(c5 + 1) % 5]);
+    }
+
 
-        BigInteger value = new BigInteger(toDecimalString());
+    /**
+     * Returns new {@code NumberListImpl} which represents the same number
+     * in the given scale of notation.<p>
+     *
+     * Does not impact the original list.
+     *
+     * @param targetBase - scale of notation of the result, from 2 to 36.
+     *
+     * @return {@code NumberListImpl} in the given scale of notation.
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    public NumberListImpl changeScale(int targetBase) {
+        RadixTables.checkBase(targetBase);
+        if (isEmpty()) {
+            return new NumberListImpl(targetBase);
+        }
 
-        String converted = value.toString(targetBase).toUpperCase();
+        long start = System.nanoTime();
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
 
         NumberListImpl result = new NumberListImpl(targetBase);
-
-        for (char ch : converted.toCharArray()) {
-            int digit = Character.digit(ch, targetBase);
-            result.addDigitRaw(digit);
+        long allocated;
+        if (inline) {
+            result.appendValue(inlineValue);
+            allocated = result.inline ? 0 : (long) result.size * NumberListMetrics.NODE_BYTES;
+        } else if (targetBase == mirrorBase) {
+            if (!mirrorInSync()) {
+                rebuildMirror();
+            }
+            byte[] converted = mirrorDigits();
+            result.appendDigitsRaw(converted);
+            allocated = (long) result.size * NumberListMetrics.NODE_BYTES + converted.length;
+        } else {
+            byte[] digits = digitArray();
+            byte[] converted = RadixConverter.convert(digits, 0, digits.length, base, targetBase);
+            result.appendDigitsRaw(converted);
+            allocated = (long) result.size * NumberListMetrics.NODE_BYTES + digits.length + converted.length;
         }
 
+        commitConversion(event, "changeScale", targetBase, result.size);
+        NumberListMetrics.record(NumberListMetrics.Operation.CHANGE_SCALE, size, allocated, start);
         return result;
     }
 
@@ -203,23 +428,240 @@ public class NumberListImpl implements NumberList {
             return new NumberListImpl(this.base);
         }
 
-        BigInteger a = toBigInteger(this);
-        BigInteger b = toBigInteger(arg, this.base);
+        long start = System.nanoTime();
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
 
-        BigInteger res = a.and(b);
+        NumberListImpl result = new NumberListImpl(this.base);
 
-        if (res.signum() <= 0) {
-            return new NumberListImpl(this.base);
+        if (inline && arg instanceof NumberListImpl && ((NumberListImpl) arg).inline) {
+            long res = inlineValue & ((NumberListImpl) arg).inlineValue;
+            if (res > 0) {
+                result.appendValue(res);
+            }
+        } else if (arg instanceof NumberListImpl && ((NumberListImpl) arg).base == base
+                && (base & (base - 1)) == 0 && Math.min(size, arg.size()) >= KERNEL_MIN_DIGITS) {
+            // every digit of a power-of-two base is a separate group of bits
+            andDigits((NumberListImpl) arg, result);
+        } else {
+            BigInteger a = toBigInteger(this);
+            // a list of another base is read in its own scale of notation
+            BigInteger b = arg instanceof NumberListImpl ? toBigInteger(arg) : toBigInteger(arg, this.base);
+
+            BigInteger res = a.and(b);
+
+            if (res.signum() > 0) {
+                result.appendDigitsRaw(RadixConverter.toDigits(res, this.base));
+            }
         }
 
-        NumberListImpl result = new NumberListImpl(this.base);
+        commitConversion(event, "additionalOperation", this.base, result.size);
+        NumberListMetrics.record(NumberListMetrics.Operation.AND, size + arg.size(),
+                (long) result.size * NumberListMetrics.NODE_BYTES, start);
+        return result;
+    }
+
+
+
+    /**
+     * Returns the bitwise OR of the numbers stored in this list and in
+     * {@code arg}, in the scale of notation of this list.<p>
+     *
+     * As for {@link #additionalOperation(NumberList)}, a list of another
+     * base is read in its own scale of notation, an empty list or
+     * {@code null} stands for zero and a zero result is an empty list.
+     * Does not impact the original lists.
+     *
+     * @param arg - second operand.
+     *
+     * @return result of the operation.
+     */
+    public NumberListImpl or(NumberList arg) {
+        return bitwise(arg, BitOp.OR);
+    }
+
+
+    /**
+     * Returns the bitwise XOR of the numbers stored in this list and in
+     * {@code arg}, in the scale of notation of this list.
+     *
+     * @param arg - second operand.
+     *
+     * @return result of the operation.
+     * @see #or(NumberList)
+     */
+    public NumberListImpl xor(NumberList arg) {
+        return bitwise(arg, BitOp.XOR);
+    }
+
+
+    /**
+     * Returns the number stored in this list with the bits set in
+     * {@code arg} cleared, in the scale of notation of this list.
+     *
+     * @param arg - second operand.
+     *
+     * @return result of the operation.
+     * @see #or(NumberList)
+     */
+    public NumberListImpl andNot(NumberList arg) {
+        return bitwise(arg, BitOp.AND_NOT);
+    }
+
+
+    /**
+     * Returns the complement of the lowest {@code bits} bits of the number,
+     * in the scale of notation of this list. Higher bits of the number are
+     * ignored, so the result is below {@code 2^bits}; a zero result is an
+     * empty list.
+     *
+     * @param bits - number of bits to complement.
+     *
+     * @return result of the operation.
+     * @throws IllegalArgumentException if {@code bits} is negative
+     * @throws ArithmeticException if the result does not fit in a list
+     */
+    public NumberListImpl not(int bits) {
+        if (bits < 0) {
+            throw new IllegalArgumentException("Negative bit count: " + bits);
+        }
+        NumberListImpl result = new NumberListImpl(base);
+        if (bits == 0) {
+            return result;
+        }
+        int k = radix.bitsPerDigit;
+        if (inline && bits < Long.SIZE - 1) {
+            long res = ~inlineValue & ((1L << bits) - 1);
+            if (res != 0) {
+                result.appendValue(res);
+            }
+        } else if (k != 0) {
+            notDigits(bits, result);
+        } else {
+            BigInteger res = BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE).andNot(toBigInteger(this));
+            if (res.signum() > 0) {
+                result.appendDigitsRaw(RadixConverter.toDigits(res, base));
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the number multiplied by {@code 2^n}, in the scale of notation
+     * of this list. In a power-of-two base a shift by a multiple of the
+     * bits per digit only appends zero digits.
+     *
+     * @param n - number of bits to shift by.
+     *
+     * @return result of the operation.
+     * @throws IllegalArgumentException if {@code n} is negative
+     * @throws ArithmeticException if the result does not fit in a list
+     */
+    public NumberListImpl shiftLeftBits(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative shift distance: " + n);
+        }
+        NumberListImpl result = new NumberListImpl(base);
+        if (digitCounts[0] == size) {
+            return result;
+        }
+        if (inline && n < Long.SIZE - 1 && (inlineValue >>> (Long.SIZE - 1 - n)) == 0) {
+            result.appendValue(inlineValue << n);
+        } else if (radix.bitsPerDigit != 0) {
+            shiftLeftDigits(n, result);
+        } else {
+            result.appendDigitsRaw(RadixConverter.toDigits(toBigInteger(this).shiftLeft(n), base));
+        }
+        return result;
+    }
 
-        result.fromDecimalString(res.toString(10));
 
+    /**
+     * Returns the number divided by {@code 2^n} and rounded down, in the
+     * scale of notation of this list. In a power-of-two base a shift by a
+     * multiple of the bits per digit only removes trailing digits.
+     *
+     * @param n - number of bits to shift by.
+     *
+     * @return result of the operation.
+     * @throws IllegalArgumentException if {@code n} is negative
+     */
+    public NumberListImpl shiftRightBits(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Negative shift distance: " + n);
+        }
+        NumberListImpl result = new NumberListImpl(base);
+        if (inline) {
+            long res = n < Long.SIZE ? inlineValue >>> n : 0;
+            if (res != 0) {
+                result.appendValue(res);
+            }
+        } else if (radix.bitsPerDigit != 0) {
+            shiftRightDigits(n, result);
+        } else {
+            BigInteger res = toBigInteger(this).shiftRight(n);
+            if (res.signum() > 0) {
+                result.appendDigitsRaw(RadixConverter.toDigits(res, base));
+            }
+        }
         return result;
     }
 
 
+    /**
+     * Returns the number of bits in the binary notation of the number,
+     * without leading zeros; {@code 0} for zero or an empty list.<p>
+     *
+     * In a power-of-two base it is computed from the size and the first
+     * significant digit, so it takes constant time unless the list has
+     * leading zeros.
+     *
+     * @return bit length of the number.
+     */
+    public long bitLength() {
+        if (inline) {
+            return Long.SIZE - Long.numberOfLeadingZeros(inlineValue);
+        }
+        if (digitCounts[0] == size) {
+            return 0;
+        }
+        int k = radix.bitsPerDigit;
+        if (k == 0) {
+            return toBigInteger(this).bitLength();
+        }
+        int zeros = 0;
+        Node node = head;
+        while (node.value == 0) {
+            node = node.next;
+            zeros++;
+        }
+        return (long) (size - zeros - 1) * k + Integer.SIZE - Integer.numberOfLeadingZeros(node.value);
+    }
+
+
+    /**
+     * Returns the number of one bits in the binary notation of the number.
+     * In a power-of-two base it is computed from the digit histogram in
+     * O(base) time.
+     *
+     * @return bit count of the number.
+     */
+    public long bitCount() {
+        if (inline) {
+            return Long.bitCount(inlineValue);
+        }
+        if (radix.bitsPerDigit == 0) {
+            return toBigInteger(this).bitCount();
+        }
+        long count = 0;
+        for (int d = 1; d < base; d++) {
+            count += (long) digitCounts[d] * Integer.bitCount(d);
+        }
+        return count;
+    }
+
+
 
     /**
      * Returns string representation of number, stored in the list
@@ -231,8 +673,15 @@ public class NumberListImpl implements NumberList {
         if (isEmpty()) {
             return "0";
         }
-        BigInteger value = toBigInteger(this);
-        return value.toString(10);
+        long start = System.nanoTime();
+        ConversionEvent event = new ConversionEvent();
+        event.begin();
+        String decimal = inline
+                ? Long.toString(inlineValue)
+                : RadixConverter.toString(RadixConverter.toDigits(toBigInteger(this), 10));
+        commitConversion(event, "toDecimalString", 10, decimal.length());
+        NumberListMetrics.record(NumberListMetrics.Operation.TO_DECIMAL, size, decimal.length(), start);
+        return decimal;
     }
 
 
@@ -240,7 +689,9 @@ public class NumberListImpl implements NumberList {
      * Returns a string representation of the number stored in this list.
      * Each node contributes one digit, formatted according to the current base.
      * Digits 0–9 are represented as characters '0'–'9', while digits more than equals 10
-     * are represented as uppercase letters ('A', 'B', ...).
+     * are represented as uppercase letters ('A', 'B', ...).<p>
+     *
+     * The characters are written straight into a Latin-1 byte array.
      *
      * @return a string representation of the stored number, or an empty string if the list is empty
      */
@@ -249,18 +700,115 @@ public class NumberListImpl implements NumberList {
         if (isEmpty()) {
             return "";
         }
-        StringBuilder sb = new StringBuilder(size);
+        byte[] chars = new byte[size];
+        if (inline) {
+            long value = inlineValue;
+            for (int i = size - 1; i >= 0; i--) {
+                chars[i] = RadixTables.DIGIT_BYTES[(int) (value % base)];
+                value /= base;
+            }
+        } else {
+            int i = 0;
+            for (Node current = head; current != null; current = current.next) {
+                chars[i++] = RadixTables.DIGIT_BYTES[current.value];
+            }
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+
+    /**
+     * Writes the string representation of the number, as returned by
+     * {@link #toString()}, to the given destination.<p>
+     *
+     * Digits are written in blocks through a buffer of bounded size,
+     * so the extra memory does not depend on the length of the number.
+     * Nothing is written for an empty list.
+     *
+     * @param out - destination of the characters.
+     *
+     * @throws IOException if the destination fails to accept characters
+     */
+    public void writeTo(Appendable out) throws IOException {
+        if (isEmpty()) {
+            return;
+        }
+        if (inline) {
+            out.append(toString());
+            return;
+        }
+        char[] block = new char[Math.min(size, WRITE_BLOCK)];
+        CharBuffer view = null;
         Node current = head;
         while (current != null) {
-            int d = current.value & 0xFF;
-            if (d < 10) {
-                sb.append((char) ('0' + d));
+            int n = 0;
+            while (current != null && n < block.length) {
+                block[n++] = RadixTables.DIGIT_CHARS[current.value];
+                current = current.next;
+            }
+            if (out instanceof Writer) {
+                ((Writer) out).write(block, 0, n);
+            } else if (out instanceof StringBuilder) {
+                ((StringBuilder) out).append(block, 0, n);
             } else {
-                sb.append((char) ('A' + (d - 10)));
+                if (view == null) {
+                    view = CharBuffer.wrap(block);
+                }
+                out.append(view, 0, n);
             }
-            current = current.next;
         }
-        return sb.toString();
+    }
+
+
+    /**
+     * Writes the string representation of the number, as returned by
+     * {@link #toString()}, to the given stream as ASCII bytes.<p>
+     *
+     * Digits are written in blocks through a buffer of bounded size,
+     * so the extra memory does not depend on the length of the number.
+     * Nothing is written for an empty list. The stream is neither
+     * flushed nor closed.
+     *
+     * @param out - destination stream.
+     *
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (isEmpty()) {
+            return;
+        }
+        if (inline) {
+            out.write(toString().getBytes(StandardCharsets.ISO_8859_1));
+            return;
+        }
+        byte[] block = new byte[Math.min(size, WRITE_BLOCK)];
+        Node current = head;
+        while (current != null) {
+            int n = 0;
+            while (current != null && n < block.length) {
+                block[n++] = RadixTables.DIGIT_BYTES[current.value];
+                current = current.next;
+            }
+            out.write(block, 0, n);
+        }
+    }
+
+
+    /**
+     * Returns a live {@code CharSequence} view of the string representation
+     * of the number, as returned by {@link #toString()}. No characters are
+     * copied: {@code charAt} reads the digit from its node.<p>
+     *
+     * The view follows the list: its length is always the current size and
+     * changes of the list are visible immediately. The view remembers the
+     * last visited node, so scanning it forwards or backwards costs one step
+     * per character, like iterating the list. Sub-sequences are views of the
+     * same list with fixed bounds.
+     *
+     * @return view of the digits as characters.
+     */
+    public CharSequence asCharSequence() {
+        return new DigitSequence(0, -1);
     }
 
 
@@ -283,16 +831,129 @@ public class NumberListImpl implements NumberList {
         if (!(o instanceof List)) return false;
         List<?> other = (List<?>) o;
         if (this.size != other.size()) return false;
-        for (int i = 0; i < size; i++) {
-            Object ov = other.get(i);
-            Byte tv = this.get(i);
-            if (tv == null ? ov != null : !tv.equals(ov)) {
+        if (other instanceof NumberListImpl) {
+            NumberListImpl list = (NumberListImpl) other;
+            if (inline && list.inline && base == list.base) {
+                return inlineValue == list.inlineValue;
+            }
+            if (inline || list.inline) {
+                return Arrays.equals(digitArray(), list.digitArray());
+            }
+            if (!sameDigitCounts(list)) {
+                return false;
+            }
+            Node a = head;
+            Node b = ((NumberListImpl) other).head;
+            while (a != null) {
+                if (a.value != b.value) {
+                    return false;
+                }
+                a = a.next;
+                b = b.next;
+            }
+            return true;
+        }
+        Iterator<?> it = other.iterator();
+        if (inline) {
+            for (int i = 0; i < size; i++) {
+                Object ov = it.next();
+                if (!(ov instanceof Byte) || (Byte) ov != inlineDigit(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        Node current = head;
+        while (current != null) {
+            Object ov = it.next();
+            if (!(ov instanceof Byte) || (Byte) ov != current.value) {
                 return false;
             }
+            current = current.next;
         }
         return true;
     }
 
+
+    /**
+     * Compares the numbers represented by this list and the given list.
+     * An empty list represents zero and leading zeros are ignored. The digits
+     * of a {@code NumberList} that is not a {@code NumberListImpl} are read in
+     * the base of this list.<p>
+     *
+     * Numbers in the same base are compared by the count of significant
+     * digits and then digit by digit from the most significant one, which
+     * usually stops after the first few digits. For different bases the
+     * digit counts bound the binary length of both numbers; only if those
+     * bounds overlap are the numbers converted and compared by value.
+     *
+     * @param other the list to compare with
+     * @return a negative number, zero or a positive number as this number is
+     *         less than, equal to or greater than the other one
+     * @throws NullPointerException if {@code other} is {@code null}
+     */
+    @Override
+    public int compareTo(NumberList other) {
+        if (other == null) {
+            throw new NullPointerException("Cannot compare with null");
+        }
+        if (inline && other instanceof NumberListImpl && ((NumberListImpl) other).inline) {
+            return Long.compare(inlineValue, ((NumberListImpl) other).inlineValue);
+        }
+        int otherBase = other instanceof NumberListImpl ? ((NumberListImpl) other).base : base;
+        int zeros = leadingZeros(this);
+        int otherZeros = leadingZeros(other);
+        int digits = size - zeros;
+        int otherDigits = other.size() - otherZeros;
+        if (digits == 0 || otherDigits == 0) {
+            return Integer.compare(digits, otherDigits);
+        }
+        if (otherBase == base) {
+            if (digits != otherDigits) {
+                return Integer.compare(digits, otherDigits);
+            }
+            Iterator<Byte> a = iterator();
+            Iterator<Byte> b = other.iterator();
+            skip(a, zeros);
+            skip(b, otherZeros);
+            while (a.hasNext()) {
+                int cmp = Integer.compare(a.next(), b.next());
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        }
+        // a number of n significant digits in base r lies in [r^(n-1), r^n)
+        double log2 = RadixTables.of(base).log2Base;
+        double otherLog2 = RadixTables.of(otherBase).log2Base;
+        double low = (digits - 1) * log2;
+        double high = digits * log2;
+        double otherLow = (otherDigits - 1) * otherLog2;
+        double otherHigh = otherDigits * otherLog2;
+        double eps = 1e-9 * Math.max(high, otherHigh);
+        if (high < otherLow - eps) {
+            return -1;
+        }
+        if (otherHigh < low - eps) {
+            return 1;
+        }
+        return toBigInteger(this).compareTo(toBigInteger(other, otherBase));
+    }
+
+
+    /**
+     * Checks whether this list and the given list represent the same number,
+     * regardless of their bases and leading zeros.
+     *
+     * @param other the list to compare with
+     * @return {@code true} if both lists represent the same number,
+     *         {@code false} otherwise or if {@code other} is {@code null}
+     */
+    public boolean numericallyEquals(NumberList other) {
+        return other != null && compareTo(other) == 0;
+    }
+
     /**
      * Returns the number of digits stored in the list.
      *
@@ -316,6 +977,7 @@ public class NumberListImpl implements NumberList {
     /**
      * Checks whether the list contains the specified digit.
      * Only {@code Byte} values are supported; all other types return {@code false}.
+     * Answered in constant time from the digit histogram.
      *
      * @param o the object to check for
      * @return {@code true} if the list contains the digit, {@code false} otherwise
@@ -325,15 +987,7 @@ public class NumberListImpl implements NumberList {
         if (!(o instanceof Byte)) {
             return false;
         }
-        byte val = (Byte) o;
-        Node current = head;
-        while (current != null) {
-            if (current.value == val) {
-                return true;
-            }
-            current = current.next;
-        }
-        return false;
+        return digitCount((Byte) o) > 0;
     }
 
 
@@ -345,6 +999,21 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public Iterator<Byte> iterator() {
+        if (inline) {
+            return new Iterator<Byte>() {
+                private int index;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @Override
+                public Byte next() {
+                    return (byte) inlineDigit(index++);
+                }
+            };
+        }
         return new Iterator<Byte>() {
             private Node current = head;
 
@@ -362,6 +1031,37 @@ public class NumberListImpl implements NumberList {
         };
     }
 
+    /**
+     * Performs the action for every digit, from head to tail, without
+     * creating an iterator. Digits are boxed through the {@code Byte}
+     * cache, so no objects are allocated per digit.
+     *
+     * @param action the action to perform
+     * @throws ConcurrentModificationException if the action changes the
+     *         structure of the list
+     */
+    @Override
+    public void forEach(Consumer<? super Byte> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        if (inline) {
+            for (int i = 0; i < size; i++) {
+                action.accept((byte) inlineDigit(i));
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+            return;
+        }
+        for (Node current = head; current != null; current = current.next) {
+            action.accept(current.value);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+
 
     /**
      * Returns an array containing all elements of this list.
@@ -372,6 +1072,12 @@ public class NumberListImpl implements NumberList {
     @Override
     public Object[] toArray() {
         Object[] arr = new Object[size];
+        if (inline) {
+            for (int i = 0; i < size; i++) {
+                arr[i] = (byte) inlineDigit(i);
+            }
+            return arr;
+        }
         Node current = head;
         int i = 0;
         while (current != null) {
@@ -383,13 +1089,68 @@ public class NumberListImpl implements NumberList {
 
 
     /**
-     * Not supported in this implementation.
+     * Returns an array containing all digits of this list as {@code Byte}
+     * values. If the digits fit in {@code a}, they are stored there and the
+     * element following them, if any, is set to {@code null}; otherwise a
+     * new array of the same runtime type is allocated.
      *
-     * @throws UnsupportedOperationException always thrown because this method is not implemented
+     * @param a the array into which the digits are to be stored, if it is big enough
+     * @return an array containing all digits of this list
+     * @throws ArrayStoreException if the component type of {@code a} is not
+     *                             a supertype of {@code Byte}
+     * @throws NullPointerException if {@code a} is {@code null}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T[] toArray(T[] a) {
-        throw new UnsupportedOperationException("toArray(T[] a) is not implemented");
+        T[] result = a.length >= size ? a
+                : (T[]) Array.newInstance(a.getClass().getComponentType(), size);
+        Object[] target = result;
+        byte[] digits = digitArray();
+        for (int i = 0; i < digits.length; i++) {
+            target[i] = digits[i];
+        }
+        if (result.length > size) {
+            result[size] = null;
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the digits of this list as a new array, most significant
+     * first, without boxing them.
+     *
+     * @return the digits of this list
+     */
+    public byte[] toDigitArray() {
+        return digitArray();
+    }
+
+
+    /**
+     * Copies the digits of this list, most significant first, into
+     * {@code dst} starting at index {@code off}.
+     *
+     * @param dst the destination array
+     * @param off the index in {@code dst} of the first digit
+     * @throws IndexOutOfBoundsException if the digits do not fit in {@code dst} from {@code off}
+     * @throws NullPointerException if {@code dst} is {@code null}
+     */
+    public void copyDigitsTo(byte[] dst, int off) {
+        Objects.checkFromIndexSize(off, size, dst.length);
+        if (inline) {
+            long value = inlineValue;
+            for (int i = off + size - 1; i >= off; i--) {
+                dst[i] = (byte) (value % base);
+                value /= base;
+            }
+            return;
+        }
+        int i = off;
+        for (Node current = head; current != null; current = current.next) {
+            dst[i++] = current.value;
+        }
     }
 
 
@@ -411,15 +1172,11 @@ public class NumberListImpl implements NumberList {
         if (d < 0 || d >= base) {
             throw new IllegalArgumentException("Digit " + d + " is out of range for base " + base);
         }
-        Node node = new Node(e);
-        if (head == null) {
-            head = tail = node;
-        } else {
-            tail.next = node;
-            node.prev = tail;
-            tail = node;
+        boolean mirrored = mirrorInSync();
+        addDigitRaw(d);
+        if (mirrored) {
+            mirrorAppend(d);
         }
-        size++;
         return true;
     }
 
@@ -436,6 +1193,13 @@ public class NumberListImpl implements NumberList {
             return false;
         }
         byte val = (Byte) o;
+        if (digitCount(val) == 0) {
+            return false;
+        }
+        if (inline) {
+            remove(indexOf(val));
+            return true;
+        }
         Node current = head;
         while (current != null) {
             if (current.value == val) {
@@ -449,15 +1213,20 @@ public class NumberListImpl implements NumberList {
 
     /**
      * Checks whether the list contains all elements of the specified collection.
+     * A mask of present digits is built from the digit histogram, after which
+     * every element of the collection is checked with a single bit test.
      *
      * @param c the collection to check
      * @return {@code true} if all elements are present, {@code false} otherwise
      */
     @Override
     public boolean containsAll(Collection<?> c) {
-        if (c == null) return true;
+        if (c == null || c.isEmpty()) return true;
+        long present = presentDigitMask();
         for (Object o : c) {
-            if (!contains(o)) return false;
+            if (!(o instanceof Byte)) return false;
+            int d = (Byte) o;
+            if (d < 0 || d >= base || (present & (1L << d)) == 0) return false;
         }
         return true;
     }
@@ -497,6 +1266,23 @@ public class NumberListImpl implements NumberList {
         if (index == size) {
             return addAll(c);
         }
+        if (inline && size + c.size() <= radix.digitsPerLong) {
+            byte[] digits = new byte[size + c.size()];
+            int pos = index;
+            for (Byte b : c) {
+                int d = b & 0xFF;
+                if (d < 0 || d >= base) {
+                    throw new IllegalArgumentException("Digit out of range for base " + base);
+                }
+                digits[pos++] = b;
+            }
+            for (int i = 0; i < size; i++) {
+                digits[i < index ? i : i + c.size()] = (byte) inlineDigit(i);
+            }
+            resetInline(digits, digits.length);
+            return true;
+        }
+        inflate();
         Node next = nodeAt(index);
         Node prev = next.prev;
         boolean modified = false;
@@ -505,7 +1291,7 @@ public class NumberListImpl implements NumberList {
             if (d < 0 || d >= base) {
                 throw new IllegalArgumentException("Digit out of range for base " + base);
             }
-            Node node = new Node(b);
+            Node node = newNode(b);
             if (prev == null) {
                 node.next = next;
                 next.prev = node;
@@ -518,6 +1304,8 @@ public class NumberListImpl implements NumberList {
             }
             prev = node;
             size++;
+            modCount++;
+            digitCounts[d]++;
             modified = true;
         }
         return modified;
@@ -526,6 +1314,8 @@ public class NumberListImpl implements NumberList {
 
     /**
      * Removes all digits from this list that are present in the given collection.
+     * The collection is collapsed into a digit mask first, so each node is
+     * checked with a single bit test instead of a {@code contains} lookup.
      *
      * @param c the collection containing elements to remove
      * @return {@code true} if at least one element was removed, {@code false} otherwise
@@ -533,10 +1323,15 @@ public class NumberListImpl implements NumberList {
     @Override
     public boolean removeAll(Collection<?> c) {
         if (c == null || c.isEmpty()) return false;
+        long mask = digitMask(c) & presentDigitMask();
+        if (mask == 0) return false;
+        if (inline) {
+            return filterInline(~mask);
+        }
         boolean modified = false;
         Node current = head;
         while (current != null) {
-            if (c.contains(current.value)) {
+            if ((mask & (1L << current.value)) != 0) {
                 Node toRemove = current;
                 current = current.next;
                 unlink(toRemove);
@@ -551,7 +1346,8 @@ public class NumberListImpl implements NumberList {
 
     /**
      * Retains only those digits that are present in the given collection.
-     * All other digits are removed.
+     * All other digits are removed. Like {@link #removeAll(Collection)},
+     * the collection is collapsed into a digit mask before the list is walked.
      *
      * @param c the allowed elements; if {@code null}, the list is cleared
      * @return {@code true} if the list was modified, {@code false} otherwise
@@ -563,10 +1359,15 @@ public class NumberListImpl implements NumberList {
             clear();
             return true;
         }
+        long mask = digitMask(c);
+        if ((presentDigitMask() & ~mask) == 0) return false;
+        if (inline) {
+            return filterInline(mask);
+        }
         boolean modified = false;
         Node current = head;
         while (current != null) {
-            if (!c.contains(current.value)) {
+            if ((mask & (1L << current.value)) == 0) {
                 Node toRemove = current;
                 current = current.next;
                 unlink(toRemove);
@@ -578,13 +1379,81 @@ public class NumberListImpl implements NumberList {
         return modified;
     }
 
+    /**
+     * Removes all digits that satisfy the predicate, unlinking them during
+     * a single walk over the list.
+     *
+     * @param filter the predicate that selects the digits to remove
+     * @return {@code true} if at least one digit was removed, {@code false} otherwise
+     * @throws ConcurrentModificationException if the predicate changes the
+     *         structure of the list
+     */
+    @Override
+    public boolean removeIf(Predicate<? super Byte> filter) {
+        Objects.requireNonNull(filter);
+        int expectedModCount = modCount;
+        if (inline) {
+            byte[] digits = digitArray();
+            int n = 0;
+            for (byte d : digits) {
+                boolean remove = filter.test(d);
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!remove) {
+                    digits[n++] = d;
+                }
+            }
+            if (n == size) {
+                return false;
+            }
+            resetInline(digits, n);
+            return true;
+        }
+        boolean modified = false;
+        Node current = head;
+        while (current != null) {
+            boolean remove = filter.test(current.value);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Node next = current.next;
+            if (remove) {
+                unlink(current);
+                expectedModCount = modCount;
+                modified = true;
+            }
+            current = next;
+        }
+        return modified;
+    }
+
+
 
     /**
      * Removes all elements from the list.
-     * After this operation, the list becomes empty.
+     * After this operation, the list becomes empty.<p>
+     *
+     * When the node pool is enabled and has room for the whole chain,
+     * the chain is handed back to the pool in constant time.
      */
     @Override
     public void clear() {
+        if (inline) {
+            inlineValue = 0;
+            size = 0;
+            modCount++;
+            Arrays.fill(digitCounts, 0);
+            return;
+        }
+        if (poolCapacity > 0 && head != null) {
+            releaseChain();
+            head = tail = null;
+            size = 0;
+            modCount++;
+            Arrays.fill(digitCounts, 0);
+            return;
+        }
         Node current = head;
         while (current != null) {
             Node next = current.next;
@@ -594,6 +1463,9 @@ public class NumberListImpl implements NumberList {
         }
         head = tail = null;
         size = 0;
+        modCount++;
+        Arrays.fill(digitCounts, 0);
+        inline = poolCapacity == 0;
     }
 
 
@@ -606,6 +1478,10 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public Byte get(int index) {
+        if (inline) {
+            checkElementIndex(index);
+            return (byte) inlineDigit(index);
+        }
         Node node = nodeAt(index);
         return node == null ? null : node.value;
     }
@@ -630,9 +1506,20 @@ public class NumberListImpl implements NumberList {
         if (d < 0 || d >= base) {
             throw new IllegalArgumentException("Digit out of range for base " + base);
         }
+        mirrorStale = true;
+        if (inline) {
+            checkElementIndex(index);
+            int old = inlineDigit(index);
+            inlineValue += (d - old) * radix.powers[size - 1 - index];
+            digitCounts[old]--;
+            digitCounts[d]++;
+            return (byte) old;
+        }
         Node node = nodeAt(index);
         byte old = node.value;
         node.value = element;
+        digitCounts[old]--;
+        digitCounts[d]++;
         return old;
     }
 
@@ -660,9 +1547,18 @@ public class NumberListImpl implements NumberList {
         if (d < 0 || d >= base) {
             throw new IllegalArgumentException("Digit out of range for base " + base);
         }
+        if (inline && size < radix.digitsPerLong) {
+            long weight = radix.powers[size - index];
+            inlineValue = (inlineValue / weight * base + d) * weight + inlineValue % weight;
+            size++;
+            modCount++;
+            digitCounts[d]++;
+            return;
+        }
+        inflate();
         Node next = nodeAt(index);
         Node prev = next.prev;
-        Node node = new Node(element);
+        Node node = newNode(element);
         node.next = next;
         next.prev = node;
         if (prev == null) {
@@ -672,6 +1568,8 @@ public class NumberListImpl implements NumberList {
             node.prev = prev;
         }
         size++;
+        modCount++;
+        digitCounts[d]++;
     }
 
 
@@ -684,6 +1582,16 @@ public class NumberListImpl implements NumberList {
      */
     @Override
     public Byte remove(int index) {
+        if (inline) {
+            checkElementIndex(index);
+            int old = inlineDigit(index);
+            long weight = radix.powers[size - 1 - index];
+            inlineValue = inlineValue / (weight * base) * weight + inlineValue % weight;
+            size--;
+            modCount++;
+            digitCounts[old]--;
+            return (byte) old;
+        }
         Node node = nodeAt(index);
         byte old = node.value;
         unlink(node);
@@ -701,6 +1609,13 @@ public class NumberListImpl implements NumberList {
     public int indexOf(Object o) {
         if (!(o instanceof Byte)) return -1;
         byte val = (Byte) o;
+        if (digitCount(val) == 0) return -1;
+        if (inline) {
+            for (int i = 0; i < size; i++) {
+                if (inlineDigit(i) == val) return i;
+            }
+            return -1;
+        }
         int idx = 0;
         Node current = head;
         while (current != null) {
@@ -722,6 +1637,14 @@ public class NumberListImpl implements NumberList {
     public int lastIndexOf(Object o) {
         if (!(o instanceof Byte)) return -1;
         byte val = (Byte) o;
+        if (digitCount(val) == 0) return -1;
+        if (inline) {
+            long value = inlineValue;
+            for (int i = size - 1; i >= 0; i--, value /= base) {
+                if (value % base == val) return i;
+            }
+            return -1;
+        }
         int idx = size - 1;
         Node current = tail;
         while (current != null) {
@@ -764,6 +1687,14 @@ public class NumberListImpl implements NumberList {
             return false;
         }
         if (index1 == index2) return true;
+        mirrorStale = true;
+        if (inline) {
+            long d1 = inlineDigit(index1);
+            long d2 = inlineDigit(index2);
+            inlineValue += (d2 - d1) * radix.powers[size - 1 - index1]
+                    + (d1 - d2) * radix.powers[size - 1 - index2];
+            return true;
+        }
         Node n1 = nodeAt(index1);
         Node n2 = nodeAt(index2);
         byte tmp = n1.value;
@@ -774,45 +1705,154 @@ public class NumberListImpl implements NumberList {
 
 
     /**
-     * Sorts the digits of the list in ascending order using selection sort.
+     * Sorts the digits of the list in ascending order.
+     * Uses counting sort over the digit histogram, so the list is rewritten
+     * in a single pass.
      */
     @Override
     public void sortAscending() {
         if (size < 2) return;
-        for (int i = 0; i < size - 1; i++) {
-            int minIdx = i;
-            for (int j = i + 1; j < size; j++) {
-                if ((get(j) & 0xFF) < (get(minIdx) & 0xFF)) {
-                    minIdx = j;
+        mirrorStale = true;
+        long start = System.nanoTime();
+        SortEvent event = new SortEvent();
+        event.begin();
+        if (inline) {
+            long value = 0;
+            for (int d = 0; d < base; d++) {
+                for (int i = digitCounts[d]; i > 0; i--) {
+                    value = value * base + d;
                 }
             }
-            if (minIdx != i) {
-                swap(i, minIdx);
+            inlineValue = value;
+        } else {
+            Node current = head;
+            for (int d = 0; d < base; d++) {
+                for (int i = digitCounts[d]; i > 0; i--) {
+                    current.value = (byte) d;
+                    current = current.next;
+                }
             }
         }
+        commitSort(event, SortEvent.ASCENDING, null);
+        NumberListMetrics.record(NumberListMetrics.Operation.SORT, size, 0, start);
     }
 
 
     /**
-     * Sorts the digits of the list in descending order using selection sort.
+     * Sorts the digits of the list in descending order.
+     * Uses counting sort over the digit histogram, so the list is rewritten
+     * in a single pass.
      */
     @Override
     public void sortDescending() {
         if (size < 2) return;
-        for (int i = 0; i < size - 1; i++) {
-            int maxIdx = i;
-            for (int j = i + 1; j < size; j++) {
-                if ((get(j) & 0xFF) > (get(maxIdx) & 0xFF)) {
-                    maxIdx = j;
+        mirrorStale = true;
+        long start = System.nanoTime();
+        SortEvent event = new SortEvent();
+        event.begin();
+        if (inline) {
+            long value = 0;
+            for (int d = base - 1; d >= 0; d--) {
+                for (int i = digitCounts[d]; i > 0; i--) {
+                    value = value * base + d;
                 }
             }
-            if (maxIdx != i) {
-                swap(i, maxIdx);
+            inlineValue = value;
+        } else {
+            Node current = head;
+            for (int d = base - 1; d >= 0; d--) {
+                for (int i = digitCounts[d]; i > 0; i--) {
+                    current.value = (byte) d;
+                    current = current.next;
+                }
+            }
+        }
+        commitSort(event, SortEvent.DESCENDING, null);
+        NumberListMetrics.record(NumberListMetrics.Operation.SORT, size, 0, start);
+    }
+
+    /**
+     * Replaces every digit with the result of the operator, rewriting the
+     * nodes in place during a single walk over the list.
+     *
+     * @param operator the operator to apply to every digit
+     * @throws NullPointerException if the operator returns {@code null}
+     * @throws IllegalArgumentException if the operator returns a digit that
+     *         exceeds base constraints; the digits before it are already replaced
+     */
+    @Override
+    public void replaceAll(UnaryOperator<Byte> operator) {
+        Objects.requireNonNull(operator);
+        if (size == 0) return;
+        mirrorStale = true;
+        if (inline) {
+            byte[] digits = digitArray();
+            for (int i = 0; i < size; i++) {
+                digits[i] = checkDigit(operator.apply(digits[i]));
             }
+            resetInline(digits, size);
+            return;
+        }
+        for (Node current = head; current != null; current = current.next) {
+            byte d = checkDigit(operator.apply(current.value));
+            digitCounts[current.value]--;
+            digitCounts[d]++;
+            current.value = d;
         }
     }
 
 
+    /**
+     * Sorts the digits in the order induced by the comparator, or in
+     * ascending order if it is {@code null}.<p>
+     *
+     * Only the distinct digits of the list are sorted with the comparator,
+     * after which the nodes are rewritten from the digit histogram. Digits
+     * that the comparator considers equal keep their relative order, which
+     * needs one extra copy of the digits.
+     *
+     * @param c the comparator, or {@code null} for the natural ordering
+     */
+    @Override
+    public void sort(Comparator<? super Byte> c) {
+        if (c == null || c == Comparator.naturalOrder()) {
+            sortAscending();
+            return;
+        }
+        if (c == Comparator.reverseOrder()) {
+            sortDescending();
+            return;
+        }
+        if (size < 2) return;
+        long start = System.nanoTime();
+        SortEvent event = new SortEvent();
+        event.begin();
+        // distinct digits, insertion-sorted with the comparator
+        byte[] order = new byte[base];
+        int distinct = 0;
+        for (int d = 0; d < base; d++) {
+            if (digitCounts[d] == 0) continue;
+            int i = distinct++;
+            while (i > 0 && c.compare(order[i - 1], (byte) d) > 0) {
+                order[i] = order[i - 1];
+                i--;
+            }
+            order[i] = (byte) d;
+        }
+        boolean ties = false;
+        for (int i = 1; i < distinct && !ties; i++) {
+            ties = c.compare(order[i - 1], order[i]) == 0;
+        }
+        mirrorStale = true;
+        if (!ties) {
+            rewriteInOrder(order, distinct);
+        } else {
+            sortStable(c, order, distinct);
+        }
+        commitSort(event, ties ? SortEvent.CUSTOM : sortOrder(order, distinct), c);
+        NumberListMetrics.record(NumberListMetrics.Operation.SORT, size, 0, start);
+    }
+
     /**
      * Performs a cyclic left shift:
      * the first element becomes the last.
@@ -821,6 +1861,10 @@ public class NumberListImpl implements NumberList {
     @Override
     public void shiftLeft() {
         if (size <= 1) return;
+        if (inline) {
+            rotateInline(1);
+            return;
+        }
         Node first = head;
         head = first.next;
         head.prev = null;
@@ -829,6 +1873,7 @@ public class NumberListImpl implements NumberList {
         first.prev = tail;
         first.next = null;
         tail = first;
+        modCount++;
     }
 
 
@@ -840,6 +1885,10 @@ public class NumberListImpl implements NumberList {
     @Override
     public void shiftRight() {
         if (size <= 1) return;
+        if (inline) {
+            rotateInline(size - 1);
+            return;
+        }
         Node last = tail;
         tail = last.prev;
         tail.next = null;
@@ -848,186 +1897,1268 @@ public class NumberListImpl implements NumberList {
         head.prev = last;
         last.prev = null;
         head = last;
+        modCount++;
     }
 
-    // ---------- My personal methods-helpers ----------
 
     /**
-     * Checks whether the given string is a valid non-negative decimal number.
-     * A valid decimal number:
-     * <ul>
-     *   <li>is not {@code null} and not empty,</li>
-     *   <li>does not start with a minus sign,</li>
-     *   <li>contains only characters '0'–'9'.</li>
-     * </ul>
+     * Performs a cyclic left shift by {@code k} positions:
+     * the first {@code k} elements are moved to the end of the list.
+     * The shift distance is normalised modulo the list size, so negative
+     * values shift to the right.<p>
      *
-     * @param s the string to validate
-     * @return {@code true} if the string is a valid decimal number, {@code false} otherwise
+     * The split node is reached from whichever end is closer, and only
+     * the {@code head}/{@code tail} links are rewired, so the operation
+     * takes O(min(k, n - k)) time and allocates no nodes.
+     *
+     * @param k the number of positions to shift by
      */
-    private boolean isValidDecimal(String s) {
-        if (s == null || s.isEmpty()) return false;
-        if (s.charAt(0) == '-') return false;
-        for (int i = 0; i < s.length(); i++) {
-            char ch = s.charAt(i);
-            if (ch < '0' || ch > '9') return false;
+    public void shiftLeft(int k) {
+        if (size <= 1) return;
+        int shift = Math.floorMod(k, size);
+        if (shift == 0) return;
+        if (inline) {
+            rotateInline(shift);
+            return;
         }
-        return true;
+        rotateTo(nodeAt(shift));
     }
 
+
     /**
-     * Fills a list from a decimal string according to the current base.
+     * Performs a cyclic right shift by {@code k} positions:
+     * the last {@code k} elements are moved to the beginning of the list.
+     * The shift distance is normalised modulo the list size, so negative
+     * values shift to the left.
+     *
+     * @param k the number of positions to shift by
+     * @see #shiftLeft(int)
      */
-    private void fromDecimalString(String decimal) {
-        clear();
-        BigInteger value = new BigInteger(decimal);
-        if (value.signum() <= 0) {
+    public void shiftRight(int k) {
+        if (size <= 1) return;
+        int shift = Math.floorMod(k, size);
+        if (shift == 0) return;
+        if (inline) {
+            rotateInline(size - shift);
             return;
         }
-        String repr = value.toString(base).toUpperCase();
-        for (int i = 0; i < repr.length(); i++) {
-            char ch = repr.charAt(i);
-            int d;
-            if (ch >= '0' && ch <= '9') {
-                d = ch - '0';
-            } else {
-                d = 10 + (ch - 'A');
-            }
-            add((byte) d);
-        }
+        rotateTo(nodeAt(size - shift));
     }
 
     /**
-     * Converts a list (in the current base) to a BigInteger (decimal value).
+     * Returns how many times the specified digit occurs in the list.
+     * Runs in constant time; digits outside the current base never occur.
+     *
+     * @param digit the digit to count
+     * @return the number of occurrences of {@code digit}
      */
-    private static BigInteger toBigInteger(List<Byte> list) {
-        if (!(list instanceof NumberListImpl)) {
-            BigInteger res = BigInteger.ZERO;
-            for (Byte b : list) {
-                int d = b & 0xFF;
-                res = res.multiply(BigInteger.TEN).add(BigInteger.valueOf(d));
-            }
-            return res;
+    public int digitCount(int digit) {
+        if (digit < 0 || digit >= base) {
+            return 0;
         }
-        NumberListImpl nli = (NumberListImpl) list;
-        return toBigInteger(list, nli.base);
+        return digitCounts[digit];
     }
 
+
     /**
-     * Converts the given list of digits into a {@link BigInteger} value
-     * using the specified base.
-     * Each element of the list is treated as a single digit in that base.
+     * Returns the digit histogram of the list: element {@code d} of the
+     * returned array holds the number of occurrences of digit {@code d}.
+     * The array has one element per digit of the current base and is
+     * independent of the list.
      *
-     * @param list the list of digits to convert
-     * @param base the numeric base of the digits
-     * @return the decimal {@link BigInteger} representation of the list
+     * @return a copy of the digit histogram
      */
-    private static BigInteger toBigInteger(List<Byte> list, int base) {
-        BigInteger res = BigInteger.ZERO;
-        BigInteger bBase = BigInteger.valueOf(base);
-        for (int i = 0; i < list.size(); i++) {
-            int d = list.get(i) & 0xFF;
-            res = res.multiply(bBase).add(BigInteger.valueOf(d));
-        }
-        return res;
+    public int[] histogram() {
+        return digitCounts.clone();
     }
 
     /**
-     * Returns the node located at the specified index.
-     * The search is optimized: traversal starts from the head or tail
-     * depending on which side is closer to the target index.
+     * Enables recycling of nodes for this list. Nodes released by
+     * {@code remove}, {@code clear} and the bulk removal methods are kept
+     * in a free-list of at most {@code capacity} nodes and reused by
+     * subsequent insertions instead of allocating new ones.<p>
      *
-     * @param index the index of the node to retrieve
-     * @return the node at the specified position
-     * @throws IndexOutOfBoundsException if the index is invalid
+     * Recycled nodes are reused immediately, so iterators obtained before
+     * a removal must not be used afterwards.
+     *
+     * @param capacity maximum number of nodes kept in the pool
+     * @throws IllegalArgumentException if {@code capacity} is not positive
      */
-    private Node nodeAt(int index) {
-        checkElementIndex(index);
-        if (index < (size / 2)) {
-            Node cur = head;
-            for (int i = 0; i < index; i++) {
-                cur = cur.next;
-            }
-            return cur;
-        } else {
-            Node cur = tail;
-            for (int i = size - 1; i > index; i--) {
-                cur = cur.prev;
-            }
-            return cur;
+    public void enableNodePool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity must be positive: " + capacity);
+        }
+        // pooling recycles nodes, so the digits have to live in nodes
+        inflate();
+        poolCapacity = capacity;
+        while (pooledNodes > capacity) {
+            pool = pool.next;
+            pooledNodes--;
         }
     }
 
+
     /**
-     * Removes the given node from the doubly linked list.
-     * Adjusts all surrounding {@code prev} and {@code next} references
-     * and decreases the list size.
-     *
-     * @param node the node to remove
+     * Disables node recycling and releases all pooled nodes.
      */
-    private void unlink(Node node) {
-        Node prev = node.prev;
-        Node next = node.next;
-
-        if (prev == null) {
-            head = next;
-        } else {
-            prev.next = next;
-        }
-        if (next == null) {
-            tail = prev;
-        } else {
-            next.prev = prev;
-        }
-        node.prev = null;
-        node.next = null;
-        size--;
+    public void disableNodePool() {
+        poolCapacity = 0;
+        pool = null;
+        pooledNodes = 0;
     }
 
+
     /**
-     * Validates that the given index refers to an existing element.
-     * Used for operations such as {@code get}, {@code set}, and {@code remove}.
+     * Enables the live mirror of this list in the given scale of notation.<p>
      *
-     * @param index the index to check
-     * @throws IndexOutOfBoundsException if the index is not within {@code [0, size-1]}
+     * While the list only grows at its end through {@code add} and
+     * {@code addAll}, the mirror follows every appended digit by one
+     * multiply-add over its own digits, so {@link #changeScale(int)} to
+     * {@code targetBase}, or {@link #changeScale()} for a decimal mirror,
+     * copies the mirror instead of converting the whole number. Any other
+     * modification leaves the mirror stale until the next such conversion,
+     * which rebuilds it.
+     *
+     * @param targetBase scale of notation of the mirror, from 2 to 36
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
      */
-    private void checkElementIndex(int index) {
-        if (index < 0 || index >= size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    public void enableMirror(int targetBase) {
+        RadixTables.checkBase(targetBase);
+        long power = targetBase;
+        int digits = 1;
+        while (power * targetBase <= Integer.MAX_VALUE) {
+            power *= targetBase;
+            digits++;
         }
+        mirrorBase = targetBase;
+        mirrorRadix = power;
+        mirrorLimbDigits = digits;
+        rebuildMirror();
     }
 
+
     /**
-     * Validates that the index refers to a valid insertion position.
-     * Used for operations such as {@code add(index, element)}.
-     *
-     * A valid position index is within {@code [0, size]}.
-     *
-     * @param index the index to validate
-     * @throws IndexOutOfBoundsException if the index is outside allowed bounds
+     * Disables the live mirror and releases its digits.
      */
-    private void checkPositionIndex(int index) {
-        if (index < 0 || index > size) {
-            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
-        }
+    public void disableMirror() {
+        mirrorBase = 0;
+        mirror = null;
+        mirrorLength = 0;
     }
 
+    // ---------- My personal methods-helpers ----------
+
     /**
-     * Appends a digit to the end of the internal list without performing
-     * any validation on ranges or base compatibility.
-     * This method is intended for internal use when digits are already known to be valid.
+     * Loads the list from a file holding a decimal number in its first line.
+     * Leaves the list empty if the file is missing, unreadable or invalid.
      *
-     * @param digit the digit to append
+     * @param file the file to read
+     * @return {@code true} if the file was read, {@code false} otherwise
      */
-    private void addDigitRaw(int digit) {
-        Node newNode = new Node((byte) digit);
-        if (head == null) {
-            head = newNode;
-            tail = newNode;
+    private boolean load(File file) {
+        if (file == null || !file.exists() || file.isDirectory()) {
+            return false;
+        }
+        NumberListParseCache cache = NumberListParseCache.installed();
+        Object key = cache == null ? null : NumberListParseCache.fileKey(file);
+        byte[] digits = key == null ? null : cache.get(key);
+        if (digits != null) {
+            clear();
+            appendDigitsRaw(digits);
+            return true;
+        }
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            clear();
+            return false;
+        }
+        if (key == null) {
+            assignFirstLine(data);
         } else {
-            tail.next = newNode;
-            tail = newNode;
+            digits = decimalDigits(firstLineValue(data));
+            cache.put(key, digits);
+            clear();
+            appendDigitsRaw(digits);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a list in the default scale of notation from the contents of
+     * a decimal number file that has already been read.
+     *
+     * @param data file contents in ASCII
+     * @return number from the first line of {@code data}
+     */
+    static NumberListImpl fromDecimalBytes(byte[] data) {
+        NumberListImpl list = new NumberListImpl();
+        list.assignFirstLine(data);
+        return list;
+    }
+
+    private void assignFirstLine(byte[] data) {
+        assignDecimal(firstLineValue(data));
+    }
+
+    /**
+     * Parses the decimal number in the first line of file contents.
+     *
+     * @param data file contents in ASCII
+     * @return value of the first line, or {@code null} if it is blank or invalid
+     */
+    private static BigInteger firstLineValue(byte[] data) {
+        // the first line, without surrounding whitespace, is parsed in place
+        int end = 0;
+        while (end < data.length && data[end] != '\n' && data[end] != '\r') {
+            end++;
+        }
+        int from = 0;
+        while (from < end && (data[from] & 0xFF) <= ' ') {
+            from++;
+        }
+        int to = end;
+        while (to > from && (data[to - 1] & 0xFF) <= ' ') {
+            to--;
+        }
+        return from < to ? DecimalParser.parse(data, from, to) : null;
+    }
+
+    /**
+     * Fills in and commits a conversion event if it has to be recorded.
+     *
+     * @param event        the event started before the conversion
+     * @param operation    name of the converting operation
+     * @param targetBase   scale of notation of the result
+     * @param resultDigits number of digits in the result
+     */
+    private void commitConversion(ConversionEvent event, String operation, int targetBase, int resultDigits) {
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.sourceBase = base;
+            event.targetBase = targetBase;
+            event.inputDigits = size;
+            event.resultDigits = resultDigits;
+            event.commit();
+        }
+    }
+
+    /**
+     * Tells whether the live mirror is enabled and holds the current value.
+     */
+    private boolean mirrorInSync() {
+        return mirror != null && !mirrorStale && mirrorModCount == modCount;
+    }
+
+    /**
+     * Converts the whole list into the live mirror.
+     */
+    private void rebuildMirror() {
+        byte[] digits = size == 0 ? new byte[0] : RadixConverter.convert(digitArray(), 0, size, base, mirrorBase);
+        mirror = new long[Math.max(4, (digits.length + mirrorLimbDigits - 1) / mirrorLimbDigits)];
+        mirrorLength = 0;
+        for (int end = digits.length; end > 0; end -= mirrorLimbDigits) {
+            long limb = 0;
+            for (int i = Math.max(0, end - mirrorLimbDigits); i < end; i++) {
+                limb = limb * mirrorBase + digits[i];
+            }
+            mirror[mirrorLength++] = limb;
+        }
+        while (mirrorLength > 0 && mirror[mirrorLength - 1] == 0) {
+            mirrorLength--;
+        }
+        mirrorModCount = modCount;
+        mirrorStale = false;
+    }
+
+    /**
+     * Brings the live mirror up to date with a digit just appended:
+     * multiplies the mirror by the base and adds the digit.
+     *
+     * @param digit the appended digit
+     */
+    private void mirrorAppend(int digit) {
+        long carry = digit;
+        for (int i = 0; i < mirrorLength; i++) {
+            long t = mirror[i] * base + carry;
+            mirror[i] = t % mirrorRadix;
+            carry = t / mirrorRadix;
+        }
+        if (carry != 0) {
+            if (mirrorLength == mirror.length) {
+                mirror = Arrays.copyOf(mirror, mirrorLength * 2);
+            }
+            mirror[mirrorLength++] = carry;
+        }
+        mirrorModCount = modCount;
+    }
+
+    /**
+     * Returns the digits of the live mirror, most significant first and
+     * without leading zeros. Zero is represented by a single zero digit.
+     */
+    private byte[] mirrorDigits() {
+        if (mirrorLength == 0) {
+            return new byte[1];
+        }
+        long top = mirror[mirrorLength - 1];
+        int topDigits = 1;
+        for (long t = top / mirrorBase; t > 0; t /= mirrorBase) {
+            topDigits++;
+        }
+        byte[] digits = new byte[topDigits + (mirrorLength - 1) * mirrorLimbDigits];
+        int end = digits.length;
+        for (int limb = 0; limb < mirrorLength; limb++) {
+            long value = mirror[limb];
+            int count = limb == mirrorLength - 1 ? topDigits : mirrorLimbDigits;
+            for (int i = 0; i < count; i++) {
+                digits[--end] = (byte) (value % mirrorBase);
+                value /= mirrorBase;
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * Fills in and commits a sort event if it has to be recorded.
+     *
+     * @param event      the event started before sorting
+     * @param order      {@link SortEvent#ASCENDING}, {@link SortEvent#DESCENDING} or {@link SortEvent#CUSTOM}
+     * @param comparator the comparator of {@code sort}, or {@code null} for the natural orders
+     */
+    private void commitSort(SortEvent event, String order, Comparator<? super Byte> comparator) {
+        if (event.shouldCommit()) {
+            event.ascending = order == SortEvent.ASCENDING;
+            event.order = order;
+            event.comparator = comparator == null ? null : comparator.getClass().getName();
+            event.base = base;
+            event.digits = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Tells the order of distinct digits as put by a comparator without ties.
+     *
+     * @param order distinct digits in the order of the comparator
+     * @param count number of digits in {@code order}
+     * @return {@link SortEvent#ASCENDING}, {@link SortEvent#DESCENDING} or {@link SortEvent#CUSTOM}
+     */
+    private static String sortOrder(byte[] order, int count) {
+        boolean ascending = true;
+        boolean descending = true;
+        for (int i = 1; i < count; i++) {
+            ascending &= order[i - 1] < order[i];
+            descending &= order[i - 1] > order[i];
+        }
+        return ascending ? SortEvent.ASCENDING : descending ? SortEvent.DESCENDING : SortEvent.CUSTOM;
+    }
+
+    /**
+     * Rewrites the list with all occurrences of {@code order[0]}, then of
+     * {@code order[1]} and so on, keeping the digit histogram.
+     *
+     * @param order distinct digits of the list in the new order
+     * @param count number of digits in {@code order}
+     */
+    private void rewriteInOrder(byte[] order, int count) {
+        if (inline) {
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                for (int n = digitCounts[order[i]]; n > 0; n--) {
+                    value = value * base + order[i];
+                }
+            }
+            inlineValue = value;
+            return;
+        }
+        Node current = head;
+        for (int i = 0; i < count; i++) {
+            for (int n = digitCounts[order[i]]; n > 0; n--) {
+                current.value = order[i];
+                current = current.next;
+            }
+        }
+    }
+
+    /**
+     * Stable counting sort for a comparator that considers some distinct
+     * digits equal: digits of one group keep their relative order.
+     *
+     * @param c     the comparator
+     * @param order distinct digits of the list, sorted with {@code c}
+     * @param count number of digits in {@code order}
+     */
+    private void sortStable(Comparator<? super Byte> c, byte[] order, int count) {
+        int[] group = new int[base];
+        int[] starts = new int[count + 1];
+        int groups = 0;
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && c.compare(order[i - 1], order[i]) != 0) {
+                groups++;
+            }
+            group[order[i]] = groups;
+            starts[groups + 1] += digitCounts[order[i]];
+        }
+        for (int g = 1; g <= groups; g++) {
+            starts[g + 1] += starts[g];
+        }
+        byte[] digits = digitArray();
+        byte[] sorted = new byte[size];
+        for (byte d : digits) {
+            sorted[starts[group[d]]++] = d;
+        }
+        if (inline) {
+            resetInline(sorted, size);
+            return;
+        }
+        int i = 0;
+        for (Node current = head; current != null; current = current.next) {
+            current.value = sorted[i++];
+        }
+    }
+
+    /**
+     * Replaces the digits of the list with the given value in the current base.
+     * A {@code null} or zero value leaves the list empty.
+     *
+     * @param value the new value, or {@code null} if the input was not a valid number
+     */
+    private void assignDecimal(BigInteger value) {
+        clear();
+        appendDigitsRaw(decimalDigits(value));
+    }
+
+    /**
+     * Returns the digits of a parsed value in the current base.
+     *
+     * @param value the value, or {@code null} if the input was not a valid number
+     * @return digits of the value; no digits for a {@code null} or zero value
+     */
+    private byte[] decimalDigits(BigInteger value) {
+        if (value == null || value.signum() <= 0) {
+            return new byte[0];
+        }
+        return RadixConverter.toDigits(value, base);
+    }
+
+    /**
+     * Converts a list (in the current base) to a BigInteger (decimal value).
+     */
+    private static BigInteger toBigInteger(List<Byte> list) {
+        if (!(list instanceof NumberListImpl)) {
+            return toBigInteger(list, 10);
+        }
+        NumberListImpl nli = (NumberListImpl) list;
+        return toBigInteger(list, nli.base);
+    }
+
+    /**
+     * Converts the given list of digits into a {@link BigInteger} value
+     * using the specified base.
+     * Each element of the list is treated as a single digit in that base.
+     *
+     * @param list the list of digits to convert
+     * @param base the numeric base of the digits
+     * @return the decimal {@link BigInteger} representation of the list
+     */
+    private static BigInteger toBigInteger(List<Byte> list, int base) {
+        if (list instanceof NumberListImpl && ((NumberListImpl) list).inline
+                && ((NumberListImpl) list).base == base) {
+            return BigInteger.valueOf(((NumberListImpl) list).inlineValue);
+        }
+        byte[] digits;
+        if (list instanceof NumberListImpl) {
+            digits = ((NumberListImpl) list).digitArray();
+        } else {
+            digits = new byte[list.size()];
+            int i = 0;
+            for (Byte b : list) {
+                digits[i++] = b;
+            }
+        }
+        return RadixConverter.toBigInteger(digits, 0, digits.length, base);
+    }
+
+    /**
+     * Returns the number of leading zero digits of the list.
+     *
+     * @param list the list of digits
+     * @return number of zeros before the first significant digit
+     */
+    private static int leadingZeros(List<Byte> list) {
+        int zeros = 0;
+        if (list instanceof NumberListImpl && ((NumberListImpl) list).inline) {
+            NumberListImpl nli = (NumberListImpl) list;
+            int significant = 0;
+            for (long value = nli.inlineValue; value != 0; value /= nli.base) {
+                significant++;
+            }
+            return nli.size - significant;
+        }
+        if (list instanceof NumberListImpl) {
+            for (Node current = ((NumberListImpl) list).head; current != null && current.value == 0;
+                 current = current.next) {
+                zeros++;
+            }
+            return zeros;
+        }
+        for (Byte b : list) {
+            if (b != 0) {
+                break;
+            }
+            zeros++;
+        }
+        return zeros;
+    }
+
+    /**
+     * Advances the iterator by the given number of elements.
+     *
+     * @param it    the iterator to advance
+     * @param count number of elements to skip
+     */
+    private static void skip(Iterator<Byte> it, int count) {
+        for (int i = 0; i < count; i++) {
+            it.next();
+        }
+    }
+
+    /**
+     * Returns the digits of the list as an array, most significant first.
+     *
+     * @return the digits of the list
+     */
+    private byte[] digitArray() {
+        byte[] digits = new byte[size];
+        if (inline) {
+            long value = inlineValue;
+            for (int i = size - 1; i >= 0; i--) {
+                digits[i] = (byte) (value % base);
+                value /= base;
+            }
+            return digits;
+        }
+        int i = 0;
+        for (Node current = head; current != null; current = current.next) {
+            digits[i++] = current.value;
+        }
+        return digits;
+    }
+
+    /**
+     * Collapses a collection into a bit mask of the digits it contains.
+     * Bit {@code d} is set if the collection holds {@code Byte} value {@code d}
+     * that is a valid digit of the current base; any other elements can never
+     * match a list element and are ignored.
+     *
+     * @param c the collection to collapse
+     * @return the digit mask of the collection
+     */
+    private long digitMask(Collection<?> c) {
+        long mask = 0;
+        for (Object o : c) {
+            if (o instanceof Byte) {
+                int d = (Byte) o;
+                if (d >= 0 && d < base) {
+                    mask |= 1L << d;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns a bit mask of the digits currently present in the list,
+     * built from the digit histogram.
+     *
+     * @return the mask with bit {@code d} set if digit {@code d} occurs in the list
+     */
+    private long presentDigitMask() {
+        long mask = 0;
+        for (int d = 0; d < base; d++) {
+            if (digitCounts[d] != 0) {
+                mask |= 1L << d;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Tells whether both lists hold every digit value equally often, which
+     * equal lists do whatever their bases.
+     */
+    private boolean sameDigitCounts(NumberListImpl other) {
+        int[] shorter = digitCounts.length <= other.digitCounts.length ? digitCounts : other.digitCounts;
+        int[] longer = shorter == digitCounts ? other.digitCounts : digitCounts;
+        for (int d = 0; d < longer.length; d++) {
+            if (longer[d] != (d < shorter.length ? shorter[d] : 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stores the digit-wise AND of the digits of this list and {@code other},
+     * aligned at the least significant digit, to the empty {@code result}.
+     * Both lists must be in the same power-of-two base.
+     */
+    private void andDigits(NumberListImpl other, NumberListImpl result) {
+        byte[] a = digitArray();
+        byte[] b = other.digitArray();
+        int len = Math.min(a.length, b.length);
+        byte[] digits = new byte[len];
+        DigitKernel.INSTANCE.and(a, a.length - len, b, b.length - len, digits, 0, len);
+        int zeros = DigitKernel.INSTANCE.leadingZeros(digits, 0, len);
+        result.appendDigitsRaw(digits, zeros, len - zeros);
+    }
+
+    /** Binary operations of {@link #or}, {@link #xor} and {@link #andNot}. */
+    private enum BitOp {
+        OR, XOR, AND_NOT;
+
+        long apply(long a, long b) {
+            switch (this) {
+                case OR: return a | b;
+                case XOR: return a ^ b;
+                default: return a & ~b;
+            }
+        }
+
+        BigInteger apply(BigInteger a, BigInteger b) {
+            switch (this) {
+                case OR: return a.or(b);
+                case XOR: return a.xor(b);
+                default: return a.andNot(b);
+            }
+        }
+
+        void apply(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+            switch (this) {
+                case OR: DigitKernel.INSTANCE.or(a, aOff, b, bOff, dst, dstOff, len); break;
+                case XOR: DigitKernel.INSTANCE.xor(a, aOff, b, bOff, dst, dstOff, len); break;
+                default: DigitKernel.INSTANCE.andNot(a, aOff, b, bOff, dst, dstOff, len); break;
+            }
+        }
+    }
+
+    /**
+     * Computes a binary bitwise operation. In a power-of-two base it works
+     * digit by digit on the digits aligned at the least significant one;
+     * other bases go through the radix converter.
+     */
+    private NumberListImpl bitwise(NumberList arg, BitOp op) {
+        NumberListImpl result = new NumberListImpl(base);
+        boolean argEmpty = arg == null || arg.isEmpty();
+        if (isEmpty() && argEmpty) {
+            return result;
+        }
+        if (inline && (argEmpty || arg instanceof NumberListImpl && ((NumberListImpl) arg).inline)) {
+            long res = op.apply(inlineValue, argEmpty ? 0 : ((NumberListImpl) arg).inlineValue);
+            if (res != 0) {
+                result.appendValue(res);
+            }
+        } else if (radix.bitsPerDigit != 0) {
+            byte[] a = digitArray();
+            byte[] b = argEmpty ? new byte[0] : operandDigits(arg);
+            int common = Math.min(a.length, b.length);
+            int len = op == BitOp.AND_NOT ? a.length : Math.max(a.length, b.length);
+            byte[] digits = new byte[len];
+            // digits above the common part come from the longer operand only
+            System.arraycopy(a.length >= b.length ? a : b, 0, digits, 0, len - common);
+            op.apply(a, a.length - common, b, b.length - common, digits, len - common, common);
+            int zeros = DigitKernel.INSTANCE.leadingZeros(digits, 0, len);
+            result.appendDigitsRaw(digits, zeros, len - zeros);
+        } else {
+            BigInteger b = argEmpty ? BigInteger.ZERO
+                    : arg instanceof NumberListImpl ? toBigInteger(arg) : toBigInteger(arg, base);
+            BigInteger res = op.apply(toBigInteger(this), b);
+            if (res.signum() > 0) {
+                result.appendDigitsRaw(RadixConverter.toDigits(res, base));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the digits of a non-empty operand in the base of this list.
+     * A list of another base is read in its own scale of notation.
+     */
+    private byte[] operandDigits(NumberList arg) {
+        if (arg instanceof NumberListImpl) {
+            NumberListImpl list = (NumberListImpl) arg;
+            byte[] digits = list.digitArray();
+            return list.base == base ? digits : RadixConverter.convert(digits, 0, digits.length, list.base, base);
+        }
+        return RadixConverter.toDigits(toBigInteger(arg, base), base);
+    }
+
+    /**
+     * Stores the complement of the lowest {@code bits} bits to the empty
+     * {@code result}. The base must be a power of two.
+     */
+    private void notDigits(int bits, NumberListImpl result) {
+        int k = radix.bitsPerDigit;
+        long digitCount = ((long) bits + k - 1) / k;
+        if (digitCount > Integer.MAX_VALUE - 8) {
+            throw new ArithmeticException("Complement is too large: " + digitCount + " digits");
+        }
+        int len = (int) digitCount;
+        byte[] a = digitArray();
+        byte[] digits = new byte[len];
+        int mask = base - 1;
+        for (int i = 1; i <= len; i++) {
+            int d = i <= a.length ? a[a.length - i] : 0;
+            digits[len - i] = (byte) (~d & mask);
+        }
+        digits[0] &= (1 << (bits - (len - 1) * k)) - 1;
+        int zeros = DigitKernel.INSTANCE.leadingZeros(digits, 0, len);
+        result.appendDigitsRaw(digits, zeros, len - zeros);
+    }
+
+    /**
+     * Stores the number shifted left by {@code n} bits to the empty
+     * {@code result}. The number must not be zero and the base must be
+     * a power of two.
+     */
+    private void shiftLeftDigits(int n, NumberListImpl result) {
+        int k = radix.bitsPerDigit;
+        byte[] a = digitArray();
+        int zeros = DigitKernel.INSTANCE.leadingZeros(a, 0, a.length);
+        int significant = a.length - zeros;
+        int shift = n % k;
+        long len = (long) significant + 1 + n / k;
+        if (len > Integer.MAX_VALUE - 8) {
+            throw new ArithmeticException("Shifted number is too large: " + len + " digits");
+        }
+        byte[] digits = new byte[(int) len];
+        if (shift == 0) {
+            System.arraycopy(a, zeros, digits, 1, significant);
+        } else {
+            int mask = base - 1;
+            int carry = 0;
+            for (int i = a.length - 1; i >= zeros; i--) {
+                int d = a[i];
+                digits[i - zeros + 1] = (byte) (((d << shift) | carry) & mask);
+                carry = d >>> (k - shift);
+            }
+            digits[0] = (byte) carry;
+        }
+        int lead = digits[0] == 0 ? 1 : 0;
+        result.appendDigitsRaw(digits, lead, digits.length - lead);
+    }
+
+    /**
+     * Stores the number shifted right by {@code n} bits to the empty
+     * {@code result}. The base must be a power of two.
+     */
+    private void shiftRightDigits(int n, NumberListImpl result) {
+        int k = radix.bitsPerDigit;
+        int len = size - n / k;
+        if (len <= 0) {
+            return;
+        }
+        byte[] a = digitArray();
+        int shift = n % k;
+        byte[] digits;
+        if (shift == 0) {
+            digits = a;
+        } else {
+            int mask = base - 1;
+            digits = new byte[len];
+            int higher = 0;
+            for (int i = 0; i < len; i++) {
+                int d = a[i];
+                digits[i] = (byte) (((higher << (k - shift)) | (d >>> shift)) & mask);
+                higher = d;
+            }
+        }
+        int zeros = DigitKernel.INSTANCE.leadingZeros(digits, 0, len);
+        result.appendDigitsRaw(digits, zeros, len - zeros);
+    }
+
+    /**
+     * Returns the node located at the specified index.
+     * The search is optimized: traversal starts from the head or tail
+     * depending on which side is closer to the target index.
+     *
+     * @param index the index of the node to retrieve
+     * @return the node at the specified position
+     * @throws IndexOutOfBoundsException if the index is invalid
+     */
+    private Node nodeAt(int index) {
+        checkElementIndex(index);
+        NodeTraversalEvent event = new NodeTraversalEvent();
+        boolean sampled = event.isEnabled()
+                && (++nodeLookups & (NodeTraversalEvent.SAMPLE_INTERVAL - 1)) == 0;
+        if (sampled) {
+            event.begin();
+        }
+        Node cur;
+        if (index < (size / 2)) {
+            cur = head;
+            for (int i = 0; i < index; i++) {
+                cur = cur.next;
+            }
+        } else {
+            cur = tail;
+            for (int i = size - 1; i > index; i--) {
+                cur = cur.prev;
+            }
+        }
+        if (sampled && event.shouldCommit()) {
+            boolean fromTail = index >= (size / 2);
+            event.index = index;
+            event.size = size;
+            event.hops = fromTail ? size - 1 - index : index;
+            event.fromTail = fromTail;
+            event.commit();
+        }
+        return cur;
+    }
+
+    /**
+     * Removes the given node from the doubly linked list.
+     * Adjusts all surrounding {@code prev} and {@code next} references
+     * and decreases the list size.
+     *
+     * @param node the node to remove
+     */
+    private void unlink(Node node) {
+        Node prev = node.prev;
+        Node next = node.next;
+
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+        node.prev = null;
+        node.next = null;
+        size--;
+        modCount++;
+        digitCounts[node.value]--;
+        recycle(node);
+    }
+
+    /**
+     * Closes the list into a ring and reopens it right before the given node,
+     * which becomes the new head. The node must not be the current head.
+     *
+     * @param newHead the node that has to become the first one
+     */
+    private void rotateTo(Node newHead) {
+        Node newTail = newHead.prev;
+
+        tail.next = head;
+        head.prev = tail;
+
+        newTail.next = null;
+        newHead.prev = null;
+        head = newHead;
+        tail = newTail;
+        modCount++;
+    }
+
+    /**
+     * Returns a node holding the given value, taken from the pool
+     * if one is available.
+     *
+     * @param value the digit the node has to hold
+     * @return a detached node with the given value
+     */
+    private Node newNode(byte value) {
+        Node node = pool;
+        if (node == null) {
+            return new Node(value);
+        }
+        pool = node.next;
+        pooledNodes--;
+        node.value = value;
+        node.prev = null;
+        node.next = null;
+        return node;
+    }
+
+    /**
+     * Puts a detached node into the pool if pooling is enabled and
+     * the pool is not full.
+     *
+     * @param node the node to recycle
+     */
+    private void recycle(Node node) {
+        if (pooledNodes < poolCapacity) {
+            node.next = pool;
+            pool = node;
+            pooledNodes++;
+        }
+    }
+
+    /**
+     * Moves the nodes of the whole chain into the pool. If the chain fits,
+     * it is spliced in front of the pool in constant time; otherwise the pool
+     * is topped up from the head of the chain and the rest is left to the
+     * garbage collector. Stale {@code prev} links are reset on reuse.
+     */
+    private void releaseChain() {
+        if (pooledNodes + size <= poolCapacity) {
+            tail.next = pool;
+            pool = head;
+            pooledNodes += size;
+            return;
+        }
+        Node current = head;
+        while (current != null && pooledNodes < poolCapacity) {
+            Node next = current.next;
+            current.next = pool;
+            pool = current;
+            pooledNodes++;
+            current = next;
+        }
+    }
+
+    /**
+     * Returns the number of nodes currently held by the pool.
+     *
+     * @return the pool size
+     */
+    int pooledNodeCount() {
+        return pooledNodes;
+    }
+
+    /**
+     * Validates a digit given as a list element.
+     *
+     * @param element the element
+     * @return the digit
+     */
+    private byte checkDigit(Byte element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        if ((element & 0xFF) >= base) {
+            throw new IllegalArgumentException("Digit out of range for base " + base);
+        }
+        return element;
+    }
+
+    /**
+     * Validates that the given index refers to an existing element.
+     * Used for operations such as {@code get}, {@code set}, and {@code remove}.
+     *
+     * @param index the index to check
+     * @throws IndexOutOfBoundsException if the index is not within {@code [0, size-1]}
+     */
+    private void checkElementIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * Validates that the index refers to a valid insertion position.
+     * Used for operations such as {@code add(index, element)}.
+     *
+     * A valid position index is within {@code [0, size]}.
+     *
+     * @param index the index to validate
+     * @throws IndexOutOfBoundsException if the index is outside allowed bounds
+     */
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+    }
+
+    /**
+     * Appends a digit to the end of the internal list without performing
+     * any validation on ranges or base compatibility.
+     * This method is intended for internal use when digits are already known to be valid.
+     *
+     * @param digit the digit to append
+     */
+    private void addDigitRaw(int digit) {
+        if (inline) {
+            if (size < radix.digitsPerLong) {
+                inlineValue = inlineValue * base + digit;
+                size++;
+                modCount++;
+                digitCounts[digit]++;
+                return;
+            }
+            inflate();
+        }
+        Node newNode = newNode((byte) digit);
+        if (head == null) {
+            head = newNode;
+            tail = newNode;
+        } else {
+            tail.next = newNode;
+            newNode.prev = tail;
+            tail = newNode;
         }
         size++;
+        modCount++;
+        digitCounts[digit]++;
+    }
+
+    /**
+     * Appends digits to the end of the internal list without validation.
+     *
+     * @param digits the digits to append, most significant first
+     */
+    private void appendDigitsRaw(byte[] digits) {
+        appendDigitsRaw(digits, 0, digits.length);
+    }
+
+    /**
+     * Appends digits to the end of the internal list without validation,
+     * linking the new nodes in one sweep.
+     *
+     * @param digits array holding the digits, most significant first
+     * @param off    index of the first digit to append
+     * @param len    number of digits to append
+     */
+    private void appendDigitsRaw(byte[] digits, int off, int len) {
+        if (len == 0) {
+            return;
+        }
+        int end = off + len;
+        if (inline) {
+            if (size + len <= radix.digitsPerLong) {
+                long value = inlineValue;
+                for (int i = off; i < end; i++) {
+                    value = value * base + digits[i];
+                    digitCounts[digits[i]]++;
+                }
+                inlineValue = value;
+                size += len;
+                modCount++;
+                return;
+            }
+            inflate();
+        }
+        DigitKernel.INSTANCE.histogram(digits, off, len, digitCounts);
+        Node last = tail;
+        Node first = null;
+        for (int i = off; i < end; i++) {
+            Node node = newNode(digits[i]);
+            if (last == null) {
+                first = node;
+            } else {
+                last.next = node;
+                node.prev = last;
+            }
+            last = node;
+        }
+        if (head == null) {
+            head = first;
+        }
+        tail = last;
+        size += len;
+        modCount++;
+    }
+
+    /**
+     * Appends the digits of a non-negative value, without leading zeros,
+     * computing them with {@code long} arithmetic. Zero is appended as a
+     * single zero digit.
+     *
+     * @param value the value to append
+     */
+    private void appendValue(long value) {
+        int count = 1;
+        while (count < radix.digitsPerLong && radix.powers[count] <= value) {
+            count++;
+        }
+        if (count == radix.digitsPerLong && radix.radixPower <= value) {
+            count++;
+        }
+        byte[] digits = new byte[count];
+        for (int i = count - 1; i >= 0; i--) {
+            digits[i] = (byte) (value % base);
+            value /= base;
+        }
+        appendDigitsRaw(digits);
+    }
+
+    /**
+     * Returns digit {@code index} of an inline list.
+     *
+     * @param index the index of the digit, already validated
+     * @return the digit
+     */
+    private int inlineDigit(int index) {
+        return (int) (inlineValue / radix.powers[size - 1 - index] % base);
+    }
+
+    /**
+     * Moves the digits of an inline list into a node chain.
+     * Does nothing if the list already uses nodes.
+     */
+    private void inflate() {
+        if (!inline) {
+            return;
+        }
+        byte[] digits = digitArray();
+        inline = false;
+        inlineValue = 0;
+        for (byte d : digits) {
+            Node node = newNode(d);
+            if (head == null) {
+                head = node;
+            } else {
+                tail.next = node;
+                node.prev = tail;
+            }
+            tail = node;
+        }
+        modCount++;
+    }
+
+    /**
+     * Replaces the digits of an inline list. The digits must fit inline.
+     *
+     * @param digits the new digits, most significant first
+     * @param count  number of digits to take from {@code digits}
+     */
+    private void resetInline(byte[] digits, int count) {
+        Arrays.fill(digitCounts, 0);
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = value * base + digits[i];
+            digitCounts[digits[i]]++;
+        }
+        inlineValue = value;
+        size = count;
+        modCount++;
+    }
+
+    /**
+     * Keeps only the digits of an inline list whose bit is set in the mask.
+     *
+     * @param keep mask of the digits to keep
+     * @return {@code true} if any digit was removed
+     */
+    private boolean filterInline(long keep) {
+        byte[] digits = digitArray();
+        int n = 0;
+        for (byte d : digits) {
+            if ((keep & (1L << d)) != 0) {
+                digits[n++] = d;
+            }
+        }
+        if (n == size) {
+            return false;
+        }
+        resetInline(digits, n);
+        return true;
+    }
+
+    /**
+     * Cyclically shifts an inline list left by {@code shift} positions.
+     *
+     * @param shift the shift distance, in {@code [1, size)}
+     */
+    private void rotateInline(int shift) {
+        long weight = radix.powers[size - shift];
+        inlineValue = inlineValue % weight * radix.powers[shift] + inlineValue / weight;
+        modCount++;
+    }
+
+    /**
+     * Character view of a range of the list, see {@link #asCharSequence()}.
+     */
+    private final class DigitSequence implements CharSequence {
+        private final int offset;
+        /** Fixed length, or {@code -1} if the view follows the size of the list. */
+        private final int length;
+        /** Last visited node and its index in the list, valid while {@code cursorModCount == modCount}. */
+        private Node cursor;
+        private int cursorIndex;
+        private int cursorModCount;
+
+        DigitSequence(int offset, int length) {
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length < 0 ? size : length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length());
+            }
+            if (inline) {
+                checkElementIndex(offset + index);
+                return RadixTables.DIGIT_CHARS[inlineDigit(offset + index)];
+            }
+            return RadixTables.DIGIT_CHARS[node(offset + index).value];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            int len = length();
+            if (start < 0 || end > len || start > end) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", " + end + "), length: " + len);
+            }
+            return new DigitSequence(offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            int len = length();
+            if (len == 0) {
+                return "";
+            }
+            if (inline) {
+                return NumberListImpl.this.toString().substring(offset, offset + len);
+            }
+            byte[] chars = new byte[len];
+            Node current = node(offset);
+            for (int i = 0; i < len; i++) {
+                chars[i] = RadixTables.DIGIT_BYTES[current.value];
+                current = current.next;
+            }
+            return new String(chars, StandardCharsets.ISO_8859_1);
+        }
+
+        /**
+         * Returns the node at the given index of the list. Starts from the
+         * cursor when it is valid and closer than both ends of the list,
+         * otherwise falls back to {@link #nodeAt(int)}.
+         */
+        private Node node(int index) {
+            Node cur;
+            int distance = Math.abs(index - cursorIndex);
+            if (cursor != null && cursorModCount == modCount
+                    && distance <= Math.min(index, size - 1 - index)) {
+                cur = cursor;
+                for (int i = cursorIndex; i < index; i++) {
+                    cur = cur.next;
+                }
+                for (int i = cursorIndex; i > index; i--) {
+                    cur = cur.prev;
+                }
+            } else {
+                cur = nodeAt(index);
+                cursorModCount = modCount;
+            }
+            cursor = cur;
+            cursorIndex = index;
+            return cur;
+        }
     }
 
 }
@@ -0,0 +1,365 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Always-on operational metrics of {@link NumberListImpl}.<p>
+ *
+ * For every {@link Operation} the registry keeps the number of calls,
+ * the number of processed digits, an estimate of allocated bytes and
+ * a log-bucketed latency histogram. Recording only touches striped
+ * {@link LongAdder}s, so it is lock-free and does not become a point of
+ * contention between threads. Reading a snapshot is not atomic with respect
+ * to concurrent recording, which is acceptable for monitoring.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class NumberListMetrics {
+
+    /** Operations whose metrics are collected. */
+    public enum Operation {
+        /** Construction from a decimal {@code String}. */
+        PARSE("parse"),
+        /** Construction from a file. */
+        LOAD("load"),
+        /** {@code saveList}. */
+        SAVE("save"),
+        /** {@code changeScale}. */
+        CHANGE_SCALE("changeScale"),
+        /** {@code toDecimalString}. */
+        TO_DECIMAL("toDecimalString"),
+        /** {@code additionalOperation}, the AND of two numbers. */
+        AND("and"),
+        /** {@code sortAscending} and {@code sortDescending}. */
+        SORT("sort");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+
+        /** @return name of the operation used in JMX object names */
+        public String label() {
+            return label;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the metrics of one operation.
+     * Latency percentiles are upper bounds of histogram buckets, so they
+     * overestimate the real value by less than 25%.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long digits;
+        private final long allocatedBytes;
+        private final long totalNanos;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long p999Nanos;
+        private final long maxNanos;
+
+        Snapshot(long count, long digits, long allocatedBytes, long totalNanos,
+                 long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+            this.count = count;
+            this.digits = digits;
+            this.allocatedBytes = allocatedBytes;
+            this.totalNanos = totalNanos;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.p999Nanos = p999Nanos;
+            this.maxNanos = maxNanos;
+        }
+
+        /** @return number of completed calls */
+        public long count() {
+            return count;
+        }
+
+        /** @return total number of digits processed */
+        public long digits() {
+            return digits;
+        }
+
+        /** @return estimated number of bytes allocated */
+        public long allocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /** @return total latency of all calls in nanoseconds */
+        public long totalNanos() {
+            return totalNanos;
+        }
+
+        /** @return mean latency in nanoseconds, or {@code 0} if there were no calls */
+        public double meanNanos() {
+            return count == 0 ? 0 : (double) totalNanos / count;
+        }
+
+        /** @return median latency in nanoseconds */
+        public long p50Nanos() {
+            return p50Nanos;
+        }
+
+        /** @return 99th percentile latency in nanoseconds */
+        public long p99Nanos() {
+            return p99Nanos;
+        }
+
+        /** @return 99.9th percentile latency in nanoseconds */
+        public long p999Nanos() {
+            return p999Nanos;
+        }
+
+        /** @return maximal latency in nanoseconds */
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", digits=" + digits + ", allocatedBytes=" + allocatedBytes
+                    + ", p50=" + p50Nanos + "ns, p99=" + p99Nanos + "ns, p999=" + p999Nanos
+                    + "ns, max=" + maxNanos + "ns";
+        }
+    }
+
+    /** Estimated size of one list node in bytes, used for allocation estimates. */
+    static final int NODE_BYTES = 24;
+
+    /** Domain of the JMX object names. */
+    public static final String JMX_DOMAIN = "ua.kpi.comsys.test2";
+
+    /**
+     * Histogram buckets: four linear sub-buckets per power of two of the
+     * latency in nanoseconds.
+     */
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    private static final Map<Operation, OperationMetrics> METRICS = new EnumMap<>(Operation.class);
+
+    static {
+        for (Operation op : Operation.values()) {
+            METRICS.put(op, new OperationMetrics());
+        }
+    }
+
+    private NumberListMetrics() {
+    }
+
+    /**
+     * Records one completed call of the operation.
+     *
+     * @param op             the operation
+     * @param digits         number of digits processed by the call
+     * @param allocatedBytes estimated number of bytes allocated by the call
+     * @param startNanos     {@link System#nanoTime()} taken when the call started
+     */
+    public static void record(Operation op, long digits, long allocatedBytes, long startNanos) {
+        METRICS.get(op).record(digits, allocatedBytes, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Returns the current metrics of the operation.
+     *
+     * @param op the operation
+     * @return snapshot of the metrics
+     */
+    public static Snapshot snapshot(Operation op) {
+        return METRICS.get(op).snapshot();
+    }
+
+    /**
+     * Resets the metrics of all operations.
+     */
+    public static void reset() {
+        for (OperationMetrics metrics : METRICS.values()) {
+            metrics.reset();
+        }
+    }
+
+    /**
+     * Registers one {@link NumberListMetricsMXBean} per operation in the
+     * platform MBean server under
+     * {@code ua.kpi.comsys.test2:type=NumberListMetrics,operation=<label>}.
+     * Beans that are already registered are left untouched.
+     *
+     * @throws IllegalStateException if a bean cannot be registered
+     */
+    public static synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (Map.Entry<Operation, OperationMetrics> e : METRICS.entrySet()) {
+                ObjectName name = objectName(e.getKey());
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(e.getValue(), name);
+                }
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register NumberList metrics", e);
+        }
+    }
+
+    /**
+     * Returns the JMX object name of the bean of the operation.
+     *
+     * @param op the operation
+     * @return the object name
+     * @throws JMException if the name is malformed
+     */
+    public static ObjectName objectName(Operation op) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=NumberListMetrics,operation=" + op.label());
+    }
+
+    /**
+     * Returns the histogram bucket of a latency value.
+     *
+     * @param nanos latency in nanoseconds
+     * @return index of the bucket
+     */
+    static int bucketOf(long nanos) {
+        if (nanos < (1 << SUB_BUCKET_BITS)) {
+            return (int) Math.max(nanos, 0);
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(nanos);
+        int sub = (int) (nanos >>> (exp - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return ((exp - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+    }
+
+    /**
+     * Returns the largest latency value that falls into the bucket.
+     *
+     * @param bucket index of the bucket
+     * @return upper bound of the bucket in nanoseconds
+     */
+    static long bucketUpperBound(int bucket) {
+        if (bucket < (1 << SUB_BUCKET_BITS)) {
+            return bucket;
+        }
+        int exp = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long sub = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        long upper = ((1L << SUB_BUCKET_BITS) + sub + 1) << (exp - SUB_BUCKET_BITS);
+        return upper <= 0 ? Long.MAX_VALUE : upper - 1;
+    }
+
+    /** Metrics of one operation. */
+    static final class OperationMetrics implements NumberListMetricsMXBean {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder digits = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+        OperationMetrics() {
+            for (int i = 0; i < BUCKETS; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        void record(long digitCount, long bytes, long nanos) {
+            count.increment();
+            digits.add(digitCount);
+            allocatedBytes.add(bytes);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            histogram[bucketOf(nanos)].increment();
+        }
+
+        Snapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = histogram[i].sum();
+                total += counts[i];
+            }
+            return new Snapshot(count.sum(), digits.sum(), allocatedBytes.sum(), totalNanos.sum(),
+                    percentile(counts, total, 0.5), percentile(counts, total, 0.99),
+                    percentile(counts, total, 0.999), maxNanos.get());
+        }
+
+        private static long percentile(long[] counts, long total, double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return bucketUpperBound(counts.length - 1);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getDigits() {
+            return digits.sum();
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        @Override
+        public double getMeanNanos() {
+            return snapshot().meanNanos();
+        }
+
+        @Override
+        public long getP50Nanos() {
+            return snapshot().p50Nanos();
+        }
+
+        @Override
+        public long getP99Nanos() {
+            return snapshot().p99Nanos();
+        }
+
+        @Override
+        public long getP999Nanos() {
+            return snapshot().p999Nanos();
+        }
+
+        @Override
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        @Override
+        public void reset() {
+            count.reset();
+            digits.reset();
+            allocatedBytes.reset();
+            totalNanos.reset();
+            maxNanos.reset();
+            for (LongAdder bucket : histogram) {
+                bucket.reset();
+            }
+        }
+    }
+}
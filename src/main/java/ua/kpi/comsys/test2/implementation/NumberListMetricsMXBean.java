@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+/**
+ * JMX view of the metrics of a single {@link NumberListMetrics.Operation}.
+ * One bean is registered per operation by
+ * {@link NumberListMetrics#registerMBeans()}.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public interface NumberListMetricsMXBean {
+
+    /** @return number of completed calls */
+    long getCount();
+
+    /** @return total number of digits processed */
+    long getDigits();
+
+    /** @return estimated number of bytes allocated */
+    long getAllocatedBytes();
+
+    /** @return mean latency in nanoseconds */
+    double getMeanNanos();
+
+    /** @return median latency in nanoseconds */
+    long getP50Nanos();
+
+    /** @return 99th percentile latency in nanoseconds */
+    long getP99Nanos();
+
+    /** @return 99.9th percentile latency in nanoseconds */
+    long getP999Nanos();
+
+    /** @return maximal latency in nanoseconds */
+    long getMaxNanos();
+
+    /** Resets all metrics of the operation. */
+    void reset();
+}
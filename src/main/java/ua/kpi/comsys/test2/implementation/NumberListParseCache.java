@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of parsed decimal inputs of {@link NumberListImpl}.<p>
+ *
+ * While a cache is {@linkplain #install installed}, the
+ * {@link NumberListImpl#NumberListImpl(String) string} and
+ * {@link NumberListImpl#NumberListImpl(File) file} constructors look up
+ * the digits of their input in the default scale of notation before
+ * validating, parsing and converting it. Strings are keyed by their text
+ * without surrounding whitespace, files by their absolute path, last
+ * modification time and length. A file rewritten with the same length
+ * within the resolution of its modification time is not noticed.<p>
+ *
+ * Cached digit arrays are shared and never modified: a list built from a
+ * cached entry copies the digits into its own storage. The cache is
+ * limited by the number of entries and by the total number of cached
+ * digits. It is split into lock-striped segments, each evicting by a
+ * segmented LRU policy: new entries are put on probation, entries hit
+ * while on probation are promoted to a protected area of 80% of the
+ * segment, and entries are evicted from probation first, so that a burst
+ * of one-off inputs does not flush the inputs that repeat.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class NumberListParseCache {
+
+    /**
+     * Immutable snapshot of the statistics of a cache.
+     */
+    public static final class Stats {
+        private final long hitCount;
+        private final long missCount;
+        private final long evictionCount;
+        private final int entries;
+        private final long digits;
+
+        Stats(long hitCount, long missCount, long evictionCount, int entries, long digits) {
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.evictionCount = evictionCount;
+            this.entries = entries;
+            this.digits = digits;
+        }
+
+        /** @return number of lookups that found an entry */
+        public long hitCount() {
+            return hitCount;
+        }
+
+        /** @return number of lookups that found no entry */
+        public long missCount() {
+            return missCount;
+        }
+
+        /** @return share of lookups that found an entry, or {@code 0} if there were none */
+        public double hitRate() {
+            long lookups = hitCount + missCount;
+            return lookups == 0 ? 0 : (double) hitCount / lookups;
+        }
+
+        /** @return number of entries evicted to respect the limits */
+        public long evictionCount() {
+            return evictionCount;
+        }
+
+        /** @return number of cached entries */
+        public int entries() {
+            return entries;
+        }
+
+        /** @return total number of cached digits */
+        public long digits() {
+            return digits;
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount
+                    + ", entries=" + entries + ", digits=" + digits;
+        }
+    }
+
+    private static final int MAX_SEGMENTS = 16;
+
+    /** Share of a segment, in percent, taken by the protected area. */
+    private static final int PROTECTED_PERCENT = 80;
+
+    private static volatile NumberListParseCache installed;
+
+    private final Segment[] segments;
+    private final int maxEntries;
+    private final long maxDigits;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries maximal number of entries
+     * @param maxDigits  maximal total number of digits of the entries
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public NumberListParseCache(int maxEntries, long maxDigits) {
+        if (maxEntries <= 0 || maxDigits <= 0) {
+            throw new IllegalArgumentException("Limits must be positive: " + maxEntries + ", " + maxDigits);
+        }
+        this.maxEntries = maxEntries;
+        this.maxDigits = maxDigits;
+        int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(maxEntries));
+        segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((maxEntries + count - 1) / count, (maxDigits + count - 1) / count);
+        }
+    }
+
+    /**
+     * Makes the constructors of {@link NumberListImpl} use a cache.
+     *
+     * @param cache the cache to use, or {@code null} to stop caching
+     */
+    public static void install(NumberListParseCache cache) {
+        installed = cache;
+    }
+
+    /**
+     * Returns the cache used by the constructors of {@link NumberListImpl}.
+     *
+     * @return the installed cache, or {@code null} if there is none
+     */
+    public static NumberListParseCache installed() {
+        return installed;
+    }
+
+    /**
+     * Returns the key of the contents of a file.
+     *
+     * @param file an existing file
+     * @return key made of the absolute path, modification time and length
+     */
+    static Object fileKey(File file) {
+        return new FileKey(file.getAbsolutePath(), file.lastModified(), file.length());
+    }
+
+    /**
+     * Looks up the digits of an input.
+     *
+     * @param key text of a string input or {@link #fileKey} of a file
+     * @return shared digits that must not be modified, or {@code null}
+     */
+    byte[] get(Object key) {
+        byte[] digits = segmentOf(key).get(key);
+        (digits == null ? misses : hits).increment();
+        return digits;
+    }
+
+    /**
+     * Caches the digits of an input. The array must not be modified afterwards.
+     *
+     * @param key    text of a string input or {@link #fileKey} of a file
+     * @param digits digits of the input in the default scale of notation
+     */
+    void put(Object key, byte[] digits) {
+        int evicted = segmentOf(key).put(key, digits);
+        if (evicted > 0) {
+            evictions.add(evicted);
+        }
+    }
+
+    /**
+     * Returns the maximal number of entries.
+     *
+     * @return limit of entries given to the constructor
+     */
+    public int maxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the maximal total number of digits.
+     *
+     * @return limit of digits given to the constructor
+     */
+    public long maxDigits() {
+        return maxDigits;
+    }
+
+    /**
+     * Returns the current statistics. The segments are read one by one,
+     * so the snapshot is not atomic with respect to concurrent use.
+     *
+     * @return snapshot of the statistics
+     */
+    public Stats stats() {
+        int entries = 0;
+        long digits = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                entries += segment.probation.size() + segment.protectedArea.size();
+                digits += segment.probationDigits + segment.protectedDigits;
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries, digits);
+    }
+
+    /**
+     * Removes all entries. The statistics are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentOf(Object key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    /**
+     * Part of the cache guarded by its own lock. Both areas are kept in
+     * insertion order, least recently used first.
+     */
+    private static final class Segment {
+        private final int maxEntries;
+        private final long maxDigits;
+        private final int maxProtectedEntries;
+        private final long maxProtectedDigits;
+        private final LinkedHashMap<Object, byte[]> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Object, byte[]> protectedArea = new LinkedHashMap<>();
+        private long probationDigits;
+        private long protectedDigits;
+
+        Segment(int maxEntries, long maxDigits) {
+            this.maxEntries = maxEntries;
+            this.maxDigits = maxDigits;
+            this.maxProtectedEntries = (int) ((long) maxEntries * PROTECTED_PERCENT / 100);
+            this.maxProtectedDigits = maxDigits * PROTECTED_PERCENT / 100;
+        }
+
+        synchronized byte[] get(Object key) {
+            byte[] digits = protectedArea.remove(key);
+            if (digits != null) {
+                protectedArea.put(key, digits);
+                return digits;
+            }
+            digits = probation.remove(key);
+            if (digits == null) {
+                return null;
+            }
+            probationDigits -= digits.length;
+            protectedArea.put(key, digits);
+            protectedDigits += digits.length;
+            // the least recently used protected entries get another chance on probation
+            Iterator<Map.Entry<Object, byte[]>> it = protectedArea.entrySet().iterator();
+            while (protectedArea.size() > maxProtectedEntries || protectedDigits > maxProtectedDigits) {
+                Map.Entry<Object, byte[]> e = it.next();
+                it.remove();
+                protectedDigits -= e.getValue().length;
+                probation.put(e.getKey(), e.getValue());
+                probationDigits += e.getValue().length;
+            }
+            return digits;
+        }
+
+        /** Adds an entry on probation and returns the number of evicted entries. */
+        synchronized int put(Object key, byte[] digits) {
+            if (digits.length > maxDigits || probation.containsKey(key) || protectedArea.containsKey(key)) {
+                return 0;
+            }
+            probation.put(key, digits);
+            probationDigits += digits.length;
+            int evicted = 0;
+            while (probation.size() + protectedArea.size() > maxEntries
+                    || probationDigits + protectedDigits > maxDigits) {
+                if (probation.isEmpty()) {
+                    Iterator<byte[]> it = protectedArea.values().iterator();
+                    protectedDigits -= it.next().length;
+                    it.remove();
+                } else {
+                    Iterator<byte[]> it = probation.values().iterator();
+                    probationDigits -= it.next().length;
+                    it.remove();
+                }
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedArea.clear();
+            probationDigits = 0;
+            protectedDigits = 0;
+        }
+    }
+
+    /**
+     * Key of the contents of a file.
+     */
+    private static final class FileKey {
+        private final String path;
+        private final long lastModified;
+        private final long length;
+
+        FileKey(String path, long lastModified, long length) {
+            this.path = path;
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FileKey)) {
+                return false;
+            }
+            FileKey other = (FileKey) o;
+            return path.equals(other.path) && lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return path.hashCode() * 31 + Long.hashCode(lastModified * 31 + length);
+        }
+    }
+}
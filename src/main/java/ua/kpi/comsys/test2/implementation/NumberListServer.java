@@ -0,0 +1,582 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * TCP server exposing the operations of {@link NumberListImpl} to other
+ * processes through a binary protocol, so that they share one warm JVM.<p>
+ *
+ * One selector thread accepts connections, reads requests and writes
+ * responses; the operations run on a pool of worker threads. A client may
+ * pipeline any number of requests without waiting for the responses.
+ * Responses carry the id of their request and are sent as soon as they
+ * are ready, so they may come in another order. Requests of at most
+ * {@link #BATCH_DIGITS} payload bytes that arrive together are handed to
+ * the workers in batches of up to {@link #MAX_BATCH}, whose responses are
+ * queued with a single wakeup of the selector. The digits of a response
+ * are written straight from the digit array of the result as the socket
+ * accepts them, without copying them into a frame. A connection stops
+ * being read while it has {@link #MAX_IN_FLIGHT} unanswered requests or
+ * {@link #MAX_QUEUED_BYTES} of unsent responses. The read buffer of a
+ * connection grows with the bytes of a large request as they arrive, not
+ * with the length announced by its header, and the connections waiting
+ * for the rest of a large request are not read while their buffers hold
+ * {@link #MAX_READ_BUFFER_BYTES} together.<p>
+ *
+ * All integers are big-endian. A request frame is
+ * <pre>
+ *   int length | int id | byte operation | payload
+ * </pre>
+ * where {@code length} counts the bytes after itself. A number is written
+ * as {@code byte base | int count | count digit bytes}, most significant
+ * digit first, and a path as {@code unsigned short length | UTF-8 bytes}.
+ * The payloads are
+ * <ul>
+ *   <li>{@link #CHANGE_SCALE}: number, {@code byte targetBase};</li>
+ *   <li>{@link #AND}: number, number; the result is in the base of the first one;</li>
+ *   <li>{@link #LOAD}: path of a file with a decimal number; the result is
+ *       in the default scale of notation;</li>
+ *   <li>{@link #SAVE}: path, number; the number is written in decimal and
+ *       the result is empty.</li>
+ * </ul>
+ * A response frame is {@code int length | int id | byte status} followed by
+ * the resulting number for {@link #STATUS_OK}, or by an error message
+ * encoded like a path for {@link #STATUS_ERROR}.<p>
+ *
+ * {@code LOAD} and {@code SAVE} access files with the rights of the
+ * server, so by default it only listens on the loopback interface.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class NumberListServer implements AutoCloseable {
+
+    /** Operation converting a number to another scale of notation. */
+    public static final byte CHANGE_SCALE = 1;
+    /** Operation computing the bitwise AND of two numbers. */
+    public static final byte AND = 2;
+    /** Operation reading a decimal number from a file. */
+    public static final byte LOAD = 3;
+    /** Operation writing a number to a file in decimal notation. */
+    public static final byte SAVE = 4;
+
+    /** Status of a response holding a result. */
+    public static final byte STATUS_OK = 0;
+    /** Status of a response holding an error message. */
+    public static final byte STATUS_ERROR = 1;
+
+    /** Largest request payload, in bytes, that is batched with other requests. */
+    public static final int BATCH_DIGITS = NumberListService.SMALL_DIGITS;
+    /** Largest number of requests handed to a worker at once. */
+    public static final int MAX_BATCH = 64;
+    /** Number of unanswered requests after which a connection is not read. */
+    public static final int MAX_IN_FLIGHT = 1024;
+    /** Bytes of unsent responses after which a connection is not read. */
+    public static final int MAX_QUEUED_BYTES = 64 << 20;
+    /** Largest accepted request frame, without the length field; longer ones close the connection. */
+    public static final int MAX_FRAME = 32 << 20;
+    /** Bytes of read buffers beyond the default size, over all connections. */
+    public static final long MAX_READ_BUFFER_BYTES = 256L << 20;
+
+    /** Bytes of the length, id and operation or status fields. */
+    private static final int HEADER_BYTES = 9;
+    /** Bytes of a successful response before the digits. */
+    private static final int RESULT_HEADER_BYTES = HEADER_BYTES + 5;
+    private static final int READ_BUFFER = 64 << 10;
+    /** Largest number of buffers passed to one gathering write. */
+    private static final int MAX_GATHER = 64;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final ThreadPoolExecutor workers;
+    private final Thread loop;
+    /** Connections whose interest in writing or reading has to be updated. */
+    private final Queue<Connection> changed = new ConcurrentLinkedQueue<>();
+    /** Connections not read until other connections release read buffer bytes; selector thread only. */
+    private final Queue<Connection> waitingForBuffer = new ArrayDeque<>();
+    /** Bytes of read buffers beyond the default size; written by the selector thread only. */
+    private volatile long readBufferBytes;
+    private volatile boolean closed;
+
+    /**
+     * Starts a server on a port of the loopback interface, with one worker
+     * thread per processor.
+     *
+     * @param port port to listen on, or {@code 0} for any free port
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static NumberListServer start(int port) throws IOException {
+        return new NumberListServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Starts a server.
+     *
+     * @param address address to listen on
+     * @param threads number of worker threads
+     * @throws IOException if the address cannot be bound
+     * @throws IllegalArgumentException if {@code threads} is not positive
+     */
+    public NumberListServer(InetSocketAddress address, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads: " + threads);
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "numberlist-server-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        try {
+            server.bind(address);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            workers.shutdown();
+            throw e;
+        }
+        this.loop = new Thread(this::run, "numberlist-selector");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return local port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting and reading, closes all connections and stops the
+     * workers. Responses that are not sent yet are dropped.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        workers.shutdown();
+    }
+
+    // ---------- selector thread ----------
+
+    private void run() {
+        try {
+            while (!closed) {
+                selector.select();
+                Connection connection;
+                while ((connection = changed.poll()) != null) {
+                    connection.updateInterest();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection c = (Connection) key.attachment();
+                    try {
+                        if (key.isWritable()) {
+                            c.write();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            c.read();
+                        }
+                    } catch (IOException e) {
+                        c.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            // the server is unusable; fall through to the shutdown
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    ((Connection) key.attachment()).close();
+                }
+            }
+            try {
+                server.close();
+                selector.close();
+            } catch (IOException e) {
+                // nothing left to release
+            }
+        }
+    }
+
+    /**
+     * Accepts a pending connection. A failure affects only that connection,
+     * so it is dropped and the server keeps serving the others.
+     */
+    private void accept() {
+        SocketChannel channel;
+        try {
+            channel = server.accept();
+        } catch (IOException e) {
+            // e.g. out of file descriptors; the connection stays pending
+            return;
+        }
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already closed by the peer
+            }
+        }
+    }
+
+    /** Queues the requests of one read, batching the small ones. */
+    private void dispatch(Connection connection, List<Request> requests) {
+        List<Request> batch = new ArrayList<>();
+        for (Request request : requests) {
+            if (request.payload.length > BATCH_DIGITS) {
+                List<Request> single = new ArrayList<>(1);
+                single.add(request);
+                workers.execute(() -> process(connection, single));
+                continue;
+            }
+            batch.add(request);
+            if (batch.size() == MAX_BATCH) {
+                List<Request> full = batch;
+                workers.execute(() -> process(connection, full));
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            List<Request> rest = batch;
+            workers.execute(() -> process(connection, rest));
+        }
+    }
+
+    // ---------- workers ----------
+
+    private void process(Connection connection, List<Request> requests) {
+        List<ByteBuffer[]> responses = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            responses.add(handle(request));
+        }
+        connection.enqueue(responses);
+        changed.add(connection);
+        selector.wakeup();
+    }
+
+    private static ByteBuffer[] handle(Request request) {
+        try {
+            ByteBuffer payload = ByteBuffer.wrap(request.payload);
+            NumberListImpl result;
+            switch (request.operation) {
+                case CHANGE_SCALE: {
+                    NumberListImpl list = readNumber(payload);
+                    result = list.changeScale(payload.get());
+                    break;
+                }
+                case AND: {
+                    NumberListImpl list = readNumber(payload);
+                    result = list.additionalOperation(readNumber(payload));
+                    break;
+                }
+                case LOAD: {
+                    File file = readPath(payload);
+                    result = NumberListImpl.fromDecimalBytes(Files.readAllBytes(file.toPath()));
+                    break;
+                }
+                case SAVE: {
+                    File file = readPath(payload);
+                    NumberListImpl list = readNumber(payload);
+                    String decimal = list.toDecimalString() + System.lineSeparator();
+                    Files.write(file.toPath(), decimal.getBytes(StandardCharsets.US_ASCII));
+                    result = NumberListImpl.ofBase(list.getBase());
+                    break;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + request.operation);
+            }
+            return ok(request.id, result);
+        } catch (BufferUnderflowException e) {
+            return error(request.id, "Truncated request");
+        } catch (IOException | RuntimeException e) {
+            return error(request.id, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    private static NumberListImpl readNumber(ByteBuffer payload) {
+        int base = payload.get();
+        int count = payload.getInt();
+        if (count < 0 || count > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        NumberListImpl list = NumberListImpl.fromDigits(base, payload.array(), payload.position(), count);
+        payload.position(payload.position() + count);
+        return list;
+    }
+
+    private static File readPath(ByteBuffer payload) {
+        int length = payload.getShort() & 0xFFFF;
+        if (length > payload.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String path = new String(payload.array(), payload.position(), length, StandardCharsets.UTF_8);
+        payload.position(payload.position() + length);
+        return new File(path);
+    }
+
+    private static ByteBuffer[] ok(int id, NumberListImpl result) {
+        byte[] digits = result.toDigitArray();
+        ByteBuffer header = ByteBuffer.allocate(RESULT_HEADER_BYTES);
+        header.putInt(RESULT_HEADER_BYTES - 4 + digits.length).putInt(id).put(STATUS_OK)
+                .put((byte) result.getBase()).putInt(digits.length).flip();
+        return new ByteBuffer[] {header, ByteBuffer.wrap(digits)};
+    }
+
+    private static ByteBuffer[] error(int id, String message) {
+        byte[] text = message.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(text.length, 0xFFFF);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + 2 + length);
+        frame.putInt(HEADER_BYTES - 4 + 2 + length).putInt(id).put(STATUS_ERROR)
+                .putShort((short) length).put(text, 0, length).flip();
+        return new ByteBuffer[] {frame};
+    }
+
+    /**
+     * Request decoded by the selector thread.
+     */
+    private static final class Request {
+        final int id;
+        final byte operation;
+        final byte[] payload;
+
+        Request(int id, byte operation, byte[] payload) {
+            this.id = id;
+            this.operation = operation;
+            this.payload = payload;
+        }
+    }
+
+    /**
+     * Returns the bytes the read buffers of the connections hold beyond
+     * their default size.
+     */
+    long readBufferBytes() {
+        return readBufferBytes;
+    }
+
+    /** Changes the read buffer bytes and resumes the starved connections when some are released. */
+    private void addReadBufferBytes(long delta) {
+        readBufferBytes += delta;
+        if (delta < 0) {
+            Connection connection;
+            while ((connection = waitingForBuffer.poll()) != null) {
+                connection.starved = false;
+                connection.updateInterest();
+            }
+        }
+    }
+
+    /**
+     * State of one client connection. Reading happens on the selector
+     * thread only; the output queue is shared with the workers and guarded
+     * by the connection.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private SelectionKey key;
+        private ByteBuffer in = ByteBuffer.allocate(READ_BUFFER);
+        private final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+        private long queuedBytes;
+        private int inFlight;
+        /** Whether reading waits for read buffer bytes; selector thread only. */
+        private boolean starved;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /** Reads the available bytes and dispatches the complete requests. */
+        void read() throws IOException {
+            if (!in.hasRemaining() && !grow()) {
+                starved = true;
+                waitingForBuffer.add(this);
+                updateInterest();
+                return;
+            }
+            if (channel.read(in) < 0) {
+                close();
+                return;
+            }
+            in.flip();
+            List<Request> requests = new ArrayList<>();
+            while (in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if (length < HEADER_BYTES - 4 || length > MAX_FRAME) {
+                    close();
+                    return;
+                }
+                if (in.remaining() < 4 + length) {
+                    break;
+                }
+                in.getInt();
+                int id = in.getInt();
+                byte operation = in.get();
+                byte[] payload = new byte[length - (HEADER_BYTES - 4)];
+                in.get(payload);
+                requests.add(new Request(id, operation, payload));
+            }
+            if (in.capacity() > READ_BUFFER && in.remaining() <= READ_BUFFER) {
+                // a large frame has been consumed; release its buffer
+                ByteBuffer small = ByteBuffer.allocate(READ_BUFFER);
+                small.put(in);
+                addReadBufferBytes(READ_BUFFER - in.capacity());
+                in = small;
+            } else {
+                in.compact();
+            }
+            if (!requests.isEmpty()) {
+                synchronized (this) {
+                    inFlight += requests.size();
+                }
+                dispatch(this, requests);
+                updateInterest();
+            }
+        }
+
+        /**
+         * Doubles the full read buffer, up to the length of the frame it
+         * starts, unless the read buffers would exceed their budget.
+         */
+        private boolean grow() {
+            int frame = 4 + in.getInt(0);
+            int capacity = (int) Math.min(frame, 2L * in.capacity());
+            if (readBufferBytes + capacity - in.capacity() > MAX_READ_BUFFER_BYTES) {
+                return false;
+            }
+            ByteBuffer bigger = ByteBuffer.allocate(capacity);
+            in.flip();
+            bigger.put(in);
+            addReadBufferBytes(capacity - in.capacity());
+            in = bigger;
+            return true;
+        }
+
+        /** Writes as much of the queued responses as the socket accepts. */
+        void write() throws IOException {
+            synchronized (this) {
+                while (!out.isEmpty()) {
+                    ByteBuffer[] buffers = out.stream().limit(MAX_GATHER).toArray(ByteBuffer[]::new);
+                    long written = channel.write(buffers);
+                    queuedBytes -= written;
+                    while (!out.isEmpty() && !out.peek().hasRemaining()) {
+                        out.poll();
+                    }
+                    if (written == 0) {
+                        break;
+                    }
+                }
+            }
+            updateInterest();
+        }
+
+        /** Queues responses; called by the workers. */
+        synchronized void enqueue(List<ByteBuffer[]> responses) {
+            for (ByteBuffer[] response : responses) {
+                for (ByteBuffer buffer : response) {
+                    out.add(buffer);
+                    queuedBytes += buffer.remaining();
+                }
+            }
+            inFlight -= responses.size();
+        }
+
+        /** Sets the interest of the key from the state of the queues; selector thread only. */
+        void updateInterest() {
+            if (key == null || !key.isValid()) {
+                return;
+            }
+            int ops;
+            synchronized (this) {
+                ops = out.isEmpty() ? 0 : SelectionKey.OP_WRITE;
+                if (!starved && inFlight < MAX_IN_FLIGHT && queuedBytes < MAX_QUEUED_BYTES) {
+                    ops |= SelectionKey.OP_READ;
+                }
+            }
+            key.interestOps(ops);
+        }
+
+        void close() {
+            if (key != null) {
+                key.cancel();
+            }
+            if (in.capacity() > READ_BUFFER) {
+                addReadBufferBytes(READ_BUFFER - in.capacity());
+                in = ByteBuffer.allocate(0);
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // already closed
+            }
+            synchronized (this) {
+                out.clear();
+                queuedBytes = 0;
+            }
+        }
+    }
+}
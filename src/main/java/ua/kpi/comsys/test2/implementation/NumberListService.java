@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import ua.kpi.comsys.test2.NumberList;
+
+/**
+ * Asynchronous facade over the operations of {@link NumberListImpl}.<p>
+ *
+ * File reads and writes run on virtual threads when the runtime provides
+ * them, and on a cached pool of daemon threads otherwise. Conversions run
+ * on two bounded pools: operations on at most {@link #SMALL_DIGITS} digits
+ * use a separate small lane, so a queue of heavy conversions never delays
+ * them.<p>
+ *
+ * Every operation is weighed by the number of digits it touches and is
+ * scheduled only once that many digits fit in the budget of in-flight
+ * digits. Submission never blocks: the returned future waits for the
+ * budget instead, and fails with {@link RejectedExecutionException} if the
+ * budget does not free up within the admission timeout. Heavy operations
+ * are admitted in submission order and never use the quarter of the budget
+ * reserved for small ones, so a heavy operation waiting for the budget
+ * does not hold back small operations behind it. A heavy operation larger
+ * than its part of the budget takes all of that part and runs alone.<p>
+ *
+ * The lists passed to the service must not be modified until the
+ * returned future completes.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+public final class NumberListService implements AutoCloseable {
+
+    /** Largest operation, in digits, that is scheduled on the small lane. */
+    public static final int SMALL_DIGITS = 10_000;
+
+    private static final int DEFAULT_MAX_IN_FLIGHT_DIGITS = 64_000_000;
+
+    private static final long DEFAULT_ADMISSION_TIMEOUT_SECONDS = 30;
+
+    private final ExecutorService io;
+    private final boolean virtualThreads;
+    private final ThreadPoolExecutor cpu;
+    private final ThreadPoolExecutor small;
+    private final DigitBudget budget;
+    private final int maxInFlightDigits;
+    private final long admissionTimeoutNanos;
+
+    /**
+     * Creates a service with one conversion thread per processor, a budget
+     * of 64 million in-flight digits and a 30 second admission timeout.
+     */
+    public NumberListService() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_IN_FLIGHT_DIGITS,
+                DEFAULT_ADMISSION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param cpuThreads        threads converting large numbers
+     * @param maxInFlightDigits budget of digits admitted at the same time
+     * @param admissionTimeout  how long an operation waits for the budget
+     * @param unit              unit of {@code admissionTimeout}
+     * @throws IllegalArgumentException if a thread count or the budget is
+     *                                  not positive, or the timeout is negative
+     */
+    public NumberListService(int cpuThreads, int maxInFlightDigits, long admissionTimeout, TimeUnit unit) {
+        if (cpuThreads < 1) {
+            throw new IllegalArgumentException("cpuThreads: " + cpuThreads);
+        }
+        if (maxInFlightDigits < 1) {
+            throw new IllegalArgumentException("maxInFlightDigits: " + maxInFlightDigits);
+        }
+        if (admissionTimeout < 0) {
+            throw new IllegalArgumentException("admissionTimeout: " + admissionTimeout);
+        }
+        this.maxInFlightDigits = maxInFlightDigits;
+        this.admissionTimeoutNanos = unit.toNanos(admissionTimeout);
+        this.budget = new DigitBudget(maxInFlightDigits, maxInFlightDigits / 4);
+        this.cpu = boundedPool(cpuThreads, "numberlist-cpu-");
+        this.small = boundedPool(Math.max(1, cpuThreads / 4), "numberlist-small-");
+        ExecutorService virtual = virtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.io = virtual != null ? virtual : Executors.newCachedThreadPool(daemonThreads("numberlist-io-"));
+    }
+
+    private static ThreadPoolExecutor boundedPool(int threads, String prefix) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads(prefix));
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Looks the executor up reflectively, as it is missing before Java 21. */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether file operations run on virtual threads.
+     *
+     * @return {@code true} if the runtime supports virtual threads
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Returns the budget of digits admitted at the same time.
+     *
+     * @return maximum number of in-flight digits
+     */
+    public int maxInFlightDigits() {
+        return maxInFlightDigits;
+    }
+
+    /**
+     * Returns the number of digits of the operations admitted and not yet
+     * completed.
+     *
+     * @return digits in flight
+     */
+    public int inFlightDigits() {
+        return budget.inFlight();
+    }
+
+    /**
+     * Parses a decimal number, like {@link NumberListImpl#NumberListImpl(String)}.
+     *
+     * @param decimal number in decimal notation
+     * @return future of the list in the default scale of notation
+     */
+    public CompletableFuture<NumberListImpl> parse(String decimal) {
+        return compute(decimal.length(), () -> new NumberListImpl(decimal));
+    }
+
+    /**
+     * Reads a decimal number from a file. Unlike
+     * {@link NumberListImpl#NumberListImpl(File)}, a file that cannot be
+     * read fails the future with an {@link UncheckedIOException}.
+     *
+     * @param file file where the number is stored
+     * @return future of the list in the default scale of notation
+     */
+    public CompletableFuture<NumberListImpl> load(File file) {
+        return admit(file.length(), lane -> CompletableFuture
+                .supplyAsync(() -> readAllBytes(file), io)
+                .thenApplyAsync(NumberListImpl::fromDecimalBytes, lane));
+    }
+
+    /**
+     * Writes the list in decimal notation to a file, in the format of
+     * {@link NumberListImpl#saveList(File)}. The conversion runs on a
+     * conversion pool and the write on an I/O thread.
+     *
+     * @param list list to save
+     * @param file destination file
+     * @return future completed with {@code file} once it is written
+     */
+    public CompletableFuture<File> save(NumberListImpl list, File file) {
+        return admit(list.size(), lane -> CompletableFuture
+                .supplyAsync(list::toDecimalString, lane)
+                .thenApplyAsync(decimal -> writeLine(file, decimal), io));
+    }
+
+    /**
+     * Converts the list to decimal, like {@link NumberListImpl#changeScale()}.
+     *
+     * @param list list to convert
+     * @return future of the converted list
+     */
+    public CompletableFuture<NumberListImpl> changeScale(NumberListImpl list) {
+        return compute(list.size(), list::changeScale);
+    }
+
+    /**
+     * Converts the list, like {@link NumberListImpl#changeScale(int)}.
+     *
+     * @param list       list to convert
+     * @param targetBase scale of notation of the result
+     * @return future of the converted list
+     */
+    public CompletableFuture<NumberListImpl> changeScale(NumberListImpl list, int targetBase) {
+        RadixTables.checkBase(targetBase);
+        return compute(list.size(), () -> list.changeScale(targetBase));
+    }
+
+    /**
+     * Computes the bitwise AND, like {@link NumberListImpl#additionalOperation(NumberList)}.
+     *
+     * @param list first operand
+     * @param arg  second operand
+     * @return future of the result in the scale of notation of {@code list}
+     */
+    public CompletableFuture<NumberListImpl> additionalOperation(NumberListImpl list, NumberList arg) {
+        return compute((long) list.size() + arg.size(),
+                () -> list.additionalOperation(arg));
+    }
+
+    /**
+     * Applies an operation to every list of a batch. Each list is admitted
+     * and scheduled on its own, so small lists of the batch are not held
+     * back by large ones.
+     *
+     * @param lists     lists to process
+     * @param operation operation applied to each list
+     * @return future of the results, in the order of {@code lists}
+     */
+    public CompletableFuture<List<NumberListImpl>> submitAll(Collection<? extends NumberListImpl> lists,
+                                                             UnaryOperator<NumberListImpl> operation) {
+        List<CompletableFuture<NumberListImpl>> futures = new ArrayList<>(lists.size());
+        for (NumberListImpl list : lists) {
+            futures.add(compute(list.size(), () -> operation.apply(list)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<NumberListImpl> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<NumberListImpl> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    private <T> CompletableFuture<T> compute(long digits, Supplier<T> task) {
+        return admit(digits, lane -> CompletableFuture.supplyAsync(task, lane));
+    }
+
+    /** Schedules an operation once its weight in digits fits in the budget. */
+    private <T> CompletableFuture<T> admit(long digits, Scheduler<T> scheduler) {
+        boolean small = digits <= SMALL_DIGITS;
+        int weight = (int) Math.max(1, Math.min(digits, small ? maxInFlightDigits : budget.heavyCapacity()));
+        return budget.acquire(weight, small, admissionTimeoutNanos).thenCompose(ignored -> {
+            CompletableFuture<T> future;
+            try {
+                future = scheduler.schedule(small ? this.small : cpu);
+            } catch (RuntimeException e) {
+                budget.release(weight);
+                throw e;
+            }
+            return future.whenComplete((result, failure) -> budget.release(weight));
+        });
+    }
+
+    @FunctionalInterface
+    private interface Scheduler<T> {
+        CompletableFuture<T> schedule(ExecutorService lane);
+    }
+
+    /**
+     * Budget of in-flight digits. Operations that do not fit wait in a
+     * queue per lane instead of blocking a thread; heavy operations may
+     * not use the reserve of the small lane.
+     */
+    private static final class DigitBudget {
+
+        /** Operation waiting for the budget. */
+        private static final class Waiter {
+            final int weight;
+            final boolean small;
+            final CompletableFuture<Void> admitted = new CompletableFuture<>();
+
+            Waiter(int weight, boolean small) {
+                this.weight = weight;
+                this.small = small;
+            }
+        }
+
+        private final int capacity;
+        private final int reserve;
+        private final ArrayDeque<Waiter> smallWaiters = new ArrayDeque<>();
+        private final ArrayDeque<Waiter> heavyWaiters = new ArrayDeque<>();
+        private int available;
+
+        DigitBudget(int capacity, int reserve) {
+            this.capacity = capacity;
+            this.reserve = reserve;
+            this.available = capacity;
+        }
+
+        /** Returns the largest weight of a heavy operation. */
+        int heavyCapacity() {
+            return capacity - reserve;
+        }
+
+        synchronized int inFlight() {
+            return capacity - available;
+        }
+
+        /**
+         * Takes {@code weight} digits of the budget, now or once they are
+         * released by other operations.
+         *
+         * @return future completed when the digits are taken, or failed with
+         *         {@link RejectedExecutionException} after {@code timeoutNanos}
+         */
+        CompletableFuture<Void> acquire(int weight, boolean small, long timeoutNanos) {
+            Waiter waiter = new Waiter(weight, small);
+            synchronized (this) {
+                ArrayDeque<Waiter> queue = small ? smallWaiters : heavyWaiters;
+                if (queue.isEmpty() && fits(waiter)) {
+                    available -= weight;
+                    return CompletableFuture.completedFuture(null);
+                }
+                queue.add(waiter);
+            }
+            CompletableFuture.delayedExecutor(timeoutNanos, TimeUnit.NANOSECONDS).execute(() -> expire(waiter));
+            return waiter.admitted;
+        }
+
+        void release(int weight) {
+            List<Waiter> admitted;
+            synchronized (this) {
+                available += weight;
+                admitted = admitWaiters();
+                notifyAll();
+            }
+            for (Waiter waiter : admitted) {
+                waiter.admitted.complete(null);
+            }
+        }
+
+        /** Waits until no operation holds or waits for the budget. */
+        synchronized void awaitIdle() {
+            boolean interrupted = false;
+            while (available < capacity || !smallWaiters.isEmpty() || !heavyWaiters.isEmpty()) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void expire(Waiter waiter) {
+            List<Waiter> admitted;
+            int inFlight;
+            synchronized (this) {
+                if (!(waiter.small ? smallWaiters : heavyWaiters).remove(waiter)) {
+                    return;
+                }
+                // the waiters behind it may fit now
+                admitted = admitWaiters();
+                inFlight = capacity - available;
+                notifyAll();
+            }
+            for (Waiter w : admitted) {
+                w.admitted.complete(null);
+            }
+            waiter.admitted.completeExceptionally(new RejectedExecutionException(
+                    waiter.weight + " digits not admitted, " + inFlight + " in flight"));
+        }
+
+        private boolean fits(Waiter waiter) {
+            return waiter.weight <= (waiter.small ? available : available - reserve);
+        }
+
+        /** Takes the budget for the waiters at the head of the queues that fit. */
+        private List<Waiter> admitWaiters() {
+            List<Waiter> admitted = new ArrayList<>();
+            for (ArrayDeque<Waiter> queue : List.of(smallWaiters, heavyWaiters)) {
+                while (!queue.isEmpty() && fits(queue.peek())) {
+                    Waiter waiter = queue.poll();
+                    available -= waiter.weight;
+                    admitted.add(waiter);
+                }
+            }
+            return admitted;
+        }
+    }
+
+    private static byte[] readAllBytes(File file) {
+        try {
+            return Files.readAllBytes(file.toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static File writeLine(File file, String decimal) {
+        try {
+            Files.write(file.toPath(), (decimal + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Waits for the submitted operations to be completed or rejected and
+     * stops the pools. Operations submitted afterwards fail with
+     * {@link RejectedExecutionException}.
+     */
+    @Override
+    public void close() {
+        // an idle budget means no operation is waiting or between its stages
+        budget.awaitIdle();
+        small.shutdown();
+        cpu.shutdown();
+        io.shutdown();
+    }
+}
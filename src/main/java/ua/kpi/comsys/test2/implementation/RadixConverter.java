@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Conversions of numbers between digit arrays in any scale of notation
+ * from 2 to 36 and {@link BigInteger}.<p>
+ *
+ * Power-of-two bases are converted by regrouping bits in linear time.
+ * Other bases pack {@link RadixTables#digitsPerLong} digits per {@code long}
+ * and combine or split the chunks divide-and-conquer style with the cached
+ * power tower of the base, so the cost follows the multiplication and
+ * division of {@link BigInteger} rather than growing quadratically.<p>
+ *
+ * Digit arrays hold one digit per element, most significant digit first.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+final class RadixConverter {
+
+    /** Number of chunks below which chunks are combined one by one. */
+    private static final int COMBINE_THRESHOLD = 16;
+
+    private RadixConverter() {
+    }
+
+    /**
+     * Returns the value of the digits.
+     *
+     * @param digits digits, most significant first
+     * @param off    index of the first digit
+     * @param len    number of digits
+     * @param base   scale of notation of the digits
+     * @return value of the digits
+     */
+    static BigInteger toBigInteger(byte[] digits, int off, int len, int base) {
+        if (len == 0) {
+            return BigInteger.ZERO;
+        }
+        RadixTables t = RadixTables.of(base);
+        if (t.bitsPerDigit != 0) {
+            return fromPowerOfTwo(digits, off, len, t.bitsPerDigit);
+        }
+        int k = t.digitsPerLong;
+        int chunks = (len + k - 1) / k;
+        long[] limbs = new long[chunks];
+        int pos = off;
+        int width = len - (chunks - 1) * k;
+        for (int c = 0; c < chunks; c++) {
+            long v = 0;
+            for (int i = 0; i < width; i++) {
+                v = v * base + digits[pos++];
+            }
+            limbs[c] = v;
+            width = k;
+        }
+        return fromLimbs(limbs, chunks, t);
+    }
+
+    /**
+     * Returns the value of a number given as chunks of
+     * {@link RadixTables#digitsPerLong} digits. Only the first chunk
+     * may hold fewer digits.
+     *
+     * @param limbs chunk values, most significant first
+     * @param count number of chunks
+     * @param t     tables of the base
+     * @return value of the number
+     */
+    static BigInteger fromLimbs(long[] limbs, int count, RadixTables t) {
+        if (count == 0) {
+            return BigInteger.ZERO;
+        }
+        return combine(limbs, 0, count, t);
+    }
+
+    private static BigInteger combine(long[] limbs, int lo, int hi, RadixTables t) {
+        int n = hi - lo;
+        if (n <= COMBINE_THRESHOLD) {
+            BigInteger res = BigInteger.valueOf(limbs[lo]);
+            BigInteger radix = t.power(0);
+            for (int i = lo + 1; i < hi; i++) {
+                res = res.multiply(radix).add(BigInteger.valueOf(limbs[i]));
+            }
+            return res;
+        }
+        // the low part always spans a power-of-two number of chunks,
+        // so its weight is a level of the power tower
+        int right = Integer.highestOneBit(n - 1);
+        int mid = hi - right;
+        BigInteger high = combine(limbs, lo, mid, t);
+        BigInteger low = combine(limbs, mid, hi, t);
+        return high.multiply(t.power(Integer.numberOfTrailingZeros(right))).add(low);
+    }
+
+    private static BigInteger fromPowerOfTwo(byte[] digits, int off, int len, int bits) {
+        byte[] magnitude = new byte[(int) (((long) len * bits + 7) / 8)];
+        int acc = 0;
+        int accBits = 0;
+        int pos = magnitude.length - 1;
+        for (int i = off + len - 1; i >= off; i--) {
+            acc |= digits[i] << accBits;
+            accBits += bits;
+            while (accBits >= 8) {
+                magnitude[pos--] = (byte) acc;
+                acc >>>= 8;
+                accBits -= 8;
+            }
+        }
+        if (accBits > 0) {
+            magnitude[pos] = (byte) acc;
+        }
+        return new BigInteger(1, magnitude);
+    }
+
+    /**
+     * Parses the characters {@code [from, to)} of the sequence as a number
+     * in the given base. Both upper and lower case letters are accepted.
+     *
+     * @param s    characters to parse
+     * @param from index of the first character
+     * @param to   index after the last character
+     * @param base scale of notation
+     * @return value of the number, or {@code null} if a character is not a digit of the base
+     */
+    static BigInteger parse(CharSequence s, int from, int to, int base) {
+        RadixTables t = RadixTables.of(base);
+        byte[] digits = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            char ch = s.charAt(i);
+            int d = ch < 128 ? t.charToDigit[ch] : -1;
+            if (d < 0) {
+                return null;
+            }
+            digits[i - from] = (byte) d;
+        }
+        return toBigInteger(digits, 0, digits.length, base);
+    }
+
+    /**
+     * Returns the digits of a non-negative value in the given base,
+     * most significant first and without leading zeros.
+     * Zero is represented by a single zero digit.
+     *
+     * @param value non-negative value
+     * @param base  scale of notation
+     * @return digits of the value
+     */
+    static byte[] toDigits(BigInteger value, int base) {
+        RadixTables t = RadixTables.of(base);
+        if (value.signum() == 0) {
+            return new byte[1];
+        }
+        if (t.bitsPerDigit != 0) {
+            return toPowerOfTwo(value, t.bitsPerDigit);
+        }
+        int estimate = (int) (value.bitLength() / (Math.log(base) / Math.log(2))) + 2;
+        DigitWriter w = new DigitWriter(estimate);
+        writeTop(value, t, w);
+        return w.pos == w.out.length ? w.out : Arrays.copyOf(w.out, w.pos);
+    }
+
+    /**
+     * Converts digits between two scales of notation.
+     *
+     * @param digits     digits, most significant first
+     * @param off        index of the first digit
+     * @param len        number of digits
+     * @param sourceBase scale of notation of the digits
+     * @param targetBase scale of notation of the result
+     * @return digits of the same value in the target base, without leading zeros
+     */
+    static byte[] convert(byte[] digits, int off, int len, int sourceBase, int targetBase) {
+        return toDigits(toBigInteger(digits, off, len, sourceBase), targetBase);
+    }
+
+    /**
+     * Returns the digits as characters, {@code 0-9} followed by {@code A-Z}.
+     *
+     * @param digits digits to format
+     * @return string notation of the digits
+     */
+    static String toString(byte[] digits) {
+        byte[] chars = new byte[digits.length];
+        for (int i = 0; i < digits.length; i++) {
+            chars[i] = RadixTables.DIGIT_BYTES[digits[i]];
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] toPowerOfTwo(BigInteger value, int bits) {
+        byte[] magnitude = value.toByteArray();
+        int count = (value.bitLength() + bits - 1) / bits;
+        byte[] out = new byte[count];
+        int mask = (1 << bits) - 1;
+        int acc = 0;
+        int accBits = 0;
+        int pos = magnitude.length - 1;
+        for (int i = count - 1; i >= 0; i--) {
+            while (accBits < bits && pos >= 0) {
+                acc |= (magnitude[pos--] & 0xFF) << accBits;
+                accBits += 8;
+            }
+            out[i] = (byte) (acc & mask);
+            acc >>>= bits;
+            accBits -= bits;
+        }
+        return out;
+    }
+
+    /** Sequential output of digits. */
+    private static final class DigitWriter {
+        final byte[] out;
+        int pos;
+
+        DigitWriter(int capacity) {
+            out = new byte[capacity];
+        }
+    }
+
+    private static void writeTop(BigInteger value, RadixTables t, DigitWriter w) {
+        if (value.compareTo(t.power(0)) < 0) {
+            writeLong(value.longValue(), t, w, 0);
+            return;
+        }
+        int level = 0;
+        // (x^2).bitLength() >= 2 * x.bitLength() - 1, so higher levels are
+        // only built when they may still not exceed the value
+        while (2 * t.power(level).bitLength() - 1 <= value.bitLength()
+                && t.power(level + 1).compareTo(value) <= 0) {
+            level++;
+        }
+        BigInteger[] qr = value.divideAndRemainder(t.power(level));
+        writeTop(qr[0], t, w);
+        writePadded(qr[1], level, t, w);
+    }
+
+    /** Writes exactly {@code digitsPerLong * 2^level} digits of a value below {@code power(level)}. */
+    private static void writePadded(BigInteger value, int level, RadixTables t, DigitWriter w) {
+        if (level == 0 || value.compareTo(t.power(0)) < 0) {
+            int zeros = (t.digitsPerLong << level) - t.digitsPerLong;
+            w.pos += zeros;
+            writeLong(value.longValue(), t, w, t.digitsPerLong);
+            return;
+        }
+        BigInteger[] qr = value.divideAndRemainder(t.power(level - 1));
+        writePadded(qr[0], level - 1, t, w);
+        writePadded(qr[1], level - 1, t, w);
+    }
+
+    /** Writes a value below {@code radixPower} using {@code width} digits, or as few as needed if it is 0. */
+    private static void writeLong(long value, RadixTables t, DigitWriter w, int width) {
+        int base = t.base;
+        if (width == 0) {
+            width = 1;
+            while (width < t.digitsPerLong && t.powers[width] <= value) {
+                width++;
+            }
+        }
+        for (int i = w.pos + width - 1; i >= w.pos; i--) {
+            w.out[i] = (byte) (value % base);
+            value /= base;
+        }
+        w.pos += width;
+    }
+}
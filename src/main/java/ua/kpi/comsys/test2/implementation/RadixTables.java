@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Precomputed tables of a single scale of notation, shared by all
+ * conversions in that base.<p>
+ *
+ * Tables are built lazily on first use and are safe to use from multiple
+ * threads. The power tower grows on demand and already computed levels are
+ * never recomputed.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+final class RadixTables {
+
+    /** Smallest supported scale of notation. */
+    static final int MIN_BASE = 2;
+
+    /** Largest supported scale of notation. */
+    static final int MAX_BASE = 36;
+
+    /** Character of every digit value, in upper case. */
+    static final char[] DIGIT_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    /** {@link #DIGIT_CHARS} as ASCII bytes. */
+    static final byte[] DIGIT_BYTES = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".getBytes(StandardCharsets.US_ASCII);
+
+    private static final AtomicReferenceArray<RadixTables> TABLES = new AtomicReferenceArray<>(MAX_BASE + 1);
+
+    final int base;
+
+    /** Number of digits {@code k} such that {@code base^k} is the largest power that fits in a {@code long}. */
+    final int digitsPerLong;
+
+    /** {@code base^digitsPerLong}. */
+    final long radixPower;
+
+    /** {@code base^i} for {@code i} in {@code [0, digitsPerLong]}. */
+    final long[] powers;
+
+    /** Digit value of every ASCII character, or {@code -1} if it is not a digit of this base. */
+    final byte[] charToDigit;
+
+    /** Number of bits per digit for power-of-two bases, otherwise {@code 0}. */
+    final int bitsPerDigit;
+
+    /** {@code log2(base)}, the information carried by one digit. */
+    final double log2Base;
+
+    /** {@code radixPower^(2^i)}; element {@code i} covers {@code digitsPerLong * 2^i} digits. */
+    private volatile BigInteger[] tower;
+
+    private RadixTables(int base) {
+        this.base = base;
+        int k = 0;
+        long power = 1;
+        while (power <= Long.MAX_VALUE / base) {
+            power *= base;
+            k++;
+        }
+        this.digitsPerLong = k;
+        this.radixPower = power;
+        this.powers = new long[k + 1];
+        powers[0] = 1;
+        for (int i = 1; i <= k; i++) {
+            powers[i] = powers[i - 1] * base;
+        }
+        this.charToDigit = new byte[128];
+        Arrays.fill(charToDigit, (byte) -1);
+        for (int d = 0; d < base; d++) {
+            charToDigit[DIGIT_CHARS[d]] = (byte) d;
+            charToDigit[Character.toLowerCase(DIGIT_CHARS[d])] = (byte) d;
+        }
+        this.bitsPerDigit = Integer.bitCount(base) == 1 ? Integer.numberOfTrailingZeros(base) : 0;
+        this.log2Base = Math.log(base) / Math.log(2);
+        this.tower = new BigInteger[] {BigInteger.valueOf(radixPower)};
+    }
+
+    /**
+     * Returns the tables of the given base, building them on first use.
+     *
+     * @param base the scale of notation
+     * @return tables of the base
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    static RadixTables of(int base) {
+        checkBase(base);
+        RadixTables tables = TABLES.get(base);
+        if (tables == null) {
+            TABLES.compareAndSet(base, null, new RadixTables(base));
+            tables = TABLES.get(base);
+        }
+        return tables;
+    }
+
+    /**
+     * Validates that the base is supported.
+     *
+     * @param base the scale of notation
+     * @throws IllegalArgumentException if the base is outside {@code [2, 36]}
+     */
+    static void checkBase(int base) {
+        if (base < MIN_BASE || base > MAX_BASE) {
+            throw new IllegalArgumentException("Base " + base + " is out of range ["
+                    + MIN_BASE + ", " + MAX_BASE + "]");
+        }
+    }
+
+    /**
+     * Returns level {@code i} of the power tower, {@code base^(digitsPerLong * 2^i)}.
+     *
+     * @param level level of the tower
+     * @return the power
+     */
+    BigInteger power(int level) {
+        BigInteger[] t = tower;
+        if (level < t.length) {
+            return t[level];
+        }
+        return extendTower(level)[level];
+    }
+
+    private synchronized BigInteger[] extendTower(int level) {
+        BigInteger[] t = tower;
+        if (level < t.length) {
+            return t;
+        }
+        BigInteger[] extended = Arrays.copyOf(t, level + 1);
+        for (int i = t.length; i <= level; i++) {
+            extended[i] = extended[i - 1].multiply(extended[i - 1]);
+        }
+        tower = extended;
+        return extended;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event emitted by {@code sortAscending}, {@code sortDescending} and
+ * {@code sort(Comparator)}.<p>
+ *
+ * Disabled by default; enable {@value #NAME} in the recording settings.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+@Name(SortEvent.NAME)
+@Label("NumberList Sort")
+@Category("NumberList")
+@Enabled(false)
+class SortEvent extends Event {
+
+    static final String NAME = "ua.kpi.comsys.test2.Sort";
+
+    /** Order of digits sorted from the smallest one. */
+    static final String ASCENDING = "ascending";
+    /** Order of digits sorted from the largest one. */
+    static final String DESCENDING = "descending";
+    /** Order of a comparator that is neither ascending nor descending. */
+    static final String CUSTOM = "custom";
+
+    /** Whether the digits end up in ascending order, the same as {@code order == ASCENDING}. */
+    @Label("Ascending")
+    boolean ascending;
+
+    /** {@link #ASCENDING}, {@link #DESCENDING} or {@link #CUSTOM}. */
+    @Label("Order")
+    String order;
+
+    @Label("Base")
+    int base;
+
+    @Label("Digits")
+    int digits;
+
+    /** Class of the comparator; {@code null} for the natural orders. */
+    @Label("Comparator")
+    String comparator;
+}
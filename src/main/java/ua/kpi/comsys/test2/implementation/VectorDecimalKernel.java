@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DecimalKernel} on top of the incubating Vector API.<p>
+ *
+ * Validation checks a full preferred-width vector of characters per step.
+ * Packing loads 16 digits into one 128-bit vector. It then folds neighbouring
+ * lanes while widening from bytes to shorts, ints and longs, which leaves
+ * two 8-digit values.<p>
+ *
+ * This class is only loaded by {@link DecimalKernel#load()} when the
+ * {@code jdk.incubator.vector} module is present.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+final class VectorDecimalKernel extends DecimalKernel {
+
+    private static final VectorSpecies<Byte> WIDE = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> PACK = ByteVector.SPECIES_128;
+
+    @Override
+    String name() {
+        return "vector";
+    }
+
+    @Override
+    boolean allDigits(byte[] a, int from, int to) {
+        int i = from;
+        int upper = from + WIDE.loopBound(to - from);
+        for (; i < upper; i += WIDE.length()) {
+            ByteVector v = ByteVector.fromArray(WIDE, a, i).sub((byte) '0');
+            if (v.compare(VectorOperators.UNSIGNED_GE, (byte) 10).anyTrue()) {
+                return false;
+            }
+        }
+        return super.allDigits(a, i, to);
+    }
+
+    @Override
+    long pack16(byte[] a, int off) {
+        ByteVector digits = ByteVector.fromArray(PACK, a, off).sub((byte) '0');
+        // lanes are reinterpreted little-endian, so the earlier digit of
+        // every pair is the low half of the wider lane
+        ShortVector s = digits.reinterpretAsShorts();
+        ShortVector pairs = s.and((short) 0xFF).mul((short) 10).add(s.lanewise(VectorOperators.LSHR, 8));
+        IntVector i = pairs.reinterpretAsInts();
+        IntVector quads = i.and(0xFFFF).mul(100).add(i.lanewise(VectorOperators.LSHR, 16));
+        LongVector l = quads.reinterpretAsLongs();
+        LongVector octets = l.and(0xFFFFFFFFL).mul(10000L).add(l.lanewise(VectorOperators.LSHR, 32));
+        return octets.lane(0) * 100_000_000L + octets.lane(1);
+    }
+}
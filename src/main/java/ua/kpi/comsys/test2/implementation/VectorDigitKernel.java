@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2014, NTUU KPI, Computer systems department and/or its affiliates. All rights reserved.
+ * NTUU KPI PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ */
+
+package ua.kpi.comsys.test2.implementation;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DigitKernel} on top of the incubating Vector API.<p>
+ *
+ * Every operation handles a full preferred-width vector of digits per step
+ * and leaves the tail to the scalar code. The histogram compares a vector
+ * with every digit of small bases and counts the matching lanes; larger
+ * bases are counted by the scalar loop, which is cheaper there.<p>
+ *
+ * This class is only loaded by {@link DigitKernel#load()} when the
+ * {@code jdk.incubator.vector} module is present.
+ *
+ * @author Melnychenko Artem, IM-34, №12
+ */
+final class VectorDigitKernel extends DigitKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    /** Largest number of digit values counted with vector compares. */
+    private static final int HISTOGRAM_DIGITS = 16;
+
+    @Override
+    String name() {
+        return "vector";
+    }
+
+    @Override
+    void and(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, a, aOff + i)
+                    .and(ByteVector.fromArray(SPECIES, b, bOff + i))
+                    .intoArray(dst, dstOff + i);
+        }
+        super.and(a, aOff + i, b, bOff + i, dst, dstOff + i, len - i);
+    }
+
+    @Override
+    void or(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, a, aOff + i)
+                    .or(ByteVector.fromArray(SPECIES, b, bOff + i))
+                    .intoArray(dst, dstOff + i);
+        }
+        super.or(a, aOff + i, b, bOff + i, dst, dstOff + i, len - i);
+    }
+
+    @Override
+    void xor(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, a, aOff + i)
+                    .lanewise(VectorOperators.XOR, ByteVector.fromArray(SPECIES, b, bOff + i))
+                    .intoArray(dst, dstOff + i);
+        }
+        super.xor(a, aOff + i, b, bOff + i, dst, dstOff + i, len - i);
+    }
+
+    @Override
+    void andNot(byte[] a, int aOff, byte[] b, int bOff, byte[] dst, int dstOff, int len) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            ByteVector.fromArray(SPECIES, a, aOff + i)
+                    .lanewise(VectorOperators.AND_NOT, ByteVector.fromArray(SPECIES, b, bOff + i))
+                    .intoArray(dst, dstOff + i);
+        }
+        super.andNot(a, aOff + i, b, bOff + i, dst, dstOff + i, len - i);
+    }
+
+    @Override
+    int leadingZeros(byte[] a, int off, int len) {
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            VectorMask<Byte> nonZero = ByteVector.fromArray(SPECIES, a, off + i)
+                    .compare(VectorOperators.NE, (byte) 0);
+            if (nonZero.anyTrue()) {
+                return i + nonZero.firstTrue();
+            }
+        }
+        return i + super.leadingZeros(a, off + i, len - i);
+    }
+
+    @Override
+    void histogram(byte[] a, int off, int len, int[] counts) {
+        if (counts.length > HISTOGRAM_DIGITS) {
+            super.histogram(a, off, len, counts);
+            return;
+        }
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, a, off + i);
+            for (int d = 0; d < counts.length; d++) {
+                counts[d] += v.compare(VectorOperators.EQ, (byte) d).trueCount();
+            }
+        }
+        super.histogram(a, off + i, len - i, counts);
+    }
+}
@@ -0,0 +1,138 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.NumberList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BitwiseTest {
+
+    private static final int[] BASES = {2, 3, 8, 10, 16, 32, 36};
+
+    private static final int[] BIT_LENGTHS = {0, 1, 5, 40, 62, 63, 64, 65, 300, 5000};
+
+    private static NumberListImpl list(BigInteger value, int base, int leadingZeros) {
+        return NumberListImpl.valueOf("0".repeat(leadingZeros) + value.toString(base), base);
+    }
+
+    private static String text(BigInteger value, int base) {
+        return value.signum() == 0 ? "" : value.toString(base).toUpperCase();
+    }
+
+    private static BigInteger value(NumberListImpl list) {
+        return list.isEmpty() ? BigInteger.ZERO : new BigInteger(list.toString(), list.getBase());
+    }
+
+    @Test
+    public void testBinaryOperations() {
+        Random random = new Random(47);
+        for (int base : BASES) {
+            for (int bitsA : BIT_LENGTHS) {
+                for (int bitsB : BIT_LENGTHS) {
+                    BigInteger a = new BigInteger(bitsA, random);
+                    BigInteger b = new BigInteger(bitsB, random);
+                    NumberListImpl la = list(a, base, random.nextInt(3));
+                    int argBase = random.nextBoolean() ? base : BASES[random.nextInt(BASES.length)];
+                    NumberListImpl lb = list(b, argBase, random.nextInt(3));
+                    String message = "base " + base + "/" + argBase + ", " + a + ", " + b;
+                    assertEquals(message, text(a.or(b), base), la.or(lb).toString());
+                    assertEquals(message, text(a.xor(b), base), la.xor(lb).toString());
+                    assertEquals(message, text(a.andNot(b), base), la.andNot(lb).toString());
+                    assertEquals(base, la.or(lb).getBase());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyAndOtherOperands() {
+        NumberListImpl octal = NumberListImpl.valueOf("1234567012345670123456701234567", 8);
+        NumberListImpl empty = NumberListImpl.ofBase(8);
+        assertEquals(octal, octal.or(null));
+        assertEquals(octal, octal.xor(empty));
+        assertEquals(octal, empty.or(octal));
+        assertTrue(empty.andNot(octal).isEmpty());
+        assertTrue(octal.xor(octal).isEmpty());
+        assertTrue(empty.or(null).isEmpty());
+        // other implementations are read in the base of this list
+        NumberListArena arena = new NumberListArena();
+        NumberList other = arena.get(arena.add(8, new byte[] {1, 0}, 0, 2));
+        assertEquals("1234567012345670123456701234577", octal.or(other).toString());
+    }
+
+    @Test
+    public void testNot() {
+        Random random = new Random(48);
+        for (int base : BASES) {
+            for (int bitsA : BIT_LENGTHS) {
+                BigInteger a = new BigInteger(bitsA, random);
+                NumberListImpl la = list(a, base, random.nextInt(3));
+                for (int bits : new int[] {0, 1, 3, 4, 62, 63, 64, bitsA, bitsA + 7, 2 * bitsA + 1}) {
+                    BigInteger mask = BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+                    assertEquals("base " + base + ", " + a + ", " + bits,
+                            text(mask.andNot(a), base), la.not(bits).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testShifts() {
+        Random random = new Random(49);
+        for (int base : BASES) {
+            for (int bitsA : BIT_LENGTHS) {
+                BigInteger a = new BigInteger(bitsA, random);
+                NumberListImpl la = list(a, base, random.nextInt(3));
+                for (int n : new int[] {0, 1, 2, 3, 4, 5, 6, 15, 63, 64, 65, 200, 6000}) {
+                    String message = "base " + base + ", " + a + ", " + n;
+                    assertEquals(message, text(a.shiftLeft(n), base), la.shiftLeftBits(n).toString());
+                    assertEquals(message, text(a.shiftRight(n), base), la.shiftRightBits(n).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOctalShiftByWholeDigits() {
+        NumberListImpl octal = NumberListImpl.valueOf("7012345", 8);
+        assertEquals("7012345000", octal.shiftLeftBits(9).toString());
+        assertEquals("7012", octal.shiftRightBits(9).toString());
+        assertEquals(octal, octal.shiftLeftBits(300).shiftRightBits(300));
+    }
+
+    @Test
+    public void testBitLengthAndBitCount() {
+        Random random = new Random(50);
+        for (int base : BASES) {
+            for (int bitsA : BIT_LENGTHS) {
+                BigInteger a = new BigInteger(bitsA, random);
+                NumberListImpl la = list(a, base, random.nextInt(3));
+                assertEquals("base " + base + ", " + a, a.bitLength(), la.bitLength());
+                assertEquals("base " + base + ", " + a, a.bitCount(), la.bitCount());
+            }
+        }
+        assertEquals(0, NumberListImpl.ofBase(8).bitLength());
+        assertEquals(0, NumberListImpl.valueOf("0".repeat(100), 16).bitLength());
+        assertEquals(BigInteger.ZERO, value(NumberListImpl.ofBase(8).shiftLeftBits(10)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeShift() {
+        NumberListImpl.valueOf("17", 8).shiftLeftBits(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeNot() {
+        NumberListImpl.valueOf("17", 8).not(-1);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void testNotOfTooManyBits() {
+        NumberListImpl.valueOf("1011", 2).not(Integer.MAX_VALUE);
+    }
+}
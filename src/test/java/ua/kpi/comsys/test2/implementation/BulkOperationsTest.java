@@ -0,0 +1,152 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkOperationsTest {
+
+    /** Lengths that keep a list inline and lengths that need nodes. */
+    private static final int[] LENGTHS = {0, 1, 2, 10, 21, 100, 5000};
+
+    private static List<Comparator<Byte>> comparators() {
+        List<Comparator<Byte>> comparators = new ArrayList<>();
+        comparators.add(null);
+        comparators.add(Comparator.naturalOrder());
+        comparators.add(Comparator.reverseOrder());
+        comparators.add((a, b) -> Integer.compare(a % 3, b % 3));
+        comparators.add((a, b) -> Integer.compare(Math.abs(a - 4), Math.abs(b - 4)));
+        comparators.add(Comparator.comparing(a -> (a * 5) % 8));
+        return comparators;
+    }
+
+    @Test
+    public void testRemoveIf() {
+        for (int length : LENGTHS) {
+            byte[] digits = LargeNumberGenerator.digits(8, length, length);
+            for (int remove = 0; remove < 8; remove++) {
+                int threshold = remove;
+                NumberListImpl list = LargeNumberGenerator.list(8, digits);
+                List<Byte> expected = new ArrayList<>(list);
+                assertEquals(expected.removeIf(d -> d < threshold), list.removeIf(d -> d < threshold));
+                assertEquals(expected, list);
+                assertEquals(expected.size(), list.size());
+                list.add((byte) 7);
+                assertEquals(LargeNumberGenerator.list(8, list.toDigitArray()), list);
+            }
+        }
+    }
+
+    @Test
+    public void testRemoveIfCallsPredicateOncePerDigit() {
+        NumberListImpl list = NumberListImpl.valueOf("1234567012345670", 8);
+        int[] calls = {0};
+        assertTrue(list.removeIf(d -> calls[0]++ % 2 == 0));
+        assertEquals(16, calls[0]);
+        assertEquals("24602460", list.toString());
+        assertEquals(2, list.digitCount(0));
+    }
+
+    @Test
+    public void testReplaceAll() {
+        for (int length : LENGTHS) {
+            NumberListImpl list = LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, length, length));
+            List<Byte> expected = new ArrayList<>(list);
+            expected.replaceAll(d -> (byte) (7 - d));
+            list.replaceAll(d -> (byte) (7 - d));
+            assertEquals(expected, list);
+            int sevens = 0;
+            for (byte d : expected) {
+                sevens += d == 7 ? 1 : 0;
+            }
+            assertEquals(sevens, list.digitCount(7));
+        }
+    }
+
+    @Test
+    public void testReplaceAllValidatesDigits() {
+        NumberListImpl list = NumberListImpl.valueOf("1234567012345670123", 8);
+        try {
+            list.replaceAll(d -> (byte) (d + 1));
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            list.replaceAll(d -> null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+    }
+
+    @Test
+    public void testSort() {
+        for (int length : LENGTHS) {
+            byte[] digits = LargeNumberGenerator.digits(8, length, length + 1);
+            for (Comparator<Byte> c : comparators()) {
+                NumberListImpl list = LargeNumberGenerator.list(8, digits);
+                List<Byte> expected = new ArrayList<>(list);
+                expected.sort(c);
+                list.sort(c);
+                assertEquals("length " + length, expected, list);
+                assertEquals(expected, new ArrayList<>(list));
+            }
+        }
+    }
+
+    @Test
+    public void testForEach() {
+        for (int length : LENGTHS) {
+            NumberListImpl list = LargeNumberGenerator.list(16, LargeNumberGenerator.digits(16, length, length));
+            List<Byte> seen = new ArrayList<>();
+            list.forEach(seen::add);
+            assertEquals(new ArrayList<>(list), seen);
+        }
+    }
+
+    @Test
+    public void testStructuralChangesAreDetected() {
+        for (String value : new String[] {"1234", "1234567012345670123456701234567"}) {
+            NumberListImpl list = NumberListImpl.valueOf(value, 8);
+            try {
+                list.forEach(d -> list.add((byte) 1));
+                fail();
+            } catch (ConcurrentModificationException expected) {
+            }
+            try {
+                list.removeIf(d -> list.add((byte) 1));
+                fail();
+            } catch (ConcurrentModificationException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testMirrorSeesInPlaceRewrites() {
+        Random random = new Random(48);
+        NumberListImpl list = new NumberListImpl();
+        list.enableMirror(10);
+        for (int i = 0; i < 2000; i++) {
+            list.add((byte) random.nextInt(8));
+        }
+        String before = list.changeScale().toString();
+        list.replaceAll(d -> (byte) (7 - d));
+        NumberListImpl copy = LargeNumberGenerator.list(8, list.toDigitArray());
+        assertEquals(copy.changeScale(), list.changeScale());
+        assertFalse(before.equals(list.changeScale().toString()));
+        list.sort((a, b) -> Integer.compare(a % 3, b % 3));
+        copy = LargeNumberGenerator.list(8, list.toDigitArray());
+        assertEquals(copy.changeScale(), list.changeScale());
+        list.removeIf(d -> d == 3);
+        copy = LargeNumberGenerator.list(8, list.toDigitArray());
+        assertEquals(copy.changeScale(), list.changeScale());
+    }
+}
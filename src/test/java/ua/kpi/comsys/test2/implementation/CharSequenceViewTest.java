@@ -0,0 +1,97 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CharSequenceViewTest {
+
+    @Test
+    public void testCharsMatchToString() {
+        NumberListImpl list = NumberListImpl.valueOf("1a2B3c4Z", 36);
+        CharSequence view = list.asCharSequence();
+        assertEquals(8, view.length());
+        assertEquals("1A2B3C4Z", view.toString());
+        for (int i = 0; i < view.length(); i++) {
+            assertEquals(list.toString().charAt(i), view.charAt(i));
+        }
+        assertEquals("", new NumberListImpl().asCharSequence().toString());
+    }
+
+    @Test
+    public void testViewIsLive() {
+        NumberListImpl list = new NumberListImpl("1234567");
+        CharSequence view = list.asCharSequence();
+        assertEquals(list.toString(), view.toString());
+        assertEquals(list.toString().charAt(3), view.charAt(3));
+
+        list.add((byte) 7);
+        list.shiftRight();
+        assertEquals(list.size(), view.length());
+        assertEquals(list.toString(), view.toString());
+        assertEquals('7', view.charAt(0));
+        assertEquals(list.toString().charAt(3), view.charAt(3));
+
+        list.remove(0);
+        list.set(1, (byte) 0);
+        for (int i = 0; i < view.length(); i++) {
+            assertEquals(list.toString().charAt(i), view.charAt(i));
+        }
+        list.clear();
+        assertEquals(0, view.length());
+    }
+
+    @Test
+    public void testSubSequence() {
+        NumberListImpl list = NumberListImpl.valueOf("0123456789ABCDEF", 16);
+        CharSequence sub = list.asCharSequence().subSequence(4, 12);
+        assertEquals("456789AB", sub.toString());
+        assertEquals("789", sub.subSequence(3, 6).toString());
+        assertEquals('B', sub.charAt(7));
+        assertEquals("", sub.subSequence(2, 2).toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharAtOutOfRange() {
+        new NumberListImpl("123").asCharSequence().charAt(3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSubSequenceOutOfRange() {
+        new NumberListImpl("123").asCharSequence().subSequence(1, 5);
+    }
+
+    @Test
+    public void testConsumers() {
+        NumberListImpl list = NumberListImpl.valueOf("1000777000", 8);
+        assertTrue(Pattern.compile("0+7{3}").matcher(list.asCharSequence()).find());
+        StringBuilder sb = new StringBuilder("x=");
+        sb.append(list.asCharSequence(), 2, 7);
+        assertEquals("x=00777", sb.toString());
+        assertEquals(3, list.asCharSequence().chars().filter(ch -> ch == '7').count());
+    }
+
+    @Test(timeout = 10_000)
+    public void testScanIsLinear() {
+        byte[] digits = LargeNumberGenerator.digits(10, 1_000_000, 37);
+        NumberListImpl list = LargeNumberGenerator.list(10, digits);
+        CharSequence view = list.asCharSequence();
+        long forward = 0;
+        for (int i = 0; i < view.length(); i++) {
+            forward += view.charAt(i) - '0';
+        }
+        long backward = 0;
+        for (int i = view.length() - 1; i >= 0; i--) {
+            backward += view.charAt(i) - '0';
+        }
+        long expected = 0;
+        for (byte d : digits) {
+            expected += d;
+        }
+        assertEquals(expected, forward);
+        assertEquals(expected, backward);
+    }
+}
@@ -0,0 +1,132 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CollectionOperationsTest {
+    NumberListImpl list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    static NumberListImpl digits(int... values) {
+        NumberListImpl res = new NumberListImpl();
+        for (int v : values) {
+            res.add((byte) v);
+        }
+        return res;
+    }
+
+    static List<Byte> bytes(int... values) {
+        Byte[] res = new Byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            res[i] = (byte) values[i];
+        }
+        return Arrays.asList(res);
+    }
+
+    @Test
+    public void testRemoveAll() {
+        list = digits(1, 2, 3, 1, 7, 2, 0);
+        assertTrue(list.removeAll(bytes(2, 1)));
+        assertEquals("370", list.toString());
+        assertFalse(list.removeAll(bytes(5, 6)));
+        assertFalse(list.removeAll(Arrays.asList(3, 7, 0)));
+        assertEquals("370", list.toString());
+        assertTrue(list.removeAll(new HashSet<>(bytes(0, 3, 7))));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testRetainAll() {
+        list = digits(1, 2, 3, 1, 7, 2, 0);
+        assertTrue(list.retainAll(bytes(1, 7, 9)));
+        assertEquals("117", list.toString());
+        assertFalse(list.retainAll(bytes(1, 7)));
+        assertTrue(list.retainAll(Collections.singletonList("1")));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testContainsAll() {
+        list = digits(4, 0, 4, 6);
+        assertTrue(list.containsAll(bytes(6, 0, 4, 4)));
+        assertTrue(list.containsAll(Collections.emptyList()));
+        assertFalse(list.containsAll(bytes(4, 5)));
+        assertFalse(list.containsAll(bytes(9)));
+        assertFalse(list.containsAll(Arrays.asList(4, 0)));
+        assertFalse(list.containsAll(Arrays.asList((byte) 4, null)));
+    }
+
+    @Test
+    public void testHistogramFollowsMutations() {
+        list = digits(3, 3, 5, 0);
+        assertArrayEquals(new int[] {1, 0, 0, 2, 0, 1, 0, 0}, list.histogram());
+
+        list.set(1, (byte) 7);
+        list.add(0, (byte) 5);
+        list.addAll(2, bytes(1, 1));
+        list.remove(Byte.valueOf((byte) 0));
+        list.remove(0);
+        assertEquals("31175", list.toString());
+        assertEquals(2, list.digitCount(1));
+        assertEquals(1, list.digitCount(3));
+        assertEquals(1, list.digitCount(5));
+        assertEquals(1, list.digitCount(7));
+        assertEquals(0, list.digitCount(0));
+        assertEquals(0, list.digitCount(9));
+        assertEquals(0, list.digitCount(-1));
+
+        list.clear();
+        assertArrayEquals(new int[8], list.histogram());
+    }
+
+    @Test
+    public void testSearchUsesHistogram() {
+        list = digits(2, 6, 2, 4);
+        assertTrue(list.contains((byte) 6));
+        assertFalse(list.contains((byte) 5));
+        assertEquals(-1, list.indexOf((byte) 5));
+        assertEquals(-1, list.lastIndexOf((byte) 5));
+        assertFalse(list.remove(Byte.valueOf((byte) 5)));
+        assertEquals(2, list.lastIndexOf((byte) 2));
+        assertEquals(0, list.indexOf((byte) 2));
+    }
+
+    @Test
+    public void testCountingSort() {
+        list = digits(5, 0, 7, 3, 0, 5, 1);
+        list.sortAscending();
+        assertEquals("0013557", list.toString());
+        list.sortDescending();
+        assertEquals("7553100", list.toString());
+        assertEquals(2, list.digitCount(5));
+    }
+
+    @Test
+    public void testConvertedListHistogram() {
+        list = new NumberListImpl("1212144468782345613");
+        int[] expected = new int[8];
+        for (char ch : list.toString().toCharArray()) {
+            expected[ch - '0']++;
+        }
+        assertArrayEquals(expected, list.histogram());
+        assertArrayEquals(new int[] {0, 4, 3, 2, 4, 1, 2, 1, 2, 0},
+                list.changeScale().histogram());
+    }
+}
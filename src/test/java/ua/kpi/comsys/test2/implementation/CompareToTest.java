@@ -0,0 +1,97 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompareToTest {
+
+    private static NumberListImpl of(BigInteger value, int base) {
+        return NumberListImpl.valueOf(value.toString(base), base);
+    }
+
+    @Test
+    public void testSameBase() {
+        assertTrue(new NumberListImpl("123").compareTo(new NumberListImpl("124")) < 0);
+        assertTrue(new NumberListImpl("1000").compareTo(new NumberListImpl("999")) > 0);
+        assertEquals(0, new NumberListImpl("987654321").compareTo(new NumberListImpl("987654321")));
+        assertEquals(0, NumberListImpl.valueOf("0077", 8).compareTo(NumberListImpl.valueOf("77", 8)));
+        assertTrue(NumberListImpl.valueOf("0076", 8).compareTo(NumberListImpl.valueOf("77", 8)) < 0);
+    }
+
+    @Test
+    public void testZero() {
+        NumberListImpl empty = new NumberListImpl();
+        assertEquals(0, empty.compareTo(NumberListImpl.valueOf("000", 8)));
+        assertEquals(0, empty.compareTo(NumberListImpl.valueOf("0", 16)));
+        assertTrue(empty.compareTo(new NumberListImpl("1")) < 0);
+        assertTrue(NumberListImpl.valueOf("1", 3).compareTo(empty) > 0);
+    }
+
+    @Test
+    public void testMixedBasesAgainstBigInteger() {
+        Random random = new Random(38);
+        for (int i = 0; i < 2000; i++) {
+            BigInteger a = new BigInteger(1 + random.nextInt(200), random);
+            BigInteger b = random.nextInt(4) == 0 ? a : new BigInteger(1 + random.nextInt(200), random);
+            int baseA = 2 + random.nextInt(35);
+            int baseB = 2 + random.nextInt(35);
+            NumberListImpl la = of(a, baseA);
+            NumberListImpl lb = of(b, baseB);
+            String message = a + " in base " + baseA + " vs " + b + " in base " + baseB;
+            assertEquals(message, Integer.signum(a.compareTo(b)), Integer.signum(la.compareTo(lb)));
+            assertEquals(message, a.equals(b), la.numericallyEquals(lb));
+        }
+    }
+
+    @Test
+    public void testExactPowersAcrossBases() {
+        for (int k = 1; k < 60; k++) {
+            BigInteger power = BigInteger.ONE.shiftLeft(3 * k);
+            NumberListImpl binary = of(power, 2);
+            NumberListImpl octal = of(power, 8);
+            assertTrue(binary.numericallyEquals(octal));
+            assertTrue(of(power.subtract(BigInteger.ONE), 2).compareTo(octal) < 0);
+            assertTrue(of(power.add(BigInteger.ONE), 16).compareTo(binary) > 0);
+        }
+    }
+
+    @Test
+    public void testSortBatch() {
+        Random random = new Random(83);
+        List<BigInteger> values = new ArrayList<>();
+        List<NumberListImpl> lists = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            BigInteger v = new BigInteger(1 + random.nextInt(3000), random);
+            values.add(v);
+            lists.add(of(v, new int[] {2, 8, 10, 16, 36}[i % 5]));
+        }
+        Collections.sort(values);
+        Collections.sort(lists);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(values.get(i).toString(), lists.get(i).toDecimalString());
+        }
+    }
+
+    @Test
+    public void testNumericallyEqualsIsNotEquals() {
+        NumberListImpl decimal = new NumberListImpl("255").changeScale(10);
+        NumberListImpl hex = NumberListImpl.valueOf("FF", 16);
+        assertTrue(decimal.numericallyEquals(hex));
+        assertFalse(decimal.equals(hex));
+        assertFalse(hex.numericallyEquals(null));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testCompareToNull() {
+        new NumberListImpl("1").compareTo(null);
+    }
+}
@@ -0,0 +1,113 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DecimalParserTest {
+
+    private static List<DecimalKernel> kernels() {
+        List<DecimalKernel> kernels = new ArrayList<>();
+        kernels.add(new DecimalKernel());
+        DecimalKernel best = DecimalKernel.load();
+        if (!best.name().equals("scalar")) {
+            kernels.add(best);
+        }
+        return kernels;
+    }
+
+    private static String randomDigits(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('0' + random.nextInt(10));
+        }
+        return new String(chars);
+    }
+
+    @Test
+    public void testKernelIsLoaded() {
+        boolean vectorPresent = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(vectorPresent ? "vector" : "scalar", DecimalKernel.INSTANCE.name());
+    }
+
+    @Test
+    public void testAgainstBigInteger() {
+        Random random = new Random(35);
+        int[] lengths = {1, 7, 8, 15, 16, 17, 18, 19, 35, 36, 37, 100, 1000,
+                18 * 512, 18 * 512 + 1, 18 * 512 + 17, 18 * 1024 + 5, 100_000};
+        for (DecimalKernel kernel : kernels()) {
+            for (int length : lengths) {
+                String s = randomDigits(random, length);
+                BigInteger expected = new BigInteger(s);
+                String message = kernel.name() + ", length " + length;
+                assertEquals(message, expected, DecimalParser.parse(s, 0, length, kernel));
+                assertEquals(message, expected, DecimalParser.parse(new StringBuilder(s), 0, length, kernel));
+                byte[] ascii = (" " + s + " ").getBytes(StandardCharsets.US_ASCII);
+                assertEquals(message, expected, DecimalParser.parse(ascii, 1, length + 1, kernel));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsNonDigits() {
+        String digits = "1234567890123456789012345678901234567890123456789012345678901234567890";
+        for (DecimalKernel kernel : kernels()) {
+            for (char bad : new char[] {'/', ':', ' ', '-', 'a', 'İ', '٠', (char) ('0' + 256)}) {
+                for (int pos = 0; pos < digits.length(); pos++) {
+                    String s = digits.substring(0, pos) + bad + digits.substring(pos + 1);
+                    assertNull(DecimalParser.parse(s, 0, s.length(), kernel));
+                    byte[] ascii = s.getBytes(StandardCharsets.ISO_8859_1);
+                    assertNull(DecimalParser.parse(ascii, 0, ascii.length, kernel));
+                }
+            }
+            assertNull(DecimalParser.parse("", 0, 0, kernel));
+            assertNull(DecimalParser.parse(new byte[0], 0, 0, kernel));
+        }
+    }
+
+    @Test
+    public void testPack16() {
+        byte[] ascii = "98765432101234567".getBytes(StandardCharsets.US_ASCII);
+        for (DecimalKernel kernel : kernels()) {
+            assertEquals(9876543210123456L, kernel.pack16(ascii, 0));
+            assertEquals(8765432101234567L, kernel.pack16(ascii, 1));
+        }
+    }
+
+    @Test
+    public void testStringConstructorBounds() {
+        assertEquals("1234567", new NumberListImpl(" \t1234567\n").toDecimalString());
+        assertTrue(new NumberListImpl(" 12 34 ").isEmpty());
+        assertTrue(new NumberListImpl("   ").isEmpty());
+        assertTrue(new NumberListImpl("-5").isEmpty());
+        assertTrue(new NumberListImpl("0000").isEmpty());
+    }
+
+    @Test
+    public void testFileWithWhitespaceAndCrLf() throws IOException {
+        File file = File.createTempFile("numberlist", ".txt");
+        try {
+            Files.write(file.toPath(), "  123456789012345678901234567890 \r\n987\r\n".getBytes(StandardCharsets.US_ASCII));
+            assertEquals("123456789012345678901234567890", new NumberListImpl(file).toDecimalString());
+
+            Files.write(file.toPath(), "12x4\n".getBytes(StandardCharsets.US_ASCII));
+            assertTrue(new NumberListImpl(file).isEmpty());
+
+            Files.write(file.toPath(), new byte[0]);
+            assertTrue(new NumberListImpl(file).isEmpty());
+        } finally {
+            file.delete();
+        }
+    }
+}
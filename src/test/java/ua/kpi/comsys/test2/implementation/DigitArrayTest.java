@@ -0,0 +1,101 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DigitArrayTest {
+
+    @Test
+    public void testRoundTrip() {
+        for (int base : new int[] {2, 8, 10, 16, 36}) {
+            for (int count : new int[] {0, 1, 5, RadixTables.of(base).digitsPerLong, 10_000}) {
+                byte[] digits = LargeNumberGenerator.digits(base, count, 41);
+                NumberListImpl list = NumberListImpl.fromDigits(base, digits, 0, digits.length);
+                assertEquals(LargeNumberGenerator.list(base, digits), list);
+                assertEquals(base, list.getBase());
+                assertArrayEquals(digits, list.toDigitArray());
+
+                byte[] dst = new byte[count + 4];
+                Arrays.fill(dst, (byte) -1);
+                list.copyDigitsTo(dst, 3);
+                assertArrayEquals(digits, Arrays.copyOfRange(dst, 3, 3 + count));
+                assertEquals(-1, dst[2]);
+                assertEquals(-1, dst[count + 3]);
+            }
+        }
+    }
+
+    @Test
+    public void testRangeAndAppend() {
+        byte[] src = {7, 1, 2, 3, 7};
+        NumberListImpl list = NumberListImpl.fromDigits(8, src, 1, 3);
+        assertEquals("123", list.toString());
+        list.addAll(NumberListImpl.fromDigits(8, src, 0, 5));
+        assertEquals("12371237", list.toString());
+        list.add((byte) 4);
+        assertEquals("123712374", list.toString());
+        assertEquals(9, list.size());
+    }
+
+    @Test
+    public void testToArrayWithArgument() {
+        NumberListImpl list = new NumberListImpl("123456789012345678901234567890");
+        Byte[] expected = new Byte[list.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = list.get(i);
+        }
+
+        Byte[] allocated = list.toArray(new Byte[0]);
+        assertArrayEquals(expected, allocated);
+
+        Byte[] exact = new Byte[list.size()];
+        assertSame(exact, list.toArray(exact));
+        assertArrayEquals(expected, exact);
+
+        Object[] larger = new Object[list.size() + 2];
+        Arrays.fill(larger, "x");
+        assertSame(larger, list.toArray(larger));
+        assertArrayEquals(expected, Arrays.copyOf(larger, list.size()));
+        assertNull(larger[list.size()]);
+        assertEquals("x", larger[list.size() + 1]);
+
+        Number[] numbers = NumberListImpl.valueOf("1F", 16).toArray(new Number[0]);
+        assertArrayEquals(new Number[] {(byte) 1, (byte) 15}, numbers);
+    }
+
+    @Test(expected = ArrayStoreException.class)
+    public void testToArrayOfIncompatibleType() {
+        new NumberListImpl("12").toArray(new String[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDigitOutOfBase() {
+        NumberListImpl.fromDigits(8, new byte[] {1, 2, 8}, 0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeDigit() {
+        NumberListImpl.fromDigits(36, new byte[] {1, -1}, 0, 2);
+    }
+
+    @Test
+    public void testInvalidDigitOutsideRangeIsIgnored() {
+        assertEquals("12", NumberListImpl.fromDigits(3, new byte[] {5, 1, 2, 5}, 1, 2).toString());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testRangeOutOfSource() {
+        NumberListImpl.fromDigits(10, new byte[3], 2, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCopyDoesNotFit() {
+        new NumberListImpl("123").copyDigitsTo(new byte[3], 1);
+    }
+}
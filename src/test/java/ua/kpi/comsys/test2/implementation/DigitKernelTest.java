@@ -0,0 +1,139 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DigitKernelTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 8, 9, 31, 32, 33, 63, 64, 65, 1000, 4099};
+
+    private static List<DigitKernel> kernels() {
+        List<DigitKernel> kernels = new ArrayList<>();
+        kernels.add(new DigitKernel());
+        DigitKernel best = DigitKernel.load();
+        if (!best.name().equals("scalar")) {
+            kernels.add(best);
+        }
+        return kernels;
+    }
+
+    private static byte[] random(Random random, int length, int base) {
+        byte[] digits = new byte[length];
+        for (int i = 0; i < length; i++) {
+            digits[i] = (byte) random.nextInt(base);
+        }
+        return digits;
+    }
+
+    @Test
+    public void testKernelIsLoaded() {
+        boolean vectorPresent = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        assertEquals(vectorPresent ? "vector" : "scalar", DigitKernel.INSTANCE.name());
+    }
+
+    @Test
+    public void testBitwiseOperations() {
+        Random random = new Random(42);
+        for (DigitKernel kernel : kernels()) {
+            for (int length : LENGTHS) {
+                byte[] a = random(random, length + 3, 16);
+                byte[] b = random(random, length + 5, 16);
+                byte[] and = new byte[length + 1];
+                byte[] or = new byte[length + 1];
+                byte[] xor = new byte[length + 1];
+                byte[] andNot = new byte[length + 1];
+                kernel.and(a, 3, b, 5, and, 1, length);
+                kernel.or(a, 3, b, 5, or, 1, length);
+                kernel.xor(a, 3, b, 5, xor, 1, length);
+                kernel.andNot(a, 3, b, 5, andNot, 1, length);
+                for (int i = 0; i < length; i++) {
+                    String message = kernel.name() + ", length " + length + ", index " + i;
+                    assertEquals(message, a[3 + i] & b[5 + i], and[1 + i]);
+                    assertEquals(message, a[3 + i] | b[5 + i], or[1 + i]);
+                    assertEquals(message, a[3 + i] ^ b[5 + i], xor[1 + i]);
+                    assertEquals(message, a[3 + i] & ~b[5 + i], andNot[1 + i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLeadingZeros() {
+        for (DigitKernel kernel : kernels()) {
+            for (int length : LENGTHS) {
+                byte[] zeros = new byte[length + 2];
+                assertEquals(length, kernel.leadingZeros(zeros, 2, length));
+                for (int at = 0; at < length; at += 1 + length / 7) {
+                    zeros[2 + at] = 5;
+                    assertEquals(kernel.name() + ", length " + length, at, kernel.leadingZeros(zeros, 2, length));
+                    zeros[2 + at] = 0;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testHistogram() {
+        Random random = new Random(44);
+        for (DigitKernel kernel : kernels()) {
+            for (int base : new int[] {2, 8, 16, 17, 36}) {
+                for (int length : LENGTHS) {
+                    byte[] digits = random(random, length + 1, base);
+                    int[] expected = new int[base];
+                    for (int i = 1; i <= length; i++) {
+                        expected[digits[i]]++;
+                    }
+                    int[] counts = new int[base];
+                    counts[0] = 10;
+                    expected[0] += 10;
+                    kernel.histogram(digits, 1, length, counts);
+                    assertArrayEquals(kernel.name() + ", base " + base + ", length " + length, expected, counts);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAndOfPowerOfTwoBases() {
+        Random random = new Random(45);
+        for (int base : new int[] {2, 4, 8, 16, 32}) {
+            for (int i = 0; i < 50; i++) {
+                BigInteger a = new BigInteger(1 + random.nextInt(5000), random);
+                BigInteger b = new BigInteger(1 + random.nextInt(5000), random);
+                if (i % 10 == 0) {
+                    // leading zeros in the result
+                    b = b.andNot(BigInteger.ONE.shiftLeft(b.bitLength() / 2).subtract(BigInteger.ONE).not());
+                }
+                NumberListImpl la = NumberListImpl.valueOf("000" + a.toString(base), base);
+                NumberListImpl lb = NumberListImpl.valueOf(b.toString(base), base);
+                BigInteger and = a.and(b);
+                assertEquals("base " + base, and.signum() == 0 ? "" : and.toString(base).toUpperCase(),
+                        la.additionalOperation(lb).toString());
+            }
+        }
+    }
+
+    @Test
+    public void testEqualsWithDifferentDigitCounts() {
+        NumberListImpl decimal = NumberListImpl.valueOf("1234567890".repeat(50), 10);
+        NumberListImpl hex = NumberListImpl.valueOf("1234567890".repeat(50), 16);
+        NumberListImpl other = NumberListImpl.valueOf("1234567890".repeat(49) + "1234567891", 10);
+        assertTrue(decimal.equals(hex));
+        assertFalse(decimal.equals(other));
+        assertFalse(other.equals(hex));
+        byte[] digits = decimal.toDigitArray();
+        Arrays.sort(digits);
+        decimal.sortAscending();
+        assertArrayEquals(digits, decimal.toDigitArray());
+    }
+}
@@ -0,0 +1,177 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class HugeNumberListTest {
+
+    private static final int[] BASES = {2, 3, 8, 10, 16, 32, 36};
+
+    /** Segments of four words, so that short numbers span many segments. */
+    private static final int SMALL_SEGMENTS = 2;
+
+    private static HugeNumberList huge(int base, byte[] digits) {
+        HugeNumberList list = new HugeNumberList(base, SMALL_SEGMENTS);
+        list.appendDigits(digits, 0, digits.length);
+        return list;
+    }
+
+    private static String text(HugeNumberList list) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        list.writeTo(out);
+        return out.toString("US-ASCII");
+    }
+
+    @Test
+    public void testDigitAccess() {
+        Random random = new Random(49);
+        for (int base : BASES) {
+            byte[] digits = LargeNumberGenerator.digits(base, 3000, base);
+            HugeNumberList list = new HugeNumberList(base, SMALL_SEGMENTS);
+            for (byte d : digits) {
+                list.append(d);
+            }
+            assertEquals(digits.length, list.sizeLong());
+            for (int step = 0; step < 5000; step++) {
+                int index = random.nextInt(digits.length);
+                int d = random.nextInt(base);
+                assertEquals(digits[index], list.setDigit(index, d));
+                digits[index] = (byte) d;
+            }
+            for (int i = 0; i < digits.length; i++) {
+                assertEquals("base " + base + ", index " + i, digits[i], list.digitAt(i));
+            }
+            assertEquals(LargeNumberGenerator.list(base, digits), list.toNumberListImpl());
+            assertEquals(huge(base, digits).toNumberListImpl(), HugeNumberList.copyOf(list.toNumberListImpl())
+                    .toNumberListImpl());
+        }
+    }
+
+    @Test
+    public void testChangeScale() throws IOException {
+        for (int base : BASES) {
+            for (int length : new int[] {1, 5, 21, 22, 700}) {
+                byte[] digits = LargeNumberGenerator.digits(base, length, length);
+                if (length > 5) {
+                    digits[0] = 0;
+                    digits[1] = 0;
+                }
+                NumberListImpl expected = LargeNumberGenerator.list(base, digits);
+                HugeNumberList list = huge(base, digits);
+                for (int target : BASES) {
+                    HugeNumberList converted = list.changeScale(target);
+                    assertEquals(target, converted.getBase());
+                    assertEquals(base + " -> " + target + ", " + length + " digits",
+                            expected.changeScale(target).toString(), text(converted));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChangeScaleOfLargeNumbers() throws IOException {
+        for (int base : new int[] {8, 10, 36}) {
+            byte[] digits = LargeNumberGenerator.digits(base, 60_000, base + 2);
+            NumberListImpl expected = LargeNumberGenerator.list(base, digits);
+            HugeNumberList list = new HugeNumberList(base);
+            list.appendDigits(digits, 0, digits.length);
+            for (int target : new int[] {2, 10, 16, 36}) {
+                if (target != base) {
+                    assertEquals(base + " -> " + target, expected.changeScale(target).toString(),
+                            text(list.changeScale(target)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConversionSizeLimit() {
+        long octalDigits = HugeNumberList.MAX_CONVERSION_BITS / 3;
+        HugeNumberList.checkConvertible(octalDigits, 8, 10);
+        try {
+            HugeNumberList.checkConvertible(octalDigits + 1, 8, 10);
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+        try {
+            HugeNumberList.checkConvertible(10_000_000_000L, 10, 8);
+            fail();
+        } catch (ArithmeticException expected) {
+        }
+    }
+
+    @Test
+    public void testZeroAndEmpty() throws IOException {
+        HugeNumberList zero = huge(8, new byte[100]);
+        assertEquals("0", text(zero.changeScale(10)));
+        assertEquals("0", text(zero.changeScale(16)));
+        HugeNumberList empty = new HugeNumberList(8);
+        assertEquals(0, empty.changeScale(10).sizeLong());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        empty.writeDecimalTo(out);
+        assertEquals("0", out.toString("US-ASCII"));
+    }
+
+    @Test
+    public void testDecimalOutput() throws IOException {
+        for (int base : BASES) {
+            byte[] digits = LargeNumberGenerator.digits(base, 2000, base + 1);
+            digits[0] = 0;
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            huge(base, digits).writeDecimalTo(out);
+            assertEquals(LargeNumberGenerator.list(base, digits).toDecimalString(), out.toString("US-ASCII"));
+        }
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File file = File.createTempFile("huge", ".txt");
+        try {
+            byte[] digits = LargeNumberGenerator.digits(36, 50_000, 49);
+            HugeNumberList list = huge(36, digits);
+            list.save(file);
+            assertEquals(digits.length, file.length());
+            HugeNumberList loaded = HugeNumberList.load(file, 36);
+            assertEquals(digits.length, loaded.sizeLong());
+            assertArrayEquals(digits, loaded.toNumberListImpl().toDigitArray());
+
+            Files.write(file.toPath(), "  \n1234567012\n7777\n".getBytes());
+            assertEquals("1234567012", text(HugeNumberList.load(file, 8)));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testInvalidInput() {
+        try {
+            HugeNumberList.readFrom(new ByteArrayInputStream("12389".getBytes()), 8);
+            fail();
+        } catch (IOException expected) {
+        }
+        HugeNumberList list = new HugeNumberList(8);
+        try {
+            list.append(8);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            list.digitAt(0);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        list.append(7);
+        list.clear();
+        assertEquals(0, list.sizeLong());
+    }
+}
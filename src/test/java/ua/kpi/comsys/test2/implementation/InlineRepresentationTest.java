@@ -0,0 +1,196 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InlineRepresentationTest {
+
+    /** Checks every observable of the list against a plain list of the same digits. */
+    private static void assertSameAs(List<Byte> expected, NumberListImpl list, int base, String message) {
+        assertEquals(message, expected.size(), list.size());
+        assertEquals(message, expected.isEmpty(), list.isEmpty());
+        StringBuilder text = new StringBuilder();
+        int[] histogram = new int[base];
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(message, expected.get(i), list.get(i));
+            text.append(Character.toUpperCase(Character.forDigit(expected.get(i), base)));
+            histogram[expected.get(i)]++;
+        }
+        assertEquals(message, text.toString(), list.toString());
+        assertArrayEquals(message, histogram, list.histogram());
+        assertArrayEquals(message, expected.toArray(), list.toArray());
+        assertTrue(message, list.equals(expected));
+        List<Byte> iterated = new ArrayList<>();
+        for (Iterator<Byte> it = list.iterator(); it.hasNext(); ) {
+            iterated.add(it.next());
+        }
+        assertEquals(message, expected, iterated);
+        BigInteger value = text.length() == 0 ? BigInteger.ZERO : new BigInteger(text.toString(), base);
+        assertEquals(message, value.toString(), list.toDecimalString());
+        for (byte d = 0; d < base; d++) {
+            assertEquals(message, expected.indexOf(d), list.indexOf(d));
+            assertEquals(message, expected.lastIndexOf(d), list.lastIndexOf(d));
+        }
+    }
+
+    @Test
+    public void testRandomOperationsAcrossTheLongBoundary() {
+        Random random = new Random(39);
+        for (int base : new int[] {2, 3, 8, 10, 16, 36}) {
+            int capacity = RadixTables.of(base).digitsPerLong;
+            NumberListImpl list = NumberListImpl.ofBase(base);
+            List<Byte> expected = new ArrayList<>();
+            for (int step = 0; step < 3000; step++) {
+                byte d = (byte) random.nextInt(base);
+                int op = random.nextInt(14);
+                // keep the size around the inline capacity
+                if (expected.size() > capacity + 3 && op < 4) {
+                    op += 4;
+                }
+                int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+                String message = "base " + base + ", step " + step + ", op " + op;
+                switch (op) {
+                    case 0:
+                    case 1:
+                        list.add(d);
+                        expected.add(d);
+                        break;
+                    case 2:
+                        list.add(index, d);
+                        expected.add(index, d);
+                        break;
+                    case 3:
+                        List<Byte> more = Arrays.asList(d, (byte) random.nextInt(base));
+                        list.addAll(index, more);
+                        expected.addAll(index, more);
+                        break;
+                    case 4:
+                    case 5:
+                        if (!expected.isEmpty()) {
+                            assertEquals(message, expected.remove(index), list.remove(index));
+                        }
+                        break;
+                    case 6:
+                        assertEquals(message, expected.remove((Byte) d), list.remove((Byte) d));
+                        break;
+                    case 7:
+                        if (!expected.isEmpty()) {
+                            assertEquals(message, expected.set(index, d), list.set(index, d));
+                        }
+                        break;
+                    case 8:
+                        if (!expected.isEmpty()) {
+                            int other = random.nextInt(expected.size());
+                            Collections.swap(expected, index, other);
+                            list.swap(index, other);
+                        }
+                        break;
+                    case 9:
+                        int k = random.nextInt(40) - 20;
+                        list.shiftLeft(k);
+                        if (!expected.isEmpty()) {
+                            Collections.rotate(expected, -k);
+                        }
+                        break;
+                    case 10:
+                        list.shiftRight();
+                        if (!expected.isEmpty()) {
+                            Collections.rotate(expected, 1);
+                        }
+                        break;
+                    case 11:
+                        if (random.nextBoolean()) {
+                            list.sortAscending();
+                            Collections.sort(expected);
+                        } else {
+                            list.sortDescending();
+                            expected.sort(Collections.reverseOrder());
+                        }
+                        break;
+                    case 12:
+                        List<Byte> filter = Collections.singletonList(d);
+                        if (random.nextBoolean()) {
+                            assertEquals(message, expected.removeAll(filter), list.removeAll(filter));
+                        } else {
+                            List<Byte> keep = Arrays.asList(d, (byte) random.nextInt(base));
+                            assertEquals(message, expected.retainAll(keep), list.retainAll(keep));
+                        }
+                        break;
+                    default:
+                        if (random.nextInt(10) == 0) {
+                            list.clear();
+                            expected.clear();
+                        }
+                        break;
+                }
+                assertSameAs(expected, list, base, message);
+            }
+        }
+    }
+
+    @Test
+    public void testInlineAndChainedListsAreIndistinguishable() {
+        for (int base : new int[] {2, 10, 36}) {
+            BigInteger value = BigInteger.valueOf(Long.MAX_VALUE / 3);
+            NumberListImpl small = NumberListImpl.valueOf(value.toString(base), base);
+            NumberListImpl chained = NumberListImpl.ofBase(base);
+            chained.enableNodePool(16);
+            for (byte d : small.toString().getBytes()) {
+                chained.add((byte) Character.digit(d, base));
+            }
+            assertEquals(small, chained);
+            assertEquals(chained, small);
+            assertEquals(0, small.compareTo(chained));
+            assertEquals(small.toDecimalString(), chained.toDecimalString());
+            assertEquals(small.changeScale(7), chained.changeScale(7));
+            assertEquals(small.additionalOperation(small), chained.additionalOperation(chained));
+            assertEquals(small.asCharSequence().toString(), chained.asCharSequence().toString());
+            assertEquals(small.asCharSequence().subSequence(1, 5).toString(),
+                    chained.asCharSequence().subSequence(1, 5).toString());
+        }
+    }
+
+    @Test
+    public void testLongConversionsAndAnd() {
+        Random random = new Random(93);
+        for (int i = 0; i < 2000; i++) {
+            long a = random.nextLong() >>> (1 + random.nextInt(63));
+            long b = random.nextLong() >>> (1 + random.nextInt(63));
+            int base = 2 + random.nextInt(35);
+            int target = 2 + random.nextInt(35);
+            NumberListImpl la = NumberListImpl.valueOf(Long.toString(a, base), base);
+            NumberListImpl lb = NumberListImpl.valueOf(Long.toString(b, target), target);
+            assertEquals(Long.toString(a), la.toDecimalString());
+            assertEquals(Long.toString(a, target).toUpperCase(), la.changeScale(target).toString());
+            long and = a & b;
+            assertEquals(and == 0 ? "" : Long.toString(and, base).toUpperCase(),
+                    la.additionalOperation(lb).toString());
+            assertEquals(Long.signum(Long.compare(a, b)), Integer.signum(la.compareTo(lb)));
+        }
+    }
+
+    @Test
+    public void testLeadingZerosAreKept() {
+        NumberListImpl list = NumberListImpl.valueOf("000123", 10);
+        assertEquals(6, list.size());
+        assertEquals("000123", list.toString());
+        assertEquals("123", list.toDecimalString());
+        list.shiftLeft(3);
+        assertEquals("123000", list.toString());
+        list.remove(0);
+        assertEquals("23000", list.toString());
+        list.add(0, (byte) 0);
+        assertEquals("023000", list.toString());
+    }
+}
@@ -0,0 +1,160 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class JfrEventsTest {
+
+    private static List<RecordedEvent> record(Runnable action, String... events) throws IOException {
+        Path dump = File.createTempFile("numberlist", ".jfr").toPath();
+        try (Recording recording = new Recording()) {
+            for (String event : events) {
+                recording.enable(event).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(dump);
+            return RecordingFile.readAllEvents(dump);
+        } finally {
+            dump.toFile().delete();
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEventsAreDisabledByDefault() throws IOException, ParseException {
+        Path dump = File.createTempFile("numberlist", ".jfr").toPath();
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+            new NumberListImpl("1234567").changeScale();
+            recording.stop();
+            recording.dump(dump);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            assertTrue(named(events, ConversionEvent.NAME).isEmpty());
+            assertTrue(named(events, NodeTraversalEvent.NAME).isEmpty());
+        } finally {
+            dump.toFile().delete();
+        }
+    }
+
+    @Test
+    public void testConversionEvents() throws IOException {
+        NumberListImpl list = new NumberListImpl("1212144468782345613");
+        List<RecordedEvent> events = named(record(() -> {
+            list.changeScale();
+            list.toDecimalString();
+            list.additionalOperation(new NumberListImpl("2"));
+        }, ConversionEvent.NAME), ConversionEvent.NAME);
+
+        List<String> operations = events.stream()
+                .map(e -> e.getString("operation"))
+                .collect(Collectors.toList());
+        assertTrue(operations.contains("changeScale"));
+        assertTrue(operations.contains("toDecimalString"));
+        assertTrue(operations.contains("additionalOperation"));
+
+        RecordedEvent changeScale = events.get(operations.indexOf("changeScale"));
+        assertEquals(8, changeScale.getInt("sourceBase"));
+        assertEquals(10, changeScale.getInt("targetBase"));
+        assertEquals(list.size(), changeScale.getInt("inputDigits"));
+        assertEquals(19, changeScale.getInt("resultDigits"));
+    }
+
+    @Test
+    public void testFileAndSortEvents() throws IOException {
+        File file = File.createTempFile("numberlist", ".txt");
+        try {
+            List<RecordedEvent> events = record(() -> {
+                NumberListImpl list = new NumberListImpl("987654321");
+                list.saveList(file);
+                new NumberListImpl(file).sortAscending();
+            }, FileIoEvent.NAME, SortEvent.NAME);
+
+            List<RecordedEvent> io = named(events, FileIoEvent.NAME);
+            assertEquals(2, io.size());
+            assertEquals("save", io.get(0).getString("operation"));
+            assertEquals("987654321".length() + System.lineSeparator().length(), io.get(0).getLong("bytes"));
+            assertEquals("load", io.get(1).getString("operation"));
+            assertEquals(file.length(), io.get(1).getLong("bytes"));
+            assertTrue(io.get(1).getBoolean("succeeded"));
+
+            List<RecordedEvent> sorts = named(events, SortEvent.NAME);
+            assertEquals(1, sorts.size());
+            assertTrue(sorts.get(0).getBoolean("ascending"));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testComparatorSortEvent() throws IOException {
+        Comparator<Byte> byRemainder = (a, b) -> Integer.compare(a % 3, b % 3);
+        Comparator<Byte> increasing = (a, b) -> Integer.compare(a, b);
+        Comparator<Byte> decreasing = (a, b) -> Integer.compare(b, a);
+        NumberListImpl list = new NumberListImpl("987654321");
+        List<RecordedEvent> sorts = named(record(() -> {
+            list.sort(byRemainder);
+            list.sort(null);
+            list.sort(increasing);
+            list.sort(decreasing);
+            list.sortDescending();
+        }, SortEvent.NAME), SortEvent.NAME);
+
+        assertEquals(5, sorts.size());
+        assertEquals(byRemainder.getClass().getName(), sorts.get(0).getString("comparator"));
+        assertEquals(list.size(), sorts.get(0).getInt("digits"));
+        assertEquals(SortEvent.CUSTOM, sorts.get(0).getString("order"));
+        assertFalse(sorts.get(0).getBoolean("ascending"));
+        assertNull(sorts.get(1).getString("comparator"));
+        assertEquals(SortEvent.ASCENDING, sorts.get(1).getString("order"));
+        assertTrue(sorts.get(1).getBoolean("ascending"));
+        assertEquals(SortEvent.ASCENDING, sorts.get(2).getString("order"));
+        assertTrue(sorts.get(2).getBoolean("ascending"));
+        assertEquals(SortEvent.DESCENDING, sorts.get(3).getString("order"));
+        assertFalse(sorts.get(3).getBoolean("ascending"));
+        assertNull(sorts.get(4).getString("comparator"));
+        assertEquals(SortEvent.DESCENDING, sorts.get(4).getString("order"));
+    }
+
+    @Test
+    public void testNodeTraversalIsSampled() throws IOException {
+        NumberListImpl list = new NumberListImpl();
+        for (int i = 0; i < 100; i++) {
+            list.add((byte) (i % 8));
+        }
+        int lookups = NodeTraversalEvent.SAMPLE_INTERVAL * 3;
+        List<RecordedEvent> events = named(record(() -> {
+            for (int i = 0; i < lookups; i++) {
+                list.get(90);
+            }
+        }, NodeTraversalEvent.NAME), NodeTraversalEvent.NAME);
+
+        assertEquals(3, events.size());
+        assertEquals(9, events.get(0).getInt("hops"));
+        assertTrue(events.get(0).getBoolean("fromTail"));
+    }
+}
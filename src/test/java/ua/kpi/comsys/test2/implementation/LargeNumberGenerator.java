@@ -0,0 +1,69 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of huge numbers for scaling tests.
+ * The same base, digit count and seed always produce the same number.
+ */
+final class LargeNumberGenerator {
+
+    /** All scales of notation used by the assignment. */
+    static final int[] BASES = {2, 3, 8, 10, 16};
+
+    private LargeNumberGenerator() {
+    }
+
+    /**
+     * Generates {@code count} digits in the given base with
+     * a non-zero leading digit.
+     */
+    static byte[] digits(int base, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + base);
+        byte[] res = new byte[count];
+        if (count == 0) {
+            return res;
+        }
+        res[0] = (byte) (1 + random.nextInt(base - 1));
+        for (int i = 1; i < count; i++) {
+            res[i] = (byte) random.nextInt(base);
+        }
+        return res;
+    }
+
+    /** Builds a list in the given base holding the given digits. */
+    static NumberListImpl list(int base, byte[] digits) {
+        NumberListImpl list = new NumberListImpl(base);
+        for (byte d : digits) {
+            list.add(d);
+        }
+        return list;
+    }
+
+    /** Returns the digits in string notation, as {@link NumberListImpl#toString()} does. */
+    static String text(byte[] digits) {
+        char[] chars = new char[digits.length];
+        for (int i = 0; i < digits.length; i++) {
+            chars[i] = Character.toUpperCase(Character.forDigit(digits[i], Character.MAX_RADIX));
+        }
+        return new String(chars);
+    }
+
+    /** Returns the value of the digits, used as an oracle. */
+    static BigInteger value(int base, byte[] digits) {
+        return digits.length == 0 ? BigInteger.ZERO : new BigInteger(text(digits), base);
+    }
+
+    /** Writes a decimal number of {@code count} digits into the file. */
+    static void writeDecimalFile(File file, int count, long seed) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+            bw.write(text(digits(10, count, seed)));
+            bw.newLine();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MappedNumberListTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("mapped", ".nl");
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testAppendReopenAndGrow() throws IOException {
+        for (int base : new int[] {2, 8, 10, 16, 36}) {
+            byte[] digits = LargeNumberGenerator.digits(base, 100_000, base);
+            try (MappedNumberList list = MappedNumberList.create(file, base)) {
+                for (byte d : digits) {
+                    list.add(d);
+                }
+                list.force();
+            }
+            try (MappedNumberList list = MappedNumberList.open(file)) {
+                assertEquals(base, list.getBase());
+                assertEquals(digits.length, list.size());
+                assertEquals(LargeNumberGenerator.list(base, digits), list.toNumberListImpl());
+                assertEquals(LargeNumberGenerator.text(digits), list.toString());
+                list.set(0, (byte) (base - 1));
+                list.add((byte) 1);
+            }
+            try (MappedNumberList list = MappedNumberList.open(file)) {
+                assertEquals(digits.length + 1, list.size());
+                assertEquals(base - 1, (int) list.get(0));
+                assertEquals(1, (int) list.get(digits.length));
+                assertEquals(digits[1], (byte) list.get(1));
+            }
+        }
+    }
+
+    @Test
+    public void testFileIsPacked() throws IOException {
+        try (MappedNumberList list = MappedNumberList.copyOf(file,
+                LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, 1_000_000, 44)))) {
+            assertEquals(1_000_000, list.size());
+        }
+        // 3 bits per octal digit, doubled capacity at most
+        assertTrue(file.length() < 2 * 1_000_000 * 3 / 8 + 4096);
+    }
+
+    @Test
+    public void testOperationsAgainstNumberListImpl() throws IOException {
+        Random random = new Random(44);
+        try (MappedNumberList list = MappedNumberList.create(file, 10)) {
+            NumberListImpl expected = NumberListImpl.ofBase(10);
+            for (int step = 0; step < 3000; step++) {
+                byte d = (byte) random.nextInt(10);
+                int index = expected.isEmpty() ? 0 : random.nextInt(expected.size());
+                switch (random.nextInt(10)) {
+                    case 0:
+                        list.add(index, d);
+                        expected.add(index, d);
+                        break;
+                    case 1:
+                        if (!expected.isEmpty()) {
+                            assertEquals(expected.remove(index), list.remove(index));
+                        }
+                        break;
+                    case 2:
+                        if (!expected.isEmpty()) {
+                            assertEquals(expected.set(index, d), list.set(index, d));
+                        }
+                        break;
+                    case 3:
+                        int other = random.nextInt(expected.size() + 1);
+                        assertEquals(expected.swap(index, other), list.swap(index, other));
+                        break;
+                    case 4:
+                        expected.shiftLeft();
+                        list.shiftLeft();
+                        break;
+                    case 5:
+                        expected.shiftRight();
+                        list.shiftRight();
+                        break;
+                    case 6:
+                        if (random.nextBoolean()) {
+                            expected.sortAscending();
+                            list.sortAscending();
+                        } else {
+                            expected.sortDescending();
+                            list.sortDescending();
+                        }
+                        break;
+                    case 7:
+                        assertEquals(expected.remove((Byte) d), list.remove((Byte) d));
+                        break;
+                    default:
+                        expected.add(d);
+                        list.add(d);
+                        break;
+                }
+                assertEquals("step " + step, expected.toString(), list.toString());
+            }
+            assertTrue(expected.equals(list));
+            assertTrue(list.equals(expected));
+            assertEquals(expected.indexOf((byte) 3), list.indexOf((byte) 3));
+            list.clear();
+            assertTrue(list.isEmpty());
+        }
+    }
+
+    @Test
+    public void testListContract() throws IOException {
+        try (MappedNumberList list = MappedNumberList.create(file, 8)) {
+            List<Byte> digits = new ArrayList<>(List.of((byte) 7, (byte) 0, (byte) 1, (byte) 6));
+            list.addAll(digits);
+            assertEquals(digits, list);
+            assertEquals(digits.hashCode(), list.hashCode());
+            Collections.reverse(digits);
+            Collections.reverse(list);
+            assertEquals(digits, list);
+            assertTrue(list.contains((byte) 6));
+            assertFalse(list.contains((byte) 5));
+        }
+    }
+
+    @Test
+    public void testInvalidDigits() throws IOException {
+        try (MappedNumberList list = MappedNumberList.create(file, 8)) {
+            try {
+                list.add((byte) 8);
+                fail();
+            } catch (IllegalArgumentException expected) {
+            }
+            try {
+                list.add(null);
+                fail();
+            } catch (NullPointerException expected) {
+            }
+            try {
+                list.get(0);
+                fail();
+            } catch (IndexOutOfBoundsException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenRejectsOtherFiles() throws IOException {
+        Files.write(file.toPath(), "12345678901234567890\n".getBytes());
+        MappedNumberList.open(file);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testClosed() throws IOException {
+        MappedNumberList list = MappedNumberList.create(file, 8);
+        list.close();
+        list.add((byte) 1);
+    }
+}
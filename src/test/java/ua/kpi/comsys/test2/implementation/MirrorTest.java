@@ -0,0 +1,134 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MirrorTest {
+
+    /** Converts a copy of the list that has no mirror. */
+    private static NumberListImpl reference(NumberListImpl list, int targetBase) {
+        byte[] digits = list.toDigitArray();
+        return NumberListImpl.fromDigits(list.getBase(), digits, 0, digits.length).changeScale(targetBase);
+    }
+
+    @Test
+    public void testAppendOnlyStream() {
+        Random random = new Random(43);
+        NumberListImpl list = new NumberListImpl();
+        list.enableMirror(10);
+        for (int i = 0; i < 3000; i++) {
+            list.add((byte) random.nextInt(8));
+            if (i % 7 == 0) {
+                assertEquals("after " + (i + 1) + " digits", reference(list, 10), list.changeScale());
+            }
+        }
+        list.addAll(Arrays.asList((byte) 7, (byte) 0, (byte) 3));
+        list.add(list.size(), (byte) 5);
+        assertEquals(reference(list, 10), list.changeScale());
+        assertEquals(reference(list, 16), list.changeScale(16));
+    }
+
+    @Test
+    public void testLeadingZerosAndZero() {
+        NumberListImpl list = NumberListImpl.ofBase(2);
+        list.enableMirror(36);
+        for (int i = 0; i < 100; i++) {
+            list.add((byte) 0);
+            assertEquals(reference(list, 36), list.changeScale(36));
+        }
+        list.add((byte) 1);
+        assertEquals("1", list.changeScale(36).toString());
+        for (int i = 0; i < 100; i++) {
+            list.add((byte) 1);
+        }
+        assertEquals(reference(list, 36), list.changeScale(36));
+    }
+
+    @Test
+    public void testOtherModificationsRebuildTheMirror() {
+        Random random = new Random(44);
+        for (int target : new int[] {2, 3, 10, 16, 36}) {
+            NumberListImpl list = new NumberListImpl();
+            list.enableMirror(target);
+            for (int step = 0; step < 1500; step++) {
+                byte d = (byte) random.nextInt(8);
+                int index = list.isEmpty() ? 0 : random.nextInt(list.size());
+                switch (random.nextInt(12)) {
+                    case 0:
+                        list.add(index, d);
+                        break;
+                    case 1:
+                        if (!list.isEmpty()) {
+                            list.remove(index);
+                        }
+                        break;
+                    case 2:
+                        if (!list.isEmpty()) {
+                            list.set(index, d);
+                        }
+                        break;
+                    case 3:
+                        list.swap(index, random.nextInt(list.size() + 1));
+                        break;
+                    case 4:
+                        list.shiftLeft(random.nextInt(5));
+                        break;
+                    case 5:
+                        if (random.nextBoolean()) {
+                            list.sortAscending();
+                        } else {
+                            list.sortDescending();
+                        }
+                        break;
+                    case 6:
+                        list.removeAll(Arrays.asList(d));
+                        break;
+                    case 7:
+                        if (random.nextInt(20) == 0) {
+                            list.clear();
+                        }
+                        break;
+                    default:
+                        list.add(d);
+                        break;
+                }
+                assertEquals("base " + target + ", step " + step, reference(list, target), list.changeScale(target));
+            }
+        }
+    }
+
+    @Test
+    public void testDisable() {
+        NumberListImpl list = new NumberListImpl("123456789012345678901234567890");
+        list.enableMirror(10);
+        list.add((byte) 1);
+        list.disableMirror();
+        list.add((byte) 2);
+        assertEquals(reference(list, 10), list.changeScale());
+        list.enableMirror(10);
+        assertEquals(reference(list, 10), list.changeScale());
+    }
+
+    @Test(timeout = 10_000)
+    public void testFrequentSnapshotsOfLongStream() {
+        Random random = new Random(45);
+        NumberListImpl list = new NumberListImpl();
+        list.enableMirror(10);
+        for (int i = 0; i < 20_000; i++) {
+            list.add((byte) random.nextInt(8));
+            if (i % 10 == 0) {
+                list.changeScale();
+            }
+        }
+        assertEquals(reference(list, 10), list.changeScale());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBase() {
+        new NumberListImpl().enableMirror(37);
+    }
+}
@@ -0,0 +1,82 @@
+package ua.kpi.comsys.test2.implementation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NodePoolTest {
+    NumberListImpl list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    @Test
+    public void testClearHandsChainToPool() {
+        list = new NumberListImpl();
+        list.enableNodePool(16);
+        for (int i = 0; i < 10; i++) {
+            list.add((byte) (i % 8));
+        }
+        list.clear();
+        assertTrue(list.isEmpty());
+        assertEquals(10, list.pooledNodeCount());
+
+        for (int i = 0; i < 4; i++) {
+            list.add((byte) 7);
+        }
+        assertEquals(6, list.pooledNodeCount());
+        assertEquals("7777", list.toString());
+        list.add(2, (byte) 1);
+        assertEquals("77177", list.toString());
+        assertEquals(Byte.valueOf((byte) 7), list.get(4));
+        assertEquals(Byte.valueOf((byte) 1), list.get(2));
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        list = new NumberListImpl();
+        list.enableNodePool(5);
+        for (int i = 0; i < 12; i++) {
+            list.add((byte) 3);
+        }
+        list.remove(0);
+        list.remove(Byte.valueOf((byte) 3));
+        assertEquals(2, list.pooledNodeCount());
+        list.clear();
+        assertEquals(5, list.pooledNodeCount());
+
+        list.enableNodePool(3);
+        assertEquals(3, list.pooledNodeCount());
+        list.disableNodePool();
+        assertEquals(0, list.pooledNodeCount());
+    }
+
+    @Test
+    public void testRefillAfterClear() {
+        list = new NumberListImpl();
+        list.enableNodePool(1024);
+        for (int round = 0; round < 50; round++) {
+            list.clear();
+            for (int i = 0; i < 40; i++) {
+                list.add((byte) ((i + round) % 8));
+            }
+            assertEquals(40, list.size());
+            assertEquals(Byte.valueOf((byte) ((39 + round) % 8)), list.get(39));
+            assertEquals(5, list.digitCount(round % 8));
+        }
+        assertEquals(0, list.pooledNodeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        list = new NumberListImpl();
+        list.enableNodePool(0);
+    }
+}
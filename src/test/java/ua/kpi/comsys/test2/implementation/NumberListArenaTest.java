@@ -0,0 +1,224 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.NumberList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NumberListArenaTest {
+
+    private static final int[] BASES = {2, 3, 8, 10, 16, 36};
+
+    /** Adds numbers of random bases and lengths, including empty ones and ones with leading zeros. */
+    private static List<NumberListImpl> fill(NumberListArena arena, Random random, int count) {
+        List<NumberListImpl> numbers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int base = BASES[random.nextInt(BASES.length)];
+            int length = i % 50 == 0 ? 100 + random.nextInt(200) : random.nextInt(25);
+            byte[] digits = LargeNumberGenerator.digits(base, length, i);
+            if (length > 0 && i % 7 == 0) {
+                digits[0] = 0;
+            }
+            NumberListImpl number = LargeNumberGenerator.list(base, digits);
+            assertEquals(i, arena.add(number));
+            numbers.add(number);
+        }
+        return numbers;
+    }
+
+    @Test
+    public void testViews() {
+        NumberListArena arena = new NumberListArena();
+        List<NumberListImpl> numbers = fill(arena, new Random(45), 2000);
+        assertEquals(2000, arena.size());
+        for (int id = 0; id < numbers.size(); id++) {
+            NumberListImpl expected = numbers.get(id);
+            NumberList view = arena.get(id);
+            assertEquals(expected.getBase(), arena.base(id));
+            assertEquals(expected.toString(), view.toString());
+            assertTrue(view.equals(expected));
+            assertTrue(expected.equals(view));
+            assertEquals(expected, arena.copy(id));
+        }
+    }
+
+    @Test
+    public void testOperationsAgainstNumberListImpl() {
+        Random random = new Random(45);
+        NumberListArena arena = new NumberListArena();
+        List<NumberListImpl> expected = fill(arena, random, 20);
+        for (int step = 0; step < 20_000; step++) {
+            int id = random.nextInt(expected.size());
+            NumberListImpl number = expected.get(id);
+            NumberList view = arena.get(id);
+            byte d = (byte) random.nextInt(number.getBase());
+            int index = number.isEmpty() ? 0 : random.nextInt(number.size());
+            switch (random.nextInt(9)) {
+                case 0:
+                    view.add(index, d);
+                    number.add(index, d);
+                    break;
+                case 1:
+                    if (!number.isEmpty()) {
+                        assertEquals(number.remove(index), view.remove(index));
+                    }
+                    break;
+                case 2:
+                    if (!number.isEmpty()) {
+                        assertEquals(number.set(index, d), view.set(index, d));
+                    }
+                    break;
+                case 3:
+                    int other = random.nextInt(number.size() + 1);
+                    assertEquals(number.swap(index, other), view.swap(index, other));
+                    break;
+                case 4:
+                    number.shiftLeft();
+                    view.shiftLeft();
+                    break;
+                case 5:
+                    number.shiftRight();
+                    view.shiftRight();
+                    break;
+                case 6:
+                    if (random.nextBoolean()) {
+                        number.sortAscending();
+                        view.sortAscending();
+                    } else {
+                        number.sortDescending();
+                        view.sortDescending();
+                    }
+                    break;
+                case 7:
+                    if (random.nextInt(50) == 0) {
+                        number.clear();
+                        view.clear();
+                    }
+                    break;
+                default:
+                    number.add(d);
+                    view.add(d);
+                    break;
+            }
+            assertEquals("step " + step, number.toString(), view.toString());
+        }
+        int digits = 0;
+        for (int id = 0; id < expected.size(); id++) {
+            assertEquals(expected.get(id).toString(), arena.get(id).toString());
+            digits += expected.get(id).size();
+        }
+        assertEquals(digits, arena.digitCount());
+    }
+
+    @Test
+    public void testFreeReuseAndCompact() {
+        Random random = new Random(46);
+        NumberListArena arena = new NumberListArena();
+        List<NumberListImpl> numbers = fill(arena, random, 10_000);
+        int capacity = arena.capacity();
+        NumberList stale = arena.get(4);
+        for (int id = 0; id < numbers.size(); id++) {
+            if (id % 4 != 3) {
+                arena.free(id);
+            }
+        }
+        assertEquals(2500, arena.size());
+        try {
+            stale.size();
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            arena.get(4);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+
+        int id = arena.add(numbers.get(0));
+        assertTrue(id % 4 != 3 && id < numbers.size());
+        numbers.set(id, numbers.get(0));
+        try {
+            stale.get(0);
+            fail();
+        } catch (IllegalStateException expected) {
+        }
+
+        arena.compact();
+        assertTrue(arena.capacity() < capacity / 2);
+        assertEquals(arena.digitCount(), arena.capacity());
+        for (int i = 3; i < numbers.size(); i += 4) {
+            assertEquals(numbers.get(i).toString(), arena.get(i).toString());
+        }
+        assertEquals(numbers.get(id).toString(), arena.get(id).toString());
+    }
+
+    @Test
+    public void testAnd() {
+        NumberListArena arena = new NumberListArena();
+        List<NumberListImpl> numbers = fill(arena, new Random(47), 1000);
+        arena.free(5);
+        for (String arg : new String[] {"", "0", "777", "1234567012345670123456701234567", "7".repeat(400)}) {
+            NumberListImpl mask = NumberListImpl.valueOf(arg, 8);
+            NumberListArena and = arena.and(mask);
+            assertEquals(999, and.size());
+            for (int id = 0; id < numbers.size(); id++) {
+                if (id != 5) {
+                    NumberListImpl expected = numbers.get(id).additionalOperation(mask);
+                    assertEquals(expected.getBase(), and.base(id));
+                    assertEquals("id " + id + ", mask " + arg, expected.toString(), and.get(id).toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testChangeScale() {
+        NumberListArena arena = new NumberListArena();
+        List<NumberListImpl> numbers = fill(arena, new Random(48), 1000);
+        arena.free(999);
+        for (int target : BASES) {
+            NumberListArena converted = arena.changeScale(target);
+            assertEquals(999, converted.size());
+            for (int id = 0; id < 999; id++) {
+                NumberListImpl expected = numbers.get(id).changeScale(target);
+                assertEquals(target, converted.base(id));
+                assertEquals("id " + id + ", base " + target, expected.toString(), converted.get(id).toString());
+            }
+            assertEquals(999, converted.add(numbers.get(999)));
+        }
+    }
+
+    @Test
+    public void testInvalidDigits() {
+        NumberListArena arena = new NumberListArena();
+        NumberList view = arena.get(arena.add(8, new byte[] {1, 2, 3}, 0, 3));
+        try {
+            view.add((byte) 8);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            view.add(null);
+            fail();
+        } catch (NullPointerException expected) {
+        }
+        try {
+            view.get(3);
+            fail();
+        } catch (IndexOutOfBoundsException expected) {
+        }
+        try {
+            arena.add(8, new byte[] {1, 9}, 0, 2);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(1, arena.size());
+    }
+}
@@ -0,0 +1,107 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import ua.kpi.comsys.test2.implementation.NumberListMetrics.Operation;
+import ua.kpi.comsys.test2.implementation.NumberListMetrics.Snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberListMetricsTest {
+
+    @Before
+    public void setUp() {
+        NumberListMetrics.reset();
+    }
+
+    @Test
+    public void testOperationsAreRecorded() {
+        NumberListImpl list = new NumberListImpl("1212144468782345613");
+        list.changeScale();
+        list.toDecimalString();
+        list.additionalOperation(new NumberListImpl("15"));
+        list.sortAscending();
+        list.sortDescending();
+
+        Snapshot parse = NumberListMetrics.snapshot(Operation.PARSE);
+        assertEquals(2, parse.count());
+        assertEquals(21, parse.digits());
+        assertTrue(parse.allocatedBytes() > 0);
+
+        assertEquals(1, NumberListMetrics.snapshot(Operation.CHANGE_SCALE).count());
+        assertEquals(list.size(), NumberListMetrics.snapshot(Operation.CHANGE_SCALE).digits());
+        assertEquals(1, NumberListMetrics.snapshot(Operation.TO_DECIMAL).count());
+        assertEquals(1, NumberListMetrics.snapshot(Operation.AND).count());
+        assertEquals(2, NumberListMetrics.snapshot(Operation.SORT).count());
+        assertEquals(0, NumberListMetrics.snapshot(Operation.LOAD).count());
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (int i = 1; i <= 1000; i++) {
+            NumberListMetrics.record(Operation.SAVE, 1, 0, System.nanoTime() - i * 1000L);
+        }
+        Snapshot snapshot = NumberListMetrics.snapshot(Operation.SAVE);
+        assertEquals(1000, snapshot.count());
+        assertTrue(snapshot.p50Nanos() >= 500_000 && snapshot.p50Nanos() < 700_000);
+        assertTrue(snapshot.p99Nanos() >= 990_000);
+        assertTrue(snapshot.p50Nanos() <= snapshot.p99Nanos());
+        assertTrue(snapshot.p99Nanos() <= snapshot.p999Nanos());
+        assertTrue(snapshot.maxNanos() >= 1_000_000);
+        assertTrue(snapshot.meanNanos() >= 500_000);
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long v : new long[] {0, 1, 3, 4, 7, 8, 1000, 123456789, Long.MAX_VALUE}) {
+            int bucket = NumberListMetrics.bucketOf(v);
+            assertTrue(v <= NumberListMetrics.bucketUpperBound(bucket));
+            if (bucket > 0) {
+                assertTrue(v > NumberListMetrics.bucketUpperBound(bucket - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    NumberListMetrics.record(Operation.LOAD, 3, 10, System.nanoTime());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Snapshot snapshot = NumberListMetrics.snapshot(Operation.LOAD);
+        assertEquals(80_000, snapshot.count());
+        assertEquals(240_000, snapshot.digits());
+        assertEquals(800_000, snapshot.allocatedBytes());
+    }
+
+    @Test
+    public void testMBeans() throws JMException {
+        NumberListMetrics.registerMBeans();
+        NumberListMetrics.registerMBeans();
+        new NumberListImpl("42").toDecimalString();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(1L, server.getAttribute(NumberListMetrics.objectName(Operation.TO_DECIMAL), "Count"));
+        assertEquals(2L, server.getAttribute(NumberListMetrics.objectName(Operation.TO_DECIMAL), "Digits"));
+
+        server.invoke(NumberListMetrics.objectName(Operation.TO_DECIMAL), "reset", null, null);
+        assertEquals(0, NumberListMetrics.snapshot(Operation.TO_DECIMAL).count());
+    }
+}
@@ -0,0 +1,163 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberListParseCacheTest {
+
+    @After
+    public void tearDown() {
+        NumberListParseCache.install(null);
+    }
+
+    /** Builds the list with no cache installed. */
+    private static NumberListImpl uncached(String value) {
+        NumberListParseCache cache = NumberListParseCache.installed();
+        NumberListParseCache.install(null);
+        try {
+            return new NumberListImpl(value);
+        } finally {
+            NumberListParseCache.install(cache);
+        }
+    }
+
+    @Test
+    public void testStrings() {
+        NumberListParseCache cache = new NumberListParseCache(100, 1_000_000);
+        NumberListParseCache.install(cache);
+        String big = LargeNumberGenerator.text(LargeNumberGenerator.digits(10, 5000, 46));
+        for (String value : new String[] {"123", " 123\n", "0", "", "12a", "-5", big}) {
+            NumberListImpl expected = uncached(value);
+            assertEquals(expected, new NumberListImpl(value));
+            assertEquals(expected.toString(), new NumberListImpl(value).toString());
+        }
+        NumberListParseCache.Stats stats = cache.stats();
+        assertEquals(8, stats.hitCount());
+        assertEquals(6, stats.missCount());
+        assertEquals(6, stats.entries());
+        assertEquals(0, stats.evictionCount());
+    }
+
+    @Test
+    public void testCachedListsAreIndependent() {
+        NumberListParseCache.install(new NumberListParseCache(100, 1_000_000));
+        String value = "98765432109876543210987654321";
+        NumberListImpl first = new NumberListImpl(value);
+        first.add((byte) 1);
+        first.set(0, (byte) 0);
+        first.sortAscending();
+        NumberListImpl second = new NumberListImpl(value);
+        assertEquals(uncached(value).toString(), second.toString());
+    }
+
+    @Test
+    public void testFiles() throws IOException {
+        NumberListParseCache cache = new NumberListParseCache(100, 1_000_000);
+        NumberListParseCache.install(cache);
+        File file = File.createTempFile("cache", ".txt");
+        try {
+            Files.write(file.toPath(), "1234567\n".getBytes());
+            NumberListImpl expected = uncached("1234567");
+            assertEquals(expected, new NumberListImpl(file));
+            assertEquals(expected, new NumberListImpl(file));
+            assertEquals(1, cache.stats().hitCount());
+
+            Files.write(file.toPath(), "76543210\n".getBytes());
+            assertEquals(uncached("76543210"), new NumberListImpl(file));
+            assertEquals(1, cache.stats().hitCount());
+
+            file.delete();
+            assertTrue(new NumberListImpl(file).isEmpty());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testLimits() {
+        NumberListParseCache cache = new NumberListParseCache(16, 1000);
+        NumberListParseCache.install(cache);
+        for (int i = 0; i < 100; i++) {
+            new NumberListImpl(Integer.toString(1_000_000 + i));
+        }
+        NumberListParseCache.Stats stats = cache.stats();
+        assertTrue(stats.entries() <= 16);
+        assertEquals(100, stats.entries() + stats.evictionCount());
+
+        cache.clear();
+        String big = LargeNumberGenerator.text(LargeNumberGenerator.digits(10, 10_000, 46));
+        assertEquals(uncached(big), new NumberListImpl(big));
+        assertEquals(0, cache.stats().entries());
+        assertEquals(0, cache.stats().digits());
+    }
+
+    @Test
+    public void testRepeatedInputsSurviveScans() {
+        NumberListParseCache cache = new NumberListParseCache(1600, 1_000_000);
+        NumberListParseCache.install(cache);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 20; i++) {
+                new NumberListImpl("12345" + i);
+            }
+        }
+        for (int i = 0; i < 10_000; i++) {
+            new NumberListImpl(Integer.toString(100_000_000 + i));
+        }
+        long hits = cache.stats().hitCount();
+        for (int i = 0; i < 20; i++) {
+            new NumberListImpl("12345" + i);
+        }
+        assertEquals(hits + 20, cache.stats().hitCount());
+    }
+
+    @Test
+    public void testConcurrentUse() throws Exception {
+        NumberListParseCache cache = new NumberListParseCache(64, 1_000_000);
+        NumberListParseCache.install(cache);
+        List<String> values = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            String value = LargeNumberGenerator.text(LargeNumberGenerator.digits(10, 1 + i * 7, i));
+            values.add(value);
+            expected.add(uncached(value).toString());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int seed = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5000; i++) {
+                        int k = (i * 31 + seed) % values.size();
+                        assertEquals(expected.get(k), new NumberListImpl(values.get(k)).toString());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        NumberListParseCache.Stats stats = cache.stats();
+        assertEquals(20_000, stats.hitCount() + stats.missCount());
+        assertTrue(stats.entries() <= 64);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new NumberListParseCache(0, 10);
+    }
+}
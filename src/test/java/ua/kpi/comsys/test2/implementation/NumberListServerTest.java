@@ -0,0 +1,269 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberListServerTest {
+
+    private NumberListServer server;
+    private SocketChannel channel;
+    private DataInputStream in;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new NumberListServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 2);
+        channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+        in = new DataInputStream(Channels.newInputStream(channel));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        channel.close();
+        server.close();
+    }
+
+    /** Response as read by the client. */
+    private static final class Response {
+        byte status;
+        int base;
+        byte[] digits;
+        String message;
+    }
+
+    private static ByteBuffer frame(int id, byte operation, int payload) {
+        ByteBuffer frame = ByteBuffer.allocate(9 + payload);
+        return frame.putInt(5 + payload).putInt(id).put(operation);
+    }
+
+    private static void putNumber(ByteBuffer frame, int base, byte[] digits) {
+        frame.put((byte) base).putInt(digits.length).put(digits);
+    }
+
+    private static void putPath(ByteBuffer frame, byte[] path) {
+        frame.putShort((short) path.length).put(path);
+    }
+
+    private void send(ByteBuffer frame) throws IOException {
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame);
+        }
+    }
+
+    private void changeScale(int id, int base, byte[] digits, int target) throws IOException {
+        ByteBuffer frame = frame(id, NumberListServer.CHANGE_SCALE, 6 + digits.length);
+        putNumber(frame, base, digits);
+        send(frame.put((byte) target));
+    }
+
+    private Map<Integer, Response> receive(int count) throws IOException {
+        Map<Integer, Response> responses = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int length = in.readInt();
+            int id = in.readInt();
+            Response response = new Response();
+            response.status = in.readByte();
+            if (response.status == NumberListServer.STATUS_OK) {
+                response.base = in.readByte();
+                response.digits = new byte[in.readInt()];
+                in.readFully(response.digits);
+                assertEquals(10 + response.digits.length, length);
+            } else {
+                byte[] text = new byte[in.readUnsignedShort()];
+                in.readFully(text);
+                response.message = new String(text, StandardCharsets.UTF_8);
+            }
+            responses.put(id, response);
+        }
+        return responses;
+    }
+
+    @Test
+    public void testPipelinedChangeScale() throws IOException {
+        int[] bases = {2, 3, 8, 10, 16, 36};
+        int requests = 300;
+        for (int id = 0; id < requests; id++) {
+            int base = bases[id % bases.length];
+            byte[] digits = LargeNumberGenerator.digits(base, 1 + id * 7, id);
+            changeScale(id, base, digits, bases[(id / bases.length) % bases.length]);
+        }
+        Map<Integer, Response> responses = receive(requests);
+        for (int id = 0; id < requests; id++) {
+            int base = bases[id % bases.length];
+            int target = bases[(id / bases.length) % bases.length];
+            NumberListImpl expected = LargeNumberGenerator.list(base, LargeNumberGenerator.digits(base, 1 + id * 7, id))
+                    .changeScale(target);
+            Response response = responses.get(id);
+            assertEquals(NumberListServer.STATUS_OK, response.status);
+            assertEquals(target, response.base);
+            assertArrayEquals("request " + id, expected.toDigitArray(), response.digits);
+        }
+    }
+
+    @Test
+    public void testLargeResponse() throws IOException {
+        byte[] digits = LargeNumberGenerator.digits(2, 2_000_000, 50);
+        changeScale(7, 2, digits, 8);
+        changeScale(8, 10, new byte[] {1, 2}, 2);
+        Map<Integer, Response> responses = receive(2);
+        assertArrayEquals(LargeNumberGenerator.list(2, digits).changeScale(8).toDigitArray(), responses.get(7).digits);
+        assertArrayEquals(new byte[] {1, 1, 0, 0}, responses.get(8).digits);
+        // the read buffer shrinks after the large frame and grows again for the next one
+        changeScale(9, 10, new byte[] {4, 2}, 16);
+        changeScale(10, 2, digits, 16);
+        responses = receive(2);
+        assertArrayEquals(new byte[] {2, 10}, responses.get(9).digits);
+        assertArrayEquals(LargeNumberGenerator.list(2, digits).changeScale(16).toDigitArray(), responses.get(10).digits);
+    }
+
+    @Test
+    public void testAnd() throws IOException {
+        byte[] a = {1, 2, 3, 4, 5, 6, 7};
+        byte[] b = {7, 7, 0, 0, 1};
+        ByteBuffer frame = frame(1, NumberListServer.AND, 10 + a.length + b.length);
+        putNumber(frame, 8, a);
+        putNumber(frame, 8, b);
+        send(frame);
+        Response response = receive(1).get(1);
+        NumberListImpl expected = LargeNumberGenerator.list(8, a).additionalOperation(LargeNumberGenerator.list(8, b));
+        assertEquals(8, response.base);
+        assertArrayEquals(expected.toDigitArray(), response.digits);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        File file = File.createTempFile("server", ".txt");
+        try {
+            byte[] path = file.getPath().getBytes(StandardCharsets.UTF_8);
+            byte[] digits = LargeNumberGenerator.digits(16, 500, 50);
+            ByteBuffer save = frame(1, NumberListServer.SAVE, 2 + path.length + 5 + digits.length);
+            putPath(save, path);
+            putNumber(save, 16, digits);
+            send(save);
+            Response saved = receive(1).get(1);
+            assertEquals(NumberListServer.STATUS_OK, saved.status);
+            assertEquals(0, saved.digits.length);
+            NumberListImpl expected = LargeNumberGenerator.list(16, digits);
+            assertEquals(expected.toDecimalString() + System.lineSeparator(),
+                    new String(Files.readAllBytes(file.toPath()), StandardCharsets.US_ASCII));
+
+            ByteBuffer load = frame(2, NumberListServer.LOAD, 2 + path.length);
+            putPath(load, path);
+            send(load);
+            Response loaded = receive(1).get(2);
+            assertEquals(NumberListServer.STATUS_OK, loaded.status);
+            assertArrayEquals(new NumberListImpl(file).toDigitArray(), loaded.digits);
+            assertEquals(new NumberListImpl(file).getBase(), loaded.base);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        changeScale(1, 8, new byte[] {1, 9}, 10);
+        changeScale(2, 8, new byte[] {1}, 40);
+        send(frame(3, (byte) 99, 0));
+        ByteBuffer truncated = frame(4, NumberListServer.CHANGE_SCALE, 5);
+        send(truncated.put((byte) 8).putInt(100));
+        File missing = new File(System.getProperty("java.io.tmpdir"), "no-such-dir-" + System.nanoTime() + "/x");
+        byte[] path = missing.getPath().getBytes(StandardCharsets.UTF_8);
+        send(putPathFrame(5, path));
+        changeScale(6, 8, new byte[] {1, 7}, 10);
+        Map<Integer, Response> responses = receive(6);
+        for (int id = 1; id <= 5; id++) {
+            assertEquals("request " + id, NumberListServer.STATUS_ERROR, responses.get(id).status);
+            assertTrue(!responses.get(id).message.isEmpty());
+        }
+        // the connection stays usable after failed requests
+        assertArrayEquals(new byte[] {1, 5}, responses.get(6).digits);
+    }
+
+    private static ByteBuffer putPathFrame(int id, byte[] path) {
+        ByteBuffer frame = frame(id, NumberListServer.LOAD, 2 + path.length);
+        putPath(frame, path);
+        return frame;
+    }
+
+    private SocketChannel connect() throws IOException {
+        return SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+    }
+
+    private static void write(SocketChannel channel, ByteBuffer bytes) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    @Test
+    public void testOversizedAndTruncatedFrames() throws IOException, InterruptedException {
+        try (SocketChannel oversized = connect(); SocketChannel truncated = connect(); SocketChannel partial = connect()) {
+            // a frame longer than the limit closes only its connection
+            write(oversized, ByteBuffer.allocate(9).putInt(NumberListServer.MAX_FRAME + 1).putInt(1).put((byte) 1));
+            assertEquals(-1, oversized.read(ByteBuffer.allocate(1)));
+            // announced lengths allocate nothing until the bytes arrive
+            write(truncated, ByteBuffer.allocate(9).putInt(NumberListServer.MAX_FRAME).putInt(2).put((byte) 1));
+            ByteBuffer start = ByteBuffer.allocate(200_000).putInt(NumberListServer.MAX_FRAME).putInt(3).put((byte) 1);
+            write(partial, start.position(start.capacity()));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.readBufferBytes() < 200_000 - (64 << 10) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(server.readBufferBytes() >= 200_000 - (64 << 10));
+            assertTrue(server.readBufferBytes() < 2 * 200_000);
+            changeScale(4, 10, new byte[] {4, 2}, 16);
+            assertArrayEquals(new byte[] {2, 10}, receive(1).get(4).digits);
+        }
+        // the connections closed with incomplete frames release their buffers
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.readBufferBytes() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, server.readBufferBytes());
+        changeScale(5, 10, new byte[] {1, 7}, 2);
+        assertArrayEquals(new byte[] {1, 0, 0, 0, 1}, receive(1).get(5).digits);
+    }
+
+    @Test
+    public void testSeveralClients() throws IOException {
+        try (SocketChannel other = SocketChannel.open(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()))) {
+            DataInputStream otherIn = new DataInputStream(Channels.newInputStream(other));
+            ByteBuffer frame = frame(5, NumberListServer.CHANGE_SCALE, 8);
+            putNumber(frame, 10, new byte[] {2, 5});
+            frame.put((byte) 16).flip();
+            while (frame.hasRemaining()) {
+                other.write(frame);
+            }
+            changeScale(5, 10, new byte[] {3, 1}, 2);
+            assertArrayEquals(new byte[] {1, 1, 1, 1, 1}, receive(1).get(5).digits);
+            assertEquals(12, otherIn.readInt());
+            assertEquals(5, otherIn.readInt());
+            assertEquals(NumberListServer.STATUS_OK, otherIn.readByte());
+            assertEquals(16, otherIn.readByte());
+            assertEquals(2, otherIn.readInt());
+            assertEquals(1, otherIn.readByte());
+            assertEquals(9, otherIn.readByte());
+        }
+    }
+}
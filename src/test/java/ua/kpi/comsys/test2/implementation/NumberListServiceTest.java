@@ -0,0 +1,176 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NumberListServiceTest {
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+        fail("completed normally");
+        return null;
+    }
+
+    @Test(timeout = 30_000)
+    public void testOperationsMatchSynchronousOnes() {
+        try (NumberListService service = new NumberListService()) {
+            NumberListImpl a = service.parse("987654321987654321987654321").join();
+            NumberListImpl b = new NumberListImpl("123456789123456789");
+            assertEquals(new NumberListImpl("987654321987654321987654321"), a);
+            assertEquals(a.changeScale(), service.changeScale(a).join());
+            assertEquals(a.changeScale(36), service.changeScale(a, 36).join());
+            assertEquals(a.additionalOperation(b), service.additionalOperation(a, b).join());
+            assertEquals(0, service.inFlightDigits());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testSaveAndLoad() throws IOException {
+        File file = File.createTempFile("service", ".txt");
+        file.deleteOnExit();
+        NumberListImpl list = LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, 50_000, 40));
+        try (NumberListService service = new NumberListService()) {
+            assertEquals(file, service.save(list, file).join());
+            assertEquals(list.toDecimalString() + System.lineSeparator(),
+                    new String(Files.readAllBytes(file.toPath()), "US-ASCII"));
+            assertEquals(list.toDecimalString(), service.load(file).join().toDecimalString());
+            assertEquals(new NumberListImpl(file), service.load(file).join());
+
+            Throwable failure = failureOf(service.load(new File(file.getPath() + ".missing")));
+            assertTrue(failure instanceof UncheckedIOException);
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testBatch() {
+        List<NumberListImpl> lists = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int digits = i % 10 == 0 ? 20_000 : 1 + i;
+            lists.add(LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, digits, i)));
+        }
+        try (NumberListService service = new NumberListService(2, 100_000, 30, TimeUnit.SECONDS)) {
+            List<NumberListImpl> results = service.submitAll(lists, list -> list.changeScale(16)).join();
+            assertEquals(lists.size(), results.size());
+            for (int i = 0; i < lists.size(); i++) {
+                assertEquals(lists.get(i).changeScale(16), results.get(i));
+            }
+            assertEquals(0, service.inFlightDigits());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testAdmissionControl() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NumberListImpl large = LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, 1000, 41));
+        try (NumberListService service = new NumberListService(1, 1000, 50, TimeUnit.MILLISECONDS)) {
+            CompletableFuture<List<NumberListImpl>> blocked = service.submitAll(List.of(large), list -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return list;
+            });
+            started.await();
+            assertEquals(1000, service.inFlightDigits());
+
+            Throwable failure = failureOf(service.parse("12"));
+            assertTrue(failure instanceof RejectedExecutionException);
+
+            release.countDown();
+            assertEquals(large, blocked.join().get(0));
+            assertEquals(new NumberListImpl("12"), service.parse("12").join());
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testSubmissionDoesNotBlock() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        NumberListImpl large = LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, 1000, 43));
+        try (NumberListService service = new NumberListService(1, 1000, 30, TimeUnit.SECONDS)) {
+            CompletableFuture<List<NumberListImpl>> blocked = service.submitAll(List.of(large), list -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return list;
+            });
+            started.await();
+            // the budget is exhausted, yet the call returns at once
+            CompletableFuture<NumberListImpl> waiting = service.parse("12");
+            assertFalse(waiting.isDone());
+            release.countDown();
+            assertEquals(new NumberListImpl("12"), waiting.join());
+            blocked.join();
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testSmallOperationsBypassHeavyOnes() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int heavyDigits = NumberListService.SMALL_DIGITS + 1;
+        NumberListImpl heavy = LargeNumberGenerator.list(8, LargeNumberGenerator.digits(8, heavyDigits, 42));
+        // a quarter of the budget is reserved for small operations, so only one heavy one fits
+        try (NumberListService service = new NumberListService(1, 24_000, 30, TimeUnit.SECONDS)) {
+            CompletableFuture<List<NumberListImpl>> blocked = service.submitAll(List.of(heavy, heavy), list -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return list;
+            });
+            started.await();
+            assertEquals(heavyDigits, service.inFlightDigits());
+            // the second heavy operation waits for the budget; small ones do not queue behind it
+            for (int i = 0; i < 100; i++) {
+                assertEquals(new NumberListImpl("255"), service.parse("255").join());
+            }
+            assertFalse(blocked.isDone());
+            assertEquals(heavyDigits, service.inFlightDigits());
+            release.countDown();
+            assertEquals(2, blocked.join().size());
+            assertEquals(0, service.inFlightDigits());
+        }
+    }
+
+    @Test
+    public void testClosedServiceRejects() {
+        NumberListService service = new NumberListService(1, 10, 1, TimeUnit.SECONDS);
+        service.close();
+        assertTrue(failureOf(service.parse("1")) instanceof RejectedExecutionException);
+        assertEquals(0, service.inFlightDigits());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBudget() {
+        new NumberListService(1, 0, 1, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,124 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RadixConverterTest {
+
+    private static byte[] digitsOf(BigInteger value, int base) {
+        String s = value.toString(base);
+        byte[] digits = new byte[s.length()];
+        for (int i = 0; i < s.length(); i++) {
+            digits[i] = (byte) Character.digit(s.charAt(i), base);
+        }
+        return digits;
+    }
+
+    @Test
+    public void testAllBasesAgainstBigInteger() {
+        Random random = new Random(34);
+        for (int base = RadixTables.MIN_BASE; base <= RadixTables.MAX_BASE; base++) {
+            for (int bits : new int[] {1, 63, 64, 65, 1000, 20000}) {
+                BigInteger value = new BigInteger(bits, random).setBit(bits - 1);
+                byte[] expected = digitsOf(value, base);
+                assertArrayEquals("base " + base, expected, RadixConverter.toDigits(value, base));
+                assertEquals("base " + base, value,
+                        RadixConverter.toBigInteger(expected, 0, expected.length, base));
+                assertEquals(value.toString(base).toUpperCase(), RadixConverter.toString(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testPowersOfBase() {
+        for (int base = RadixTables.MIN_BASE; base <= RadixTables.MAX_BASE; base++) {
+            for (int exp : new int[] {0, 1, 12, 13, 64, 127, 128, 513}) {
+                BigInteger power = BigInteger.valueOf(base).pow(exp);
+                assertArrayEquals(digitsOf(power, base), RadixConverter.toDigits(power, base));
+                BigInteger below = power.subtract(BigInteger.ONE);
+                assertArrayEquals(digitsOf(below, base), RadixConverter.toDigits(below, base));
+            }
+        }
+    }
+
+    @Test
+    public void testLeadingZerosAndParse() {
+        byte[] digits = {0, 0, 0, 1, 7};
+        assertEquals(BigInteger.valueOf(15), RadixConverter.toBigInteger(digits, 0, digits.length, 8));
+        assertEquals(BigInteger.valueOf(1), RadixConverter.toBigInteger(digits, 1, 3, 8));
+        assertArrayEquals(new byte[] {0}, RadixConverter.toDigits(BigInteger.ZERO, 16));
+        assertEquals(BigInteger.valueOf(255), RadixConverter.parse("xxffxx", 2, 4, 16));
+        assertEquals(BigInteger.valueOf(35), RadixConverter.parse("Z", 0, 1, 36));
+        assertNull(RadixConverter.parse("129", 0, 3, 8));
+        assertNull(RadixConverter.parse("1١", 0, 2, 10));
+    }
+
+    @Test
+    public void testTablesAreCached() {
+        RadixTables tables = RadixTables.of(10);
+        assertSame(tables, RadixTables.of(10));
+        assertEquals(18, tables.digitsPerLong);
+        assertEquals(1_000_000_000_000_000_000L, tables.radixPower);
+        assertEquals(4, RadixTables.of(16).bitsPerDigit);
+        assertEquals(0, RadixTables.of(10).bitsPerDigit);
+
+        BigInteger level = tables.power(5);
+        assertSame(level, tables.power(5));
+        assertEquals(BigInteger.TEN.pow(18 * 32), level);
+    }
+
+    @Test
+    public void testFactory() {
+        NumberListImpl list = NumberListImpl.valueOf("1fz", 36);
+        assertEquals(36, list.getBase());
+        assertEquals(3, list.size());
+        assertEquals("1FZ", list.toString());
+        assertEquals(String.valueOf(Integer.parseInt("1fz", 36)), list.toDecimalString());
+        assertTrue(NumberListImpl.valueOf("12", 2).isEmpty());
+        assertTrue(NumberListImpl.ofBase(5).isEmpty());
+        assertEquals(5, NumberListImpl.ofBase(5).getBase());
+        assertEquals(8, new NumberListImpl().getBase());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFactoryRejectsBase() {
+        NumberListImpl.ofBase(37);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChangeScaleRejectsBase() {
+        new NumberListImpl("10").changeScale(1);
+    }
+
+    @Test
+    public void testChangeScaleToAnyBase() {
+        BigInteger value = new BigInteger("98765432109876543210987654321");
+        NumberListImpl list = new NumberListImpl(value.toString());
+        for (int base = RadixTables.MIN_BASE; base <= RadixTables.MAX_BASE; base++) {
+            NumberListImpl converted = list.changeScale(base);
+            assertEquals(base, converted.getBase());
+            assertEquals(value.toString(base).toUpperCase(), converted.toString());
+            assertEquals(value.toString(), converted.toDecimalString());
+            assertEquals(list, converted.changeScale(8));
+        }
+        assertEquals(list.changeScale(10), list.changeScale());
+    }
+
+    @Test
+    public void testAdditionalOperationInOtherBase() {
+        NumberListImpl a = NumberListImpl.valueOf("FF0F", 16);
+        NumberListImpl b = NumberListImpl.valueOf("0FFF", 16);
+        assertEquals("F0F", a.additionalOperation(b).toString());
+        NumberListImpl c = NumberListImpl.valueOf("ZZ", 36);
+        assertEquals(BigInteger.valueOf(1295).and(BigInteger.valueOf(0xFF0F)).toString(),
+                c.additionalOperation(a).toDecimalString());
+    }
+}
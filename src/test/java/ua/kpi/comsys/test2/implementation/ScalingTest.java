@@ -0,0 +1,187 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks operation cost at increasing input sizes and verifies results
+ * against a {@link BigInteger} oracle.<p>
+ *
+ * The largest size is taken from the {@code numberlist.scaling.maxDigits}
+ * system property (default 2^20) and can be raised up to 10^7 together with
+ * the heap size. Conversions are checked against the oracle up to
+ * {@code numberlist.oracle.maxDigits} digits (default 2^14). Both are passed
+ * through {@code TEST_JVM_ARGS} of the {@code Makefile}.
+ */
+public class ScalingTest {
+
+    static final long SEED = 4317;
+    static final int MIN_DIGITS = 1 << 12;
+    static final int MAX_DIGITS = Integer.getInteger("numberlist.scaling.maxDigits", 1 << 20);
+    static final int ORACLE_DIGITS = Integer.getInteger("numberlist.oracle.maxDigits", 1 << 14);
+
+    /** Log-log slope above which a supposedly linear operation is reported as super-linear. */
+    static final double MAX_LINEAR_SLOPE = 1.5;
+
+    /** Operations that must be linear; the second argument is an equal copy of the list. */
+    static final Map<String, BiConsumer<NumberListImpl, NumberListImpl>> LINEAR_OPERATIONS = new LinkedHashMap<>();
+
+    static {
+        LINEAR_OPERATIONS.put("toString", (l, copy) -> l.toString());
+        LINEAR_OPERATIONS.put("toArray", (l, copy) -> l.toArray());
+        LINEAR_OPERATIONS.put("equals", (l, copy) -> assertTrue(l.equals(copy)));
+        LINEAR_OPERATIONS.put("get", (l, copy) -> l.get(l.size() / 2));
+        LINEAR_OPERATIONS.put("swap", (l, copy) -> l.swap(l.size() / 4, l.size() * 3 / 4));
+        LINEAR_OPERATIONS.put("shift", (l, copy) -> {
+            l.shiftLeft(l.size() / 2);
+            l.shiftRight(l.size() / 2);
+        });
+        LINEAR_OPERATIONS.put("sortAscending", (l, copy) -> l.sortAscending());
+        LINEAR_OPERATIONS.put("sortDescending", (l, copy) -> l.sortDescending());
+    }
+
+    /**
+     * Returns the nanoseconds per operation at the given size: the operation
+     * runs enough times to do the same amount of linear work at every size,
+     * and the best of three rounds is taken.
+     */
+    private static double measure(BiConsumer<NumberListImpl, NumberListImpl> op,
+                                  NumberListImpl list, NumberListImpl copy) {
+        int reps = Math.max(1, MAX_DIGITS / list.size());
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < reps; i++) {
+                op.accept(list, copy);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double) best / reps;
+    }
+
+    @Test
+    public void testGeneratorIsDeterministic() {
+        for (int base : LargeNumberGenerator.BASES) {
+            byte[] a = LargeNumberGenerator.digits(base, 1000, SEED);
+            byte[] b = LargeNumberGenerator.digits(base, 1000, SEED);
+            assertArrayEquals(a, b);
+            assertTrue(a[0] > 0);
+            for (byte d : a) {
+                assertTrue(d >= 0 && d < base);
+            }
+        }
+    }
+
+    @Test
+    public void testLinearOperationsScaleLinearly() {
+        for (int base : LargeNumberGenerator.BASES) {
+            Map<Integer, NumberListImpl> lists = new LinkedHashMap<>();
+            Map<Integer, NumberListImpl> copies = new LinkedHashMap<>();
+            for (int n = MIN_DIGITS; n <= MAX_DIGITS; n *= 4) {
+                byte[] digits = LargeNumberGenerator.digits(base, n, SEED);
+                lists.put(n, LargeNumberGenerator.list(base, digits));
+                copies.put(n, LargeNumberGenerator.list(base, digits));
+            }
+            int smallest = MIN_DIGITS;
+            int largest = smallest;
+            for (int n : lists.keySet()) {
+                largest = n;
+            }
+            if (largest == smallest) {
+                continue;
+            }
+            for (Map.Entry<String, BiConsumer<NumberListImpl, NumberListImpl>> op : LINEAR_OPERATIONS.entrySet()) {
+                // warm up on the smallest size so that JIT compilation is not measured
+                measure(op.getValue(), lists.get(smallest), copies.get(smallest));
+
+                double small = measure(op.getValue(), lists.get(smallest), copies.get(smallest));
+                double large = measure(op.getValue(), lists.get(largest), copies.get(largest));
+                double slope = Math.log(large / small) / Math.log((double) largest / smallest);
+                assertTrue(String.format("%s in base %d grows super-linearly: %.0f ns at %d digits,"
+                                + " %.0f ns at %d digits (slope %.2f)",
+                                op.getKey(), base, small, smallest, large, largest, slope),
+                        slope <= MAX_LINEAR_SLOPE);
+            }
+        }
+    }
+
+    @Test
+    public void testResultsMatchOracle() {
+        for (int base : LargeNumberGenerator.BASES) {
+            for (int n = 1; n <= ORACLE_DIGITS; n *= 8) {
+                byte[] digits = LargeNumberGenerator.digits(base, n, SEED + n);
+                BigInteger value = LargeNumberGenerator.value(base, digits);
+                NumberListImpl list = LargeNumberGenerator.list(base, digits);
+
+                assertEquals(LargeNumberGenerator.text(digits), list.toString());
+                assertEquals(value.toString(), list.toDecimalString());
+                assertEquals(value.toString(), list.changeScale().toString());
+
+                byte[] sorted = digits.clone();
+                Arrays.sort(sorted);
+                list.sortAscending();
+                assertEquals(LargeNumberGenerator.text(sorted), list.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testAdditionalOperationMatchesOracle() {
+        for (int base : LargeNumberGenerator.BASES) {
+            for (int n = 1; n <= ORACLE_DIGITS; n *= 8) {
+                byte[] a = LargeNumberGenerator.digits(base, n, SEED + n);
+                byte[] b = LargeNumberGenerator.digits(base, n / 2 + 1, SEED - n);
+                BigInteger expected = LargeNumberGenerator.value(base, a)
+                        .and(LargeNumberGenerator.value(base, b));
+
+                NumberListImpl result = LargeNumberGenerator.list(base, a)
+                        .additionalOperation(LargeNumberGenerator.list(base, b));
+
+                String text = expected.signum() == 0 ? "" : expected.toString(base).toUpperCase();
+                assertEquals("base " + base + ", " + n + " digits", text, result.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testDecimalInputMatchesOracle() throws IOException {
+        File in = File.createTempFile("scaling-in", ".txt");
+        File out = File.createTempFile("scaling-out", ".txt");
+        try {
+            for (int n = 1; n <= ORACLE_DIGITS; n *= 8) {
+                LargeNumberGenerator.writeDecimalFile(in, n, SEED + n);
+                String decimal;
+                try (BufferedReader br = new BufferedReader(new FileReader(in))) {
+                    decimal = br.readLine();
+                }
+                BigInteger value = new BigInteger(decimal);
+
+                NumberListImpl fromString = new NumberListImpl(decimal);
+                NumberListImpl fromFile = new NumberListImpl(in);
+                assertEquals(value.toString(8), fromString.toString());
+                assertEquals(fromString, fromFile);
+
+                fromFile.saveList(out);
+                try (BufferedReader br = new BufferedReader(new FileReader(out))) {
+                    assertEquals(decimal, br.readLine());
+                }
+            }
+        } finally {
+            in.delete();
+            out.delete();
+        }
+    }
+}
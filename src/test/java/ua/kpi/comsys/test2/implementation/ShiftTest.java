@@ -0,0 +1,79 @@
+package ua.kpi.comsys.test2.implementation;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ShiftTest {
+    NumberListImpl list;
+
+    @After
+    public void tearDown() {
+        if (list != null) {
+            list.clear();
+            list = null;
+        }
+    }
+
+    private static NumberListImpl digits(int... values) {
+        NumberListImpl res = new NumberListImpl();
+        for (int v : values) {
+            res.add((byte) v);
+        }
+        return res;
+    }
+
+    @Test
+    public void testShiftLeftByK() {
+        list = digits(1, 2, 3, 4, 5, 6, 7);
+        list.shiftLeft(3);
+        assertEquals("4567123", list.toString());
+        assertEquals(Byte.valueOf((byte) 4), list.get(0));
+        assertEquals(Byte.valueOf((byte) 3), list.get(6));
+    }
+
+    @Test
+    public void testShiftRightByK() {
+        list = digits(1, 2, 3, 4, 5, 6, 7);
+        list.shiftRight(2);
+        assertEquals("6712345", list.toString());
+        assertEquals(Byte.valueOf((byte) 5), list.get(6));
+    }
+
+    @Test
+    public void testShiftIsNormalisedModuloSize() {
+        list = digits(1, 2, 3, 4, 5);
+        list.shiftLeft(12);
+        assertEquals("34512", list.toString());
+        list.shiftRight(-3);
+        assertEquals("12345", list.toString());
+        list.shiftLeft(5);
+        assertEquals("12345", list.toString());
+    }
+
+    @Test
+    public void testShiftMatchesSingleSteps() {
+        list = digits(7, 0, 3, 1, 6, 2, 5, 4);
+        NumberListImpl expected = digits(7, 0, 3, 1, 6, 2, 5, 4);
+        for (int k = 0; k < 20; k++) {
+            list.shiftLeft(k);
+            for (int i = 0; i < k; i++) {
+                expected.shiftLeft();
+            }
+            assertEquals(expected, list);
+            list.shiftRight(k);
+            for (int i = 0; i < k; i++) {
+                expected.shiftRight();
+            }
+            assertEquals(expected, list);
+        }
+    }
+
+    @Test
+    public void testShiftConvertedList() {
+        list = new NumberListImpl("1212144468782345613").changeScale();
+        list.shiftRight(4);
+        assertEquals("5613121214446878234", list.toString());
+    }
+}
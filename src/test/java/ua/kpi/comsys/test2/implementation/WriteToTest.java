@@ -0,0 +1,99 @@
+package ua.kpi.comsys.test2.implementation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WriteToTest {
+
+    /** Appendable that is neither a Writer nor a StringBuilder. */
+    private static final class Recorder implements Appendable {
+        final StringBuilder text = new StringBuilder();
+        int calls;
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            calls++;
+            text.append(csq, start, end);
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) {
+            calls++;
+            text.append(c);
+            return this;
+        }
+    }
+
+    @Test
+    public void testToStringInAllBases() {
+        NumberListImpl list = NumberListImpl.valueOf("0123456789abcdefghijklmnopqrstuvwxyz", 36);
+        assertEquals("0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ", list.toString());
+        assertEquals("", new NumberListImpl().toString());
+    }
+
+    @Test
+    public void testWriteToAppendables() throws IOException {
+        NumberListImpl list = LargeNumberGenerator.list(36, LargeNumberGenerator.digits(36, 20_000, 36));
+        String expected = list.toString();
+        assertEquals(LargeNumberGenerator.text(LargeNumberGenerator.digits(36, 20_000, 36)), expected);
+
+        StringBuilder sb = new StringBuilder("x");
+        list.writeTo(sb);
+        assertEquals("x" + expected, sb.toString());
+
+        StringWriter writer = new StringWriter();
+        list.writeTo(writer);
+        assertEquals(expected, writer.toString());
+
+        Recorder recorder = new Recorder();
+        list.writeTo(recorder);
+        assertEquals(expected, recorder.text.toString());
+        assertEquals(3, recorder.calls);
+    }
+
+    @Test
+    public void testWriteToOutputStream() throws IOException {
+        NumberListImpl list = LargeNumberGenerator.list(16, LargeNumberGenerator.digits(16, 50_000, 36));
+        int[] largestWrite = new int[1];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                largestWrite[0] = Math.max(largestWrite[0], len);
+                bytes.write(b, off, len);
+            }
+        };
+        list.writeTo(out);
+        assertEquals(list.toString(), new String(bytes.toByteArray(), StandardCharsets.US_ASCII));
+        assertTrue(largestWrite[0] <= 8192);
+    }
+
+    @Test
+    public void testEmptyListWritesNothing() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        new NumberListImpl().writeTo(sb);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new NumberListImpl().writeTo(bytes);
+        assertEquals(0, sb.length());
+        assertEquals(0, bytes.size());
+    }
+}